@@ -0,0 +1,52 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Conjuntos de dados dos benchmarks, gerados com {@link SyntheticDataGenerator} a partir dos parâmetros
+ * {@code flows} e {@code processes}.
+ */
+final class BenchmarkData {
+    static final long SEED = 20241;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Cria um gerador com aproximadamente {@code flows} fluxos nos dados primários, repartidos por
+     * {@code processes} processos (pelo menos os processos obrigatórios e nunca mais processos do que fluxos).
+     */
+    static SyntheticDataGenerator generator(int flows, int processes) {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(SEED);
+        int processCount = Math.max(4, Math.min(processes, flows));
+        generator.setProcessCount(processCount);
+        generator.setFlowsPerProcess(Math.max(1, flows / processCount));
+        return generator;
+    }
+
+    /**
+     * Garante que um passo de preparação ou de um benchmark teve sucesso, para que não sejam medidos
+     * resultados vazios sem aviso.
+     *
+     * @throws IllegalStateException Se {@code success} for {@code false}.
+     */
+    static void require(boolean success, String step) {
+        if (!success) {
+            throw new IllegalStateException(step + " failed");
+        }
+    }
+
+    /**
+     * Apaga um ficheiro temporário e a respetiva pasta.
+     */
+    static void delete(Path file) throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+        }
+    }
+}
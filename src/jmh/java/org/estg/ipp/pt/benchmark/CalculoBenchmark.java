@@ -0,0 +1,78 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Calculo.FlowColumns;
+import org.estg.ipp.pt.Calculo.Hotspots;
+import org.estg.ipp.pt.Calculo.ResultadoPCF;
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+import org.estg.ipp.pt.Models.ProcessManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks do cálculo do PCF com {@link Calculo}, sobre processos modelados a partir de dados sintéticos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CalculoBenchmark {
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int flows;
+
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private List<ProcessInterface> modeled;
+    private FlowColumns columns;
+    private final Calculo calculo = new Calculo();
+    private final Calculo parallelCalculo = new Calculo(ForkJoinPool.commonPool());
+
+    @Setup
+    public void setUp() {
+        SyntheticDataGenerator generator = BenchmarkData.generator(flows, processes);
+
+        ProcessManager processManager = new ProcessManager();
+        BenchmarkData.require(processManager.modeling(generator.secondaryRows().toList()), "Secondary modeling");
+        BenchmarkData.require(processManager.modeling(generator.primaryRows().toList()), "Primary modeling");
+        modeled = new ArrayList<>(processManager.getPrimaryProcesses());
+        columns = calculo.toColumns(modeled);
+    }
+
+    @Benchmark
+    public double calculatePCFvalue() {
+        return calculo.calculatePCFvalue(modeled);
+    }
+
+    @Benchmark
+    public ResultadoPCF calculateParallel() {
+        return parallelCalculo.calculate(modeled);
+    }
+
+    @Benchmark
+    public ResultadoPCF calculateColumns() {
+        return calculo.calculate(columns);
+    }
+
+    @Benchmark
+    public Hotspots calculateHotspots() {
+        return calculo.calculateHotspots(modeled, 20);
+    }
+}
@@ -0,0 +1,62 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Import.CsvTokenizer;
+import org.estg.ipp.pt.Models.FlowClassifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da classificação de linhas com {@link FlowClassifier#classifyFlow(String[])} e
+ * {@link FlowClassifier#classifyFlow(CsvTokenizer)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ClassifyBenchmark {
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int flows;
+
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private List<String> rows;
+    private String[][] fields;
+    private final FlowClassifier classifier = new FlowClassifier();
+    private final CsvTokenizer tokenizer = new CsvTokenizer(',');
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkData.generator(flows, processes).primaryRows().toList();
+        fields = rows.stream().map(row -> row.split(",")).toArray(String[][]::new);
+    }
+
+    @Benchmark
+    public void classifySplit(Blackhole blackhole) {
+        for (String[] row : fields) {
+            blackhole.consume(classifier.classifyFlow(row));
+        }
+    }
+
+    @Benchmark
+    public void classifyTokenized(Blackhole blackhole) {
+        for (String row : rows) {
+            blackhole.consume(classifier.classifyFlow(tokenizer.tokenize(row)));
+        }
+    }
+}
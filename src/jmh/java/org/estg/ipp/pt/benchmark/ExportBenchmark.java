@@ -0,0 +1,92 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Export.ExportSession;
+import org.estg.ipp.pt.Export.FilterOptions;
+import org.estg.ipp.pt.Export.ResultExporter;
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da exportação dos resultados com {@link ResultExporter#exportData(HashMap, Double,
+ * org.estg.ipp.pt.Interfaces.Export.FilterOpt)}.
+ *
+ * <p>O ficheiro é escrito em {@code ./Export/PFC.csv}, relativo à pasta de trabalho da tarefa {@code jmh},
+ * e é limpo no fim de cada iteração. Os benchmarks com {@link ExportSession} escrevem em
+ * {@code ./Export/PFC-session.csv}, com o ficheiro aberto durante todo o benchmark.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ExportBenchmark {
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private final HashMap<String, Double> resultPerProcess = new HashMap<>();
+    private final ResultExporter exporter = new ResultExporter();
+    private final FilterOptions allProcesses = new FilterOptions(0, Double.MAX_VALUE, null);
+    private final FilterOptions halfProcesses = new FilterOptions(0, 0.5, null);
+    private ExportSession session;
+    private double result;
+
+    @Setup
+    public void setUp() throws IOException {
+        session = new ExportSession("./Export/PFC-session.csv");
+        for (int i = 0; i < processes; i++) {
+            double value = (i % 100) / 100.0;
+            resultPerProcess.put(SyntheticDataGenerator.processName(i), value);
+            result += value;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearFile() {
+        exporter.clear();
+        session.clear();
+    }
+
+    @TearDown
+    public void closeSession() throws IOException {
+        session.close();
+        Files.deleteIfExists(session.getPath());
+    }
+
+    @Benchmark
+    public boolean exportAll() {
+        return exporter.exportData(resultPerProcess, result, allProcesses);
+    }
+
+    @Benchmark
+    public boolean exportFiltered() {
+        return exporter.exportData(resultPerProcess, result, halfProcesses);
+    }
+
+    @Benchmark
+    public boolean exportAllWithSession() {
+        return session.exportData(resultPerProcess, result, allProcesses);
+    }
+
+    @Benchmark
+    public boolean exportFilteredWithSession() {
+        return session.exportData(resultPerProcess, result, halfProcesses);
+    }
+}
@@ -0,0 +1,67 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Import.Import;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks da importação de um ficheiro CSV de dados primários com {@link Import}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ImportBenchmark {
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int flows;
+
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempDirectory("jmh").resolve("primaryData.csv");
+        if (!BenchmarkData.generator(flows, processes).writePrimary(file.toString())) {
+            throw new IOException("Failed to write " + file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(file);
+    }
+
+    @Benchmark
+    public Import importCsv() {
+        Import importer = new Import();
+        importer.ImportCSV(file.toString());
+        return importer;
+    }
+
+    @Benchmark
+    public long streamCsv() {
+        try (Stream<String> rows = new Import().streamCSV(file.toString())) {
+            return rows.count();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+import org.estg.ipp.pt.Models.ProcessManager;
+import org.estg.ipp.pt.Models.SecondaryDataRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da modelagem de dados secundários e primários com {@link ProcessManager#modeling(List)} e, em
+ * lotes, com {@link ProcessManager#modeling(java.util.stream.Stream)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ModelingBenchmark {
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int flows;
+
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private List<String> secondaryRows;
+    private List<String> primaryRows;
+    private SecondaryDataRepository repository;
+
+    @Setup
+    public void setUp() {
+        SyntheticDataGenerator generator = BenchmarkData.generator(flows, processes);
+        secondaryRows = generator.secondaryRows().toList();
+        primaryRows = generator.primaryRows().toList();
+
+        ProcessManager processManager = new ProcessManager();
+        BenchmarkData.require(processManager.modeling(secondaryRows), "Secondary modeling");
+        repository = processManager.getSecondaryRepository();
+    }
+
+    @Benchmark
+    public ProcessManager modelSecondaryAndPrimary() {
+        ProcessManager processManager = new ProcessManager();
+        BenchmarkData.require(processManager.modeling(secondaryRows), "Secondary modeling");
+        BenchmarkData.require(processManager.modeling(primaryRows), "Primary modeling");
+        return processManager;
+    }
+
+    @Benchmark
+    public ProcessManager modelPrimaryWithSharedSecondary() {
+        ProcessManager processManager = new ProcessManager(repository);
+        BenchmarkData.require(processManager.modeling(primaryRows), "Primary modeling");
+        return processManager;
+    }
+
+    @Benchmark
+    public ProcessManager modelSecondaryInBatches() {
+        ProcessManager processManager = new ProcessManager(10_000);
+        BenchmarkData.require(processManager.modeling(secondaryRows.stream()), "Secondary modeling");
+        return processManager;
+    }
+}
@@ -0,0 +1,84 @@
+package org.estg.ipp.pt.benchmark;
+
+import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Import.Import;
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+import org.estg.ipp.pt.Models.ProcessManager;
+import org.estg.ipp.pt.Pipeline.PipelinePCF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks da execução completa (importação, modelagem e cálculo), em sequência e com {@link PipelinePCF}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PipelineBenchmark {
+    @Param({"10", "10000", "1000000", "10000000"})
+    public int flows;
+
+    @Param({"5", "500", "50000"})
+    public int processes;
+
+    private Path primary;
+    private Path secondary;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("jmh");
+        primary = directory.resolve("primaryData.csv");
+        secondary = directory.resolve("secondaryData.csv");
+
+        SyntheticDataGenerator generator = BenchmarkData.generator(flows, processes);
+        if (!generator.writePrimary(primary.toString()) || !generator.writeSecondary(secondary.toString())) {
+            throw new IOException("Failed to write " + directory);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(primary);
+        BenchmarkData.delete(secondary);
+    }
+
+    @Benchmark
+    public double sequential() {
+        Import importer = new Import();
+        ProcessManager processManager = new ProcessManager();
+        try (Stream<String> rows = importer.streamCSV(secondary.toString())) {
+            BenchmarkData.require(processManager.modeling(rows), "Secondary modeling");
+        }
+        try (Stream<String> rows = importer.streamCSV(primary.toString())) {
+            BenchmarkData.require(processManager.modeling(rows), "Primary modeling");
+        }
+        return new Calculo().calculatePCFvalue(new ArrayList<>(processManager.getPrimaryProcesses()));
+    }
+
+    @Benchmark
+    public double pipeline() {
+        PipelinePCF pipeline = new PipelinePCF();
+        BenchmarkData.require(pipeline.run(secondary.toString(), primary.toString()), "Pipeline");
+        return pipeline.getCalculo().getResultado();
+    }
+}
@@ -1,7 +1,11 @@
 package org.estg.ipp.pt.Calculo;
 
 import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Export.ProcessFilter;
 import org.estg.ipp.pt.Interfaces.Calculo.Resultado;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
 import org.estg.ipp.pt.Models.Flow;
 import org.estg.ipp.pt.Models.Process;
@@ -9,7 +13,13 @@ import org.estg.ipp.pt.Models.Process;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 /**
  * A classe {@code Calculo} implementa a interface {@link Resultado} e é responsável por calcular o impacto
@@ -20,8 +30,13 @@ import java.util.List;
  *   <li>Calcular a ineficiência de fluxos e os impactos relacionados à energia.</li>
  *   <li>Verificar se todos os processos necessários estão presentes antes do cálculo.</li>
  *   <li>Realizar os cálculos detalhados por processo e armazenar os resultados específicos.</li>
+ *   <li>Calcular os impactos dos processos em paralelo num {@link ForkJoinPool}, se configurado.</li>
  * </ul>
  *
+ * <p>Os impactos são acumulados com {@link CompensatedSum}: cada processo tem a sua soma parcial e o total
+ * junta as somas parciais pela ordem dos processos. Por isso, o modo paralelo devolve exatamente o mesmo
+ * valor do modo sequencial.</p>
+ *
  * <p><b>Requisitos:</b></p>
  * <ul>
  *   <li>A lista de processos não pode estar vazia.</li>
@@ -31,22 +46,36 @@ import java.util.List;
  *
  * <p><b>Principais Classes e Métodos:</b></p>
  * <ul>
- *   <li>{@link #calculateImpact(Flow, Flow)}: Calcula o impacto de um fluxo com base em seu fluxo de emissão.</li>
+ *   <li>{@link #calculateImpact(FlowInterface, FlowInterface)}: Calcula o impacto de um fluxo com base em seu fluxo de emissão.</li>
+ *   <li>{@link #calculate(List)}: Calcula o PCF para uma lista de processos e devolve um {@link ResultadoPCF}.</li>
+ *   <li>{@link #calculate(List, FilterOpt)}: Calcula apenas os processos que passam num filtro de exportação.</li>
+ *   <li>{@link #calculateHotspots(List, int)}: Calcula o PCF e devolve os processos e os fluxos com maior impacto.</li>
+ *   <li>{@link #calculateBatch(List)}: Calcula o PCF de várias variantes de um produto numa única chamada.</li>
+ *   <li>{@link #calculateIncremental(List)}: Calcula o PCF guardando as contribuições de cada fluxo,
+ *   para recalcular o resultado quando um fluxo é alterado.</li>
+ *   <li>{@link #toColumns(List)} e {@link #calculate(FlowColumns)}: Calculam o PCF sobre uma cópia
+ *   colunar dos fluxos, em ciclos sobre arrays de tipos primitivos.</li>
  *   <li>{@link #calculatePCFvalue(List)}: Calcula o valor do PCF para uma lista de processos.</li>
  *   <li>{@link #getResultado()}: Devolve o valor agregado do impacto ambiental.</li>
  *   <li>{@link #getResultadoPerProcess()}: Devolve o impacto ambiental detalhado por processo.</li>
  * </ul>
+ *
+ * <p>{@link #calculate(List)} não altera o estado da instância, pelo que a mesma instância pode ser usada
+ * por várias threads em simultâneo. {@link #calculatePCFvalue(List)} guarda apenas o último resultado,
+ * devolvido por {@link #getResultado()} e {@link #getResultadoPerProcess()}; cada chamada substitui
+ * o resultado anterior em vez de o acumular.</p>
  */
 public class Calculo implements Resultado {
 
-    private CalculoFlowInefficiency calculoFlowInefficiency;
+    private static final ResultadoPCF EMPTY_RESULT = new ResultadoPCF(0, Map.of());
 
-    private final HashMap<String,Double> resultadoPerProcess;
+    private final CalculoFlowInefficiency calculoFlowInefficiency;
 
-    private double resultado;
+    private volatile ResultadoPCF lastResult;
 
-    private CalculoEnergy calculoEnergy;
+    private final CalculoEnergy calculoEnergy;
 
+    private final ForkJoinPool pool;
 
     /**
      * Construtor padrão da classe {@code Calculo}.
@@ -55,10 +84,20 @@ public class Calculo implements Resultado {
      * além de configurar as estruturas para armazenar os resultados.</p>
      */
     public Calculo() {
+        this(null);
+    }
+
+    /**
+     * Construtor da classe {@code Calculo} que calcula os impactos dos processos em paralelo.
+     *
+     * @param pool O {@link ForkJoinPool} onde os impactos dos processos são calculados,
+     *             ou {@code null} para calcular sequencialmente.
+     */
+    public Calculo(ForkJoinPool pool) {
         this.calculoFlowInefficiency = new CalculoFlowInefficiency();
-        this.resultado = 0;
+        this.lastResult = EMPTY_RESULT;
         this.calculoEnergy = new CalculoEnergy();
-        this.resultadoPerProcess = new HashMap<>();
+        this.pool = pool;
     }
 
     /**
@@ -69,7 +108,7 @@ public class Calculo implements Resultado {
      * @return o valor do impact do flow
      */
     @Override
-    public double calculateImpact(Flow flow, Flow emissionFlow) {
+    public double calculateImpact(FlowInterface flow, FlowInterface emissionFlow) {
         return calculoFlowInefficiency.calculateImpact(flow,emissionFlow);
     }
 
@@ -80,18 +119,307 @@ public class Calculo implements Resultado {
      * @return o valor da ineficiência do fluxo
      */
     @Override
-    public double calculateFlowInefficiency(Flow flow) {
+    public double calculateFlowInefficiency(FlowInterface flow) {
         return calculoFlowInefficiency.calculateFlowInefficiency(flow);
     }
 
     /**
-     * Calcula o valor do PCF
+     * Calcula o valor do PCF e guarda o resultado, que passa a ser devolvido por {@link #getResultado()}
+     * e {@link #getResultadoPerProcess()}.
      *
      * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
      * @return valor do cálculo do PCF
      */
     @Override
     public double calculatePCFvalue(List<ProcessInterface> processes) {
+        ResultadoPCF result = calculate(processes);
+        lastResult = result;
+        return result.getResultado();
+    }
+
+    /**
+     * Calcula o PCF para uma lista de processos, sem alterar o estado desta instância.
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @return O resultado imutável do cálculo, com o total e o impacto por processo.
+     * @throws IllegalArgumentException Se a lista estiver vazia ou faltar algum processo obrigatório.
+     */
+    @Override
+    public ResultadoPCF calculate(List<ProcessInterface> processes) {
+        Flow EnergyImpact = calculoEnergy.calculateEnergyImpact(validateProcesses(processes).getOutputs());
+
+        return toResultado(processes, calculateProcessImpacts(processes, EnergyImpact));
+    }
+
+    /**
+     * Calcula o PCF apenas dos processos que passam num filtro, sem alterar o estado desta instância.
+     *
+     * <p>O filtro é compilado uma única vez. Os processos cujo nome não corresponde ao do filtro não são
+     * calculados; os restantes são calculados e mantidos apenas se o seu impacto estiver entre o mínimo e o
+     * máximo do filtro. O impacto de cada processo mantido é igual ao de {@link #calculate(List)}, e o mapa
+     * por processo é o mesmo que {@link org.estg.ipp.pt.Export.ResultExporter} exportaria com este filtro.</p>
+     *
+     * <p>O total devolvido é a soma dos processos mantidos, e não o PCF do produto completo.</p>
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @param filter    O filtro aplicado aos processos.
+     * @return O resultado imutável do cálculo, com o total e o impacto dos processos que passam no filtro.
+     * @throws IllegalArgumentException Se a lista estiver vazia, faltar algum processo obrigatório ou o filtro
+     *                                  for inválido.
+     */
+    public ResultadoPCF calculate(List<ProcessInterface> processes, FilterOpt filter) {
+        ProcessFilter compiled = ProcessFilter.compile(filter);
+        Flow EnergyImpact = calculoEnergy.calculateEnergyImpact(validateProcesses(processes).getOutputs());
+
+        List<ProcessInterface> selected = new ArrayList<>();
+        for (ProcessInterface process : processes) {
+            if (compiled.acceptsProcess(process.getProcessName().toLowerCase())) {
+                selected.add(process);
+            }
+        }
+        List<CompensatedSum> impacts = calculateProcessImpacts(selected, EnergyImpact);
+
+        CompensatedSum total = new CompensatedSum();
+        Map<String, Double> resultadoPerProcess = new LinkedHashMap<>();
+        for (int i = 0; i < impacts.size(); i++) {
+            CompensatedSum perProcess = impacts.get(i);
+            if (compiled.acceptsValue(perProcess.getValue())) {
+                total.add(perProcess);
+                resultadoPerProcess.put(selected.get(i).getProcessName().toLowerCase(), perProcess.getValue());
+            }
+        }
+        return new ResultadoPCF(total.getValue(), resultadoPerProcess);
+    }
+
+    /**
+     * Calcula o PCF e devolve os {@code k} processos e os {@code k} fluxos de entrada com maior impacto.
+     *
+     * <p>Os maiores contribuidores são mantidos em heaps limitados a {@code k} elementos durante o cálculo,
+     * sem criar nem ordenar o resultado de todos os processos e fluxos. O total e o impacto de cada processo
+     * são iguais, bit a bit, aos de {@link #calculate(List)}. Os processos são calculados sequencialmente, e
+     * cada processo da lista é considerado separadamente, mesmo que outro tenha o mesmo nome.</p>
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @param k         O número máximo de processos e de fluxos devolvidos.
+     * @return Os maiores contribuidores, do maior para o menor impacto.
+     * @throws IllegalArgumentException Se {@code k} não for positivo, a lista estiver vazia ou faltar algum
+     *                                  processo obrigatório.
+     */
+    public Hotspots calculateHotspots(List<ProcessInterface> processes, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        Flow EnergyImpact = calculoEnergy.calculateEnergyImpact(validateProcesses(processes).getOutputs());
+
+        TopK<Hotspots.ProcessHotspot> topProcesses = new TopK<>(k, Hotspots.ProcessHotspot::getImpact);
+        TopK<Hotspots.FlowHotspot> topFlows = new TopK<>(k, Hotspots.FlowHotspot::getImpact);
+        CompensatedSum total = new CompensatedSum();
+        for (ProcessInterface process : processes) {
+            CompensatedSum perProcess = calculateProcessHotspots(process, EnergyImpact, topFlows);
+            total.add(perProcess);
+            if (topProcesses.accepts(perProcess.getValue())) {
+                topProcesses.offer(new Hotspots.ProcessHotspot(process.getProcessName().toLowerCase(), perProcess.getValue()));
+            }
+        }
+        return new Hotspots(total.getValue(), topProcesses.toList(), topFlows.toList());
+    }
+
+    /**
+     * Calcula o impacto de um processo pela mesma ordem de {@link #calculateProcessImpact(ProcessInterface, Flow)},
+     * guardando os fluxos de entrada com maior impacto.
+     *
+     * @param process      O processo a ser calculado.
+     * @param energyImpact O fluxo com o impacto total da energia.
+     * @param topFlows     Os fluxos com maior impacto encontrados até agora.
+     * @return A soma parcial do impacto do processo.
+     */
+    private CompensatedSum calculateProcessHotspots(ProcessInterface process, Flow energyImpact,
+                                                    TopK<Hotspots.FlowHotspot> topFlows) {
+        CompensatedSum perProcess = new CompensatedSum();
+        for (FlowInterface inputFlow : process.getInputs()) {
+            double energy = 0;
+            double emissionFactor = 0;
+            if (inputFlow.getCategory() == FlowCategory.ENERGY) {
+                energy = calculateImpact(inputFlow, energyImpact);
+                emissionFactor = calculateFlowInefficiency(energyImpact);
+                perProcess.add(energy);
+            }
+            FlowInterface emissionFlow = getEmissionFlow(inputFlow, process);
+            double emission = calculateImpact(inputFlow, emissionFlow);
+            perProcess.add(emission);
+
+            if (topFlows.accepts(energy + emission)) {
+                emissionFactor += calculateFlowInefficiency(emissionFlow);
+                topFlows.offer(new Hotspots.FlowHotspot(process.getProcessName().toLowerCase(), inputFlow,
+                        emissionFactor, energy + emission));
+            }
+        }
+        return perProcess;
+    }
+
+    /**
+     * Cria uma cópia colunar dos fluxos de entrada dos processos, para ser calculada por
+     * {@link #calculate(FlowColumns)}.
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @return As colunas com os fluxos de entrada e os respetivos fluxos de emissão.
+     * @throws IllegalArgumentException Se a lista estiver vazia ou faltar algum processo obrigatório.
+     */
+    public FlowColumns toColumns(List<ProcessInterface> processes) {
+        Flow EnergyImpact = calculoEnergy.calculateEnergyImpact(validateProcesses(processes).getOutputs());
+        return new FlowColumns(processes, calculateFlowInefficiency(EnergyImpact));
+    }
+
+    /**
+     * Calcula o PCF sobre a cópia colunar dos fluxos.
+     *
+     * <p>O resultado é igual, bit a bit, ao de {@link #calculate(List)} para os processos usados
+     * para criar as colunas.</p>
+     *
+     * @param columns As colunas criadas por {@link #toColumns(List)}.
+     * @return O resultado imutável do cálculo, com o total e o impacto por processo.
+     */
+    public ResultadoPCF calculate(FlowColumns columns) {
+        double[] inefficiencies = new double[columns.getFlowCount()];
+        double[] impacts = new double[columns.getFlowCount()];
+        IntStream processes = IntStream.range(0, columns.getProcessCount());
+
+        List<CompensatedSum> perProcess = pool == null
+                ? processes.mapToObj(p -> calculateProcessImpact(columns, p, inefficiencies, impacts)).toList()
+                : pool.submit(() -> processes.parallel()
+                        .mapToObj(p -> calculateProcessImpact(columns, p, inefficiencies, impacts))
+                        .toList()).join();
+
+        return toResultado(p -> columns.processNames[p], perProcess);
+    }
+
+    /**
+     * Calcula o impacto de um processo guardado em colunas, somando os termos pela mesma ordem
+     * de {@link #calculateProcessImpact(ProcessInterface, Flow)}.
+     *
+     * @param columns        As colunas com os fluxos.
+     * @param process        O índice do processo.
+     * @param inefficiencies Array de trabalho para a ineficiência de cada fluxo.
+     * @param impacts        Array de trabalho para o impacto de cada fluxo.
+     * @return A soma parcial do impacto do processo.
+     */
+    private CompensatedSum calculateProcessImpact(FlowColumns columns, int process, double[] inefficiencies, double[] impacts) {
+        int from = columns.processOffsets[process];
+        int to = columns.processOffsets[process + 1];
+        calculoFlowInefficiency.calculateImpacts(columns, inefficiencies, impacts, from, to);
+
+        CompensatedSum perProcess = new CompensatedSum();
+        for (int i = from; i < to; i++) {
+            if (columns.isEnergy(i)) {
+                perProcess.add(inefficiencies[i] * columns.energyInefficiency);
+            }
+            perProcess.add(impacts[i]);
+        }
+        return perProcess;
+    }
+
+    /**
+     * Calcula o PCF guardando a contribuição de cada fluxo e de cada processo.
+     *
+     * <p>O {@link CalculoIncremental} devolvido permite alterar o valor ou a taxa de perda de um fluxo e
+     * obter o novo resultado sem recalcular todos os processos.</p>
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @return O registo das contribuições, já com o resultado calculado.
+     * @throws IllegalArgumentException Se a lista estiver vazia ou faltar algum processo obrigatório.
+     */
+    public CalculoIncremental calculateIncremental(List<ProcessInterface> processes) {
+        return new CalculoIncremental(calculoFlowInefficiency, processes, validateProcesses(processes));
+    }
+
+    /**
+     * Calcula o PCF de várias variantes de um produto, devolvendo um resultado por variante.
+     *
+     * <p>As variantes são calculadas em paralelo (no {@link ForkJoinPool} desta instância, se existir).
+     * Durante a chamada, o impacto da energia é calculado uma única vez por processo de energia e o impacto
+     * de cada processo é calculado uma única vez por par (processo, processo de energia): as variantes que
+     * partilham os mesmos objetos de processo reutilizam esses valores. Os processos não devem ser
+     * alterados enquanto o cálculo decorre.</p>
+     *
+     * @param variants A lista de variantes, cada uma com a sua lista de processos.
+     * @return Os resultados, pela ordem das variantes.
+     * @throws IllegalArgumentException Se alguma variante estiver vazia ou faltar algum processo obrigatório.
+     */
+    @Override
+    public List<ResultadoPCF> calculateBatch(List<List<ProcessInterface>> variants) {
+        Map<ProcessInterface, Flow> energyImpacts = new ConcurrentHashMap<>();
+        Map<ProcessInterface, Map<ProcessInterface, CompensatedSum>> processImpacts = new ConcurrentHashMap<>();
+
+        if (pool == null) {
+            return variants.parallelStream()
+                    .map(processes -> calculateVariant(processes, energyImpacts, processImpacts))
+                    .toList();
+        }
+
+        return pool.submit(() -> variants.parallelStream()
+                .map(processes -> calculateVariant(processes, energyImpacts, processImpacts))
+                .toList()).join();
+    }
+
+    /**
+     * Calcula o PCF de uma variante, reutilizando os impactos já calculados para outras variantes.
+     *
+     * @param processes      Os processos da variante.
+     * @param energyImpacts  O impacto da energia já calculado, por processo de energia.
+     * @param processImpacts O impacto de cada processo já calculado, por processo de energia.
+     * @return O resultado da variante.
+     */
+    private ResultadoPCF calculateVariant(List<ProcessInterface> processes, Map<ProcessInterface, Flow> energyImpacts,
+                                          Map<ProcessInterface, Map<ProcessInterface, CompensatedSum>> processImpacts) {
+        ProcessInterface energyProcess = validateProcesses(processes);
+        Flow energyImpact = energyImpacts.computeIfAbsent(energyProcess,
+                process -> calculoEnergy.calculateEnergyImpact(process.getOutputs()));
+        Map<ProcessInterface, CompensatedSum> impacts = processImpacts.computeIfAbsent(energyProcess,
+                process -> new ConcurrentHashMap<>());
+
+        return toResultado(processes, processes.stream()
+                .map(process -> impacts.computeIfAbsent(process, key -> calculateProcessImpact(key, energyImpact)))
+                .toList());
+    }
+
+    /**
+     * Junta os impactos dos processos, pela ordem da lista, num {@link ResultadoPCF}.
+     *
+     * @param processes Os processos calculados.
+     * @param impacts   A soma parcial do impacto de cada processo, pela mesma ordem.
+     * @return O resultado do cálculo.
+     */
+    private ResultadoPCF toResultado(List<ProcessInterface> processes, List<CompensatedSum> impacts) {
+        return toResultado(i -> processes.get(i).getProcessName().toLowerCase(), impacts);
+    }
+
+    /**
+     * Junta os impactos dos processos, pela ordem da lista, num {@link ResultadoPCF}.
+     *
+     * @param processNames O nome em minúsculas de cada processo, pelo seu índice.
+     * @param impacts      A soma parcial do impacto de cada processo.
+     * @return O resultado do cálculo.
+     */
+    private ResultadoPCF toResultado(IntFunction<String> processNames, List<CompensatedSum> impacts) {
+        CompensatedSum total = new CompensatedSum();
+        Map<String, Double> resultadoPerProcess = new LinkedHashMap<>();
+
+        for (int i = 0; i < impacts.size(); i++) {
+            CompensatedSum perProcess = impacts.get(i);
+            total.add(perProcess);
+            resultadoPerProcess.put(processNames.apply(i), perProcess.getValue());
+        }
+        return new ResultadoPCF(total.getValue(), resultadoPerProcess);
+    }
+
+    /**
+     * Verifica se a lista de processos contém o processo de energia e todos os processos obrigatórios.
+     *
+     * @param processes A lista de processos a ser validada.
+     * @return O processo de energia.
+     * @throws IllegalArgumentException Se a lista estiver vazia ou faltar algum processo obrigatório.
+     */
+    private ProcessInterface validateProcesses(List<ProcessInterface> processes) {
         if(processes.isEmpty()){
             throw new IllegalArgumentException("Processes cannot be empty");
         }
@@ -104,9 +432,6 @@ public class Calculo implements Resultado {
             throw new IllegalArgumentException("There is no energy process");
         }
 
-        Flow EnergyImpact = calculoEnergy.calculateEnergyImpact(energyProcess.getOutputs());
-
-
         for (ProcessInterface process : processes) {
             if (!presentProcesses.contains(process.getProcessName().toLowerCase())) {
                 presentProcesses.add(process.getProcessName().toLowerCase());
@@ -118,23 +443,46 @@ public class Calculo implements Resultado {
                 throw new IllegalArgumentException("Processo não encontrado: " + requiredProcess);
             }
         }
+        return energyProcess;
+    }
 
-        for(ProcessInterface process : processes) {
-            double perProcess = 0;
-            for(Flow inputFlow : process.getInputs()) {
-                if(inputFlow.getCategory() == FlowCategory.ENERGY){
-                    double calculateImpactEnergy = calculateImpact(inputFlow,EnergyImpact);
-                    perProcess += calculateImpactEnergy;
-                    resultado += calculateImpactEnergy;
-                }
-                Flow emissionFlow = getEmissionFlow(inputFlow,process);
-                double calculateImpact = calculateImpact(inputFlow,emissionFlow);
-                perProcess += calculateImpact;
-                resultado += calculateImpact;
+    /**
+     * Calcula os impactos de todos os processos, pela ordem da lista.
+     *
+     * <p>Se existir um {@link ForkJoinPool}, os processos são calculados em paralelo nesse pool;
+     * a lista devolvida mantém sempre a ordem dos processos.</p>
+     *
+     * @param processes    Os processos a serem calculados.
+     * @param energyImpact O fluxo com o impacto total da energia.
+     * @return A soma parcial do impacto de cada processo.
+     */
+    private List<CompensatedSum> calculateProcessImpacts(List<ProcessInterface> processes, Flow energyImpact) {
+        if (pool == null) {
+            return processes.stream().map(process -> calculateProcessImpact(process, energyImpact)).toList();
+        }
+
+        return pool.submit(() -> processes.parallelStream()
+                .map(process -> calculateProcessImpact(process, energyImpact))
+                .toList()).join();
+    }
+
+    /**
+     * Calcula o impacto de um processo, somando o impacto de cada fluxo de entrada.
+     *
+     * @param process      O processo a ser calculado.
+     * @param energyImpact O fluxo com o impacto total da energia.
+     * @return A soma parcial do impacto do processo.
+     */
+    private CompensatedSum calculateProcessImpact(ProcessInterface process, Flow energyImpact) {
+        CompensatedSum perProcess = new CompensatedSum();
+        for(FlowInterface inputFlow : process.getInputs()) {
+            if(inputFlow.getCategory() == FlowCategory.ENERGY){
+                perProcess.add(calculateImpact(inputFlow,energyImpact));
             }
-            resultadoPerProcess.put(process.getProcessName().toLowerCase(),perProcess);
+            FlowInterface emissionFlow = getEmissionFlow(inputFlow,process);
+            perProcess.add(calculateImpact(inputFlow,emissionFlow));
         }
-        return resultado;
+        return perProcess;
     }
 
     /**
@@ -144,15 +492,8 @@ public class Calculo implements Resultado {
      * @param process O processo associado ao fluxo de entrada.
      * @return O fluxo de emissão correspondente ou {@code null} se não encontrado.
      */
-    private Flow getEmissionFlow(Flow flow, ProcessInterface process) {
-
-        for (Flow output : process.getOutputs()) {
-            if(output.getName().equals(flow.getName())) {
-                return output;
-            }
-        }
-
-        return null;
+    private FlowInterface getEmissionFlow(FlowInterface flow, ProcessInterface process) {
+        return process.getFlow(Type.OUTPUT, flow.getName());
     }
 
     /**
@@ -171,23 +512,24 @@ public class Calculo implements Resultado {
     }
 
     /**
-     * Devolve o valor total calculado do impacto ambiental.
+     * Devolve o valor total do último cálculo feito por {@link #calculatePCFvalue(List)}.
      *
      * @return O impacto total como um valor {@code double}.
      */
     public double getResultado() {
-        return resultado;
+        return lastResult.getResultado();
     }
 
     /**
      * Devolve um mapeamento detalhado do impacto ambiental por processo.
      *
      * <p>A chave do mapa é o identificador único ou o nome de cada processo,
-     * enquanto o valor é o impacto correspondente como um {@code double}.</p>
+     * enquanto o valor é o impacto correspondente como um {@code double}.
+     * O mapa é uma cópia do último cálculo feito por {@link #calculatePCFvalue(List)}.</p>
      *
      * @return Um {@code HashMap<String, Double>} que contém o impacto por processo.
      */
     public HashMap<String,Double> getResultadoPerProcess() {
-        return resultadoPerProcess;
+        return new HashMap<>(lastResult.getResultadoPerProcess());
     }
 }
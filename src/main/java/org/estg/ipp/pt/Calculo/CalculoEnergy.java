@@ -3,6 +3,7 @@ import org.estg.ipp.pt.Enums.FlowCategory;
 import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
 import org.estg.ipp.pt.Interfaces.Calculo.CalculateEnergy;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 import org.estg.ipp.pt.Models.Flow;
 
 import java.util.List;
@@ -28,16 +29,16 @@ public class CalculoEnergy implements CalculateEnergy {
      * um novo fluxo de energia que representam o impacto total. O fluxo retornado é caracterizado
      * com a categoria {@code ENERGY}, tipo {@code OUTPUT}, e unidade {@code GCO2EQKWH}.</p>
      *
-     * @param energyFlows Uma lista de objetos {@link Flow} que representam fluxos de energia.
+     * @param energyFlows Uma lista de objetos {@link FlowInterface} que representam fluxos de energia.
      *                    Cada fluxo deve ter valores válidos para ser somado.
      * @return Um novo objeto {@link Flow} que contém o impacto total de energia calculado.
      * @throws IllegalArgumentException Se a lista de fluxos de energia for nula ou vazia.
      */
     @Override
-    public Flow calculateEnergyImpact(List<Flow> energyFlows) {
+    public Flow calculateEnergyImpact(List<? extends FlowInterface> energyFlows) {
         double EnergyFootprint = 0;
 
-        for (Flow flow : energyFlows) {
+        for (FlowInterface flow : energyFlows) {
             EnergyFootprint += flow.getValue();
         }
 
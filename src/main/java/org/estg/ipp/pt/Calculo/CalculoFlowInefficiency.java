@@ -1,7 +1,7 @@
 package org.estg.ipp.pt.Calculo;
 
 import org.estg.ipp.pt.Interfaces.Calculo.CalculateImpact;
-import org.estg.ipp.pt.Models.Flow;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 
 /**
  * A classe {@code CalculoFlowInefficiency} implementa a interface {@link CalculateImpact} e fornece os métodos
@@ -11,23 +11,71 @@ import org.estg.ipp.pt.Models.Flow;
  * <ul>
  *   <li>Calcular a ineficiência de um fluxo com base no valor e na taxa de perda associada.</li>
  *   <li>Determinar o impacto entre dois fluxos, considerando a ineficiência calculada para ambos.</li>
+ *   <li>Calcular a ineficiência e o impacto de intervalos de fluxos guardados em colunas ({@link FlowColumns}).</li>
  * </ul>
  *
+ * <p>O cálculo sobre arrays usa instruções SIMD ({@code VectorImpactKernel}, compilado à parte no source set
+ * {@code vector}) quando o módulo {@code jdk.incubator.vector} está disponível (opção
+ * {@code --add-modules jdk.incubator.vector}); caso contrário, é feito de forma escalar. Os dois caminhos
+ * devolvem os mesmos resultados.</p>
+ *
  * @see CalculateImpact
- * @see Flow
+ * @see FlowInterface
  */
 public class CalculoFlowInefficiency implements CalculateImpact {
+    /**
+     * Cálculo SIMD, ou {@code null} se o módulo da Java Vector API não tiver sido carregado pela JVM.
+     */
+    private static final ImpactKernel VECTOR_KERNEL = loadVectorKernel();
+
+    private final ImpactKernel kernel;
+
+    /**
+     * Construtor da classe {@code CalculoFlowInefficiency}, que usa instruções SIMD se estiverem disponíveis.
+     */
+    public CalculoFlowInefficiency() {
+        this(true);
+    }
+
+    /**
+     * Construtor da classe {@code CalculoFlowInefficiency}.
+     *
+     * @param vectorized {@code true} para usar instruções SIMD, se estiverem disponíveis; {@code false} para
+     *                   calcular sempre de forma escalar.
+     */
+    public CalculoFlowInefficiency(boolean vectorized) {
+        this.kernel = vectorized ? VECTOR_KERNEL : null;
+    }
+
+    /**
+     * Carrega o cálculo SIMD por reflexão, para que esta classe não dependa do módulo de incubação.
+     *
+     * @return O cálculo SIMD, ou {@code null} se o módulo ou a classe não estiverem disponíveis.
+     */
+    private static ImpactKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+
+        try {
+            return (ImpactKernel) Class.forName("org.estg.ipp.pt.Calculo.VectorImpactKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
     /**
      * Calcula a ineficiência de um fluxo com base no seu valor e taxa de perda.
      *
      * <p>Se o fluxo for nulo, o método devlve {@code 0}, indicando que não há ineficiência
      * a ser calculada.</p>
      *
-     * @param flow O objeto {@link Flow} que representa o fluxo a ser analisado.
+     * @param flow O objeto {@link FlowInterface} que representa o fluxo a ser analisado.
      * @return O valor da ineficiência calculada como um número {@code double}.
      */
     @Override
-    public double calculateFlowInefficiency(Flow flow) {
+    public double calculateFlowInefficiency(FlowInterface flow) {
         if(flow == null){
             return 0;
         }
@@ -41,15 +89,81 @@ public class CalculoFlowInefficiency implements CalculateImpact {
      * <p>O impacto é calculado através da multiplicação as ineficiências de ambos os fluxos.
      * Caso qualquer um dos fluxos seja nulo, o impacto devolvido será {@code 0}.</p>
      *
-     * @param flow O objeto {@link Flow} que representa o fluxo principal.
-     * @param emissionFlow O objeto {@link Flow} que representa o fluxo de emissão associado.
+     * @param flow O objeto {@link FlowInterface} que representa o fluxo principal.
+     * @param emissionFlow O objeto {@link FlowInterface} que representa o fluxo de emissão associado.
      * @return O impacto calculado como um número {@code double}.
      */
     @Override
-    public double calculateImpact(Flow flow, Flow emissionFlow) {
+    public double calculateImpact(FlowInterface flow, FlowInterface emissionFlow) {
         if(flow == null || emissionFlow == null) {
             return 0;
         }
         return calculateFlowInefficiency(flow) * calculateFlowInefficiency(emissionFlow);
     }
+
+    /**
+     * Calcula a ineficiência e o impacto dos fluxos de entrada no intervalo {@code [from, to)} das colunas.
+     *
+     * <p>Os resultados são iguais, bit a bit, aos de {@link #calculateFlowInefficiency(FlowInterface)} e
+     * {@link #calculateImpact(FlowInterface, FlowInterface)} para os fluxos correspondentes.</p>
+     *
+     * @param columns        As colunas com os fluxos.
+     * @param inefficiencies Array onde é escrita a ineficiência de cada fluxo de entrada.
+     * @param impacts        Array onde é escrito o impacto de cada fluxo com o respetivo fluxo de emissão.
+     * @param from           O índice do primeiro fluxo (inclusivo).
+     * @param to             O índice do último fluxo (exclusivo).
+     */
+    public void calculateImpacts(FlowColumns columns, double[] inefficiencies, double[] impacts, int from, int to) {
+        calculateImpacts(columns.values, columns.lossRates, columns.emissionValues, columns.emissionLossRates,
+                inefficiencies, impacts, from, to);
+    }
+
+    /**
+     * Calcula a ineficiência e o impacto dos fluxos no intervalo {@code [from, to)} dos arrays fornecidos.
+     *
+     * <p>Para cada índice {@code i}, a ineficiência é {@code values[i] * (1 + lossRates[i])} e o impacto é o
+     * produto dessa ineficiência pela ineficiência do fluxo de emissão
+     * ({@code emissionValues[i] * (1 + emissionLossRates[i])}), tal como em {@link #calculateImpact(FlowInterface, FlowInterface)}.</p>
+     *
+     * @param values            Valor de cada fluxo.
+     * @param lossRates         Taxa de perda de cada fluxo.
+     * @param emissionValues    Valor do fluxo de emissão associado a cada fluxo.
+     * @param emissionLossRates Taxa de perda do fluxo de emissão associado a cada fluxo.
+     * @param inefficiencies    Array onde é escrita a ineficiência de cada fluxo.
+     * @param impacts           Array onde é escrito o impacto de cada fluxo.
+     * @param from              O índice do primeiro fluxo (inclusivo).
+     * @param to                O índice do último fluxo (exclusivo).
+     */
+    public void calculateImpacts(double[] values, double[] lossRates, double[] emissionValues, double[] emissionLossRates,
+                                 double[] inefficiencies, double[] impacts, int from, int to) {
+        int i = from;
+        if (kernel != null) {
+            i = kernel.calculateImpacts(values, lossRates, emissionValues, emissionLossRates,
+                    inefficiencies, impacts, from, to);
+        }
+
+        for (; i < to; i++) {
+            double inefficiency = values[i] * (1 + lossRates[i]);
+            inefficiencies[i] = inefficiency;
+            impacts[i] = inefficiency * (emissionValues[i] * (1 + emissionLossRates[i]));
+        }
+    }
+
+    /**
+     * Indica se o cálculo sobre arrays pode usar instruções SIMD.
+     *
+     * @return {@code true} se o módulo {@code jdk.incubator.vector} e o cálculo SIMD estiverem disponíveis.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    /**
+     * Indica se esta instância usa instruções SIMD no cálculo sobre arrays.
+     *
+     * @return {@code true} se o cálculo SIMD estiver disponível e não tiver sido desativado no construtor.
+     */
+    public boolean usesVectorKernel() {
+        return kernel != null;
+    }
 }
@@ -0,0 +1,253 @@
+package org.estg.ipp.pt.Calculo;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+import org.estg.ipp.pt.Models.Flow;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe {@code CalculoIncremental} guarda a contribuição de cada fluxo e de cada processo para o PCF,
+ * permitindo recalcular o resultado quando um único fluxo é alterado sem percorrer todos os processos.
+ *
+ * <p>O impacto de cada processo é decomposto em duas partes:</p>
+ * <ul>
+ *   <li>a soma dos impactos das entradas com o respetivo fluxo de emissão;</li>
+ *   <li>a soma das ineficiências das entradas de energia, multiplicada pelo fator de energia
+ *   (a soma dos valores das saídas do processo de energia).</li>
+ * </ul>
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Alterar o valor ou a taxa de perda de um fluxo com {@link #setFlowValue(Flow, double)} e
+ *   {@link #setFlowLossRate(Flow, double)}, atualizando apenas as contribuições que dependem desse fluxo.</li>
+ *   <li>Consultar o total e o impacto de um processo em tempo constante.</li>
+ * </ul>
+ *
+ * <p>As alterações devem ser feitas através desta classe; alterações feitas diretamente nos fluxos não são
+ * detetadas. Os valores são acumulados com {@link CompensatedSum}, pelo que diferem de um cálculo completo
+ * apenas por erros de arredondamento. Esta classe não é thread-safe.</p>
+ *
+ * @see Calculo#calculateIncremental(List)
+ */
+public final class CalculoIncremental {
+    private final CalculoFlowInefficiency calculoFlowInefficiency;
+    private final String[] processNames;
+    private final Map<String, Integer> processSlots = new LinkedHashMap<>();
+    private final CompensatedSum[] emissionPerProcess;
+    private final CompensatedSum[] energyPerProcess;
+    private final CompensatedSum emissionTotal = new CompensatedSum();
+    private final CompensatedSum energyTotal = new CompensatedSum();
+    private final CompensatedSum energyFactor = new CompensatedSum();
+    private final Map<FlowInterface, Dependents> dependents = new IdentityHashMap<>();
+
+    /**
+     * Constrói o registo de contribuições para uma lista de processos já validada.
+     *
+     * @param calculoFlowInefficiency A calculadora da ineficiência dos fluxos.
+     * @param processes               Os processos a serem calculados.
+     * @param energyProcess           O processo de energia.
+     */
+    CalculoIncremental(CalculoFlowInefficiency calculoFlowInefficiency, List<ProcessInterface> processes,
+                       ProcessInterface energyProcess) {
+        this.calculoFlowInefficiency = calculoFlowInefficiency;
+        this.processNames = new String[processes.size()];
+        this.emissionPerProcess = new CompensatedSum[processes.size()];
+        this.energyPerProcess = new CompensatedSum[processes.size()];
+
+        for (FlowInterface output : energyProcess.getOutputs()) {
+            dependentsOf(output).energyOutputs++;
+            energyFactor.add(output.getValue());
+        }
+
+        for (int i = 0; i < processes.size(); i++) {
+            ProcessInterface process = processes.get(i);
+            processNames[i] = process.getProcessName().toLowerCase();
+            processSlots.put(processNames[i], i);
+            emissionPerProcess[i] = new CompensatedSum();
+            energyPerProcess[i] = new CompensatedSum();
+            for (FlowInterface input : process.getInputs()) {
+                addContributions(i, process, input);
+            }
+        }
+    }
+
+    /**
+     * Regista as contribuições de uma entrada de um processo.
+     */
+    private void addContributions(int slot, ProcessInterface process, FlowInterface input) {
+        Dependents inputDependents = dependentsOf(input);
+        if (input.getCategory() == FlowCategory.ENERGY) {
+            inputDependents.energyInputs.add(slot);
+            energyPerProcess[slot].add(inputDependents.inefficiency);
+            energyTotal.add(inputDependents.inefficiency);
+        }
+
+        FlowInterface emissionFlow = process.getFlow(Type.OUTPUT, input.getName());
+        if (emissionFlow == null) {
+            return;
+        }
+
+        Term term = new Term(slot, input, emissionFlow);
+        term.value = calculoFlowInefficiency.calculateImpact(input, emissionFlow);
+        inputDependents.terms.add(term);
+        if (emissionFlow != input) {
+            dependentsOf(emissionFlow).terms.add(term);
+        }
+        emissionPerProcess[slot].add(term.value);
+        emissionTotal.add(term.value);
+    }
+
+    private Dependents dependentsOf(FlowInterface flow) {
+        return dependents.computeIfAbsent(flow, key -> new Dependents(calculoFlowInefficiency.calculateFlowInefficiency(key)));
+    }
+
+    /**
+     * Altera o valor de um fluxo e atualiza as contribuições que dependem dele.
+     *
+     * @param flow  O fluxo a ser alterado.
+     * @param value O novo valor.
+     * @throws IllegalArgumentException Se o valor for negativo.
+     */
+    public void setFlowValue(Flow flow, double value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Flow value cannot be negative");
+        }
+
+        Dependents flowDependents = dependents.get(flow);
+        double previous = flow.getValue();
+        flow.setValue(value);
+        if (flowDependents != null) {
+            for (int i = 0; i < flowDependents.energyOutputs; i++) {
+                energyFactor.add(-previous).add(value);
+            }
+            update(flow, flowDependents);
+        }
+    }
+
+    /**
+     * Altera a taxa de perda de um fluxo e atualiza as contribuições que dependem dele.
+     *
+     * @param flow     O fluxo a ser alterado.
+     * @param lossRate A nova taxa de perda.
+     * @throws IllegalArgumentException Se a taxa de perda for negativa.
+     */
+    public void setFlowLossRate(Flow flow, double lossRate) {
+        if (lossRate < 0) {
+            throw new IllegalArgumentException("Flow loss rate cannot be negative");
+        }
+
+        flow.setLossRate(lossRate);
+        Dependents flowDependents = dependents.get(flow);
+        if (flowDependents != null) {
+            update(flow, flowDependents);
+        }
+    }
+
+    /**
+     * Recalcula as contribuições de um fluxo alterado.
+     */
+    private void update(FlowInterface flow, Dependents flowDependents) {
+        double previous = flowDependents.inefficiency;
+        double current = calculoFlowInefficiency.calculateFlowInefficiency(flow);
+        flowDependents.inefficiency = current;
+
+        for (int slot : flowDependents.energyInputs) {
+            energyPerProcess[slot].add(-previous).add(current);
+            energyTotal.add(-previous).add(current);
+        }
+
+        for (Term term : flowDependents.terms) {
+            double value = calculoFlowInefficiency.calculateImpact(term.input, term.emissionFlow);
+            emissionPerProcess[term.process].add(-term.value).add(value);
+            emissionTotal.add(-term.value).add(value);
+            term.value = value;
+        }
+    }
+
+    /**
+     * Devolve o valor total do PCF.
+     *
+     * @return O impacto total como um valor {@code double}.
+     */
+    public double getResultado() {
+        return emissionTotal.getValue() + energyTotal.getValue() * energyFactor.getValue();
+    }
+
+    /**
+     * Devolve o impacto de um processo.
+     *
+     * @param processName O nome do processo (sem distinção entre maiúsculas e minúsculas).
+     * @return O impacto do processo.
+     * @throws IllegalArgumentException Se o processo não existir.
+     */
+    public double getResultado(String processName) {
+        Integer slot = processSlots.get(processName.toLowerCase());
+        if (slot == null) {
+            throw new IllegalArgumentException("Processo não encontrado: " + processName);
+        }
+        return getResultado(slot);
+    }
+
+    private double getResultado(int slot) {
+        return emissionPerProcess[slot].getValue() + energyPerProcess[slot].getValue() * energyFactor.getValue();
+    }
+
+    /**
+     * Devolve o impacto de cada processo, pelo nome do processo em minúsculas.
+     *
+     * @return Um novo mapa com o impacto por processo.
+     */
+    public Map<String, Double> getResultadoPerProcess() {
+        Map<String, Double> resultadoPerProcess = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : processSlots.entrySet()) {
+            resultadoPerProcess.put(entry.getKey(), getResultado(entry.getValue()));
+        }
+        return resultadoPerProcess;
+    }
+
+    /**
+     * Devolve o estado atual do cálculo como um resultado imutável.
+     *
+     * @return O resultado atual.
+     */
+    public ResultadoPCF toResultado() {
+        return new ResultadoPCF(getResultado(), getResultadoPerProcess());
+    }
+
+    /**
+     * Impacto de uma entrada de um processo com o respetivo fluxo de emissão.
+     */
+    private static final class Term {
+        private final int process;
+        private final FlowInterface input;
+        private final FlowInterface emissionFlow;
+        private double value;
+
+        private Term(int process, FlowInterface input, FlowInterface emissionFlow) {
+            this.process = process;
+            this.input = input;
+            this.emissionFlow = emissionFlow;
+        }
+    }
+
+    /**
+     * Contribuições que dependem de um fluxo.
+     */
+    private static final class Dependents {
+        private double inefficiency;
+        private int energyOutputs;
+        private final List<Integer> energyInputs = new ArrayList<>();
+        private final List<Term> terms = new ArrayList<>();
+
+        private Dependents(double inefficiency) {
+            this.inefficiency = inefficiency;
+        }
+    }
+}
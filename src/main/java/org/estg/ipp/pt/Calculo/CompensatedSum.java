@@ -0,0 +1,64 @@
+package org.estg.ipp.pt.Calculo;
+
+/**
+ * A classe {@code CompensatedSum} acumula valores {@code double} com soma compensada (algoritmo de Neumaier).
+ *
+ * <p>O erro de arredondamento de cada adição é guardado num termo de compensação, que é somado ao valor
+ * final. Juntar somas parciais não arredonda da mesma forma que uma única soma sequencial, pelo que o
+ * resultado pode variar com a divisão dos valores em parcelas. Para uma divisão fixa, com as parcelas
+ * combinadas sempre pela mesma ordem, o resultado é determinístico: é isso que permite calcular as
+ * parcelas em paralelo e obter o mesmo valor do cálculo sequencial com a mesma divisão.</p>
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Adicionar valores individuais com {@link #add(double)}.</li>
+ *   <li>Juntar outra soma parcial com {@link #add(CompensatedSum)}.</li>
+ *   <li>Obter o valor da soma com {@link #getValue()}.</li>
+ * </ul>
+ *
+ * <p>Esta classe não é thread-safe; cada thread deve usar a sua própria instância.</p>
+ *
+ * @see Calculo
+ */
+public final class CompensatedSum {
+    private double sum;
+    private double compensation;
+
+    /**
+     * Adiciona um valor à soma.
+     *
+     * @param value O valor a ser adicionado.
+     * @return Esta instância, para encadeamento.
+     */
+    public CompensatedSum add(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+        return this;
+    }
+
+    /**
+     * Junta outra soma parcial a esta soma, incluindo o respetivo termo de compensação.
+     *
+     * @param other A soma parcial a ser adicionada.
+     * @return Esta instância, para encadeamento.
+     */
+    public CompensatedSum add(CompensatedSum other) {
+        add(other.sum);
+        compensation += other.compensation;
+        return this;
+    }
+
+    /**
+     * Devolve o valor da soma, já corrigido pelo termo de compensação.
+     *
+     * @return O valor da soma.
+     */
+    public double getValue() {
+        return sum + compensation;
+    }
+}
@@ -0,0 +1,118 @@
+package org.estg.ipp.pt.Calculo;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+
+import java.util.List;
+
+/**
+ * A classe {@code FlowColumns} guarda os fluxos de entrada de uma lista de processos em colunas de tipos
+ * primitivos, para que o cálculo do PCF percorra arrays contíguos em vez de objetos {@link FlowInterface}.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code values} e {@code lossRates}: Valor e taxa de perda de cada fluxo de entrada.</li>
+ *   <li>{@code emissionValues} e {@code emissionLossRates}: Valor e taxa de perda do fluxo de emissão
+ *   associado a cada entrada (zero se não existir).</li>
+ *   <li>{@code categories}, {@code types} e {@code units}: Ordinais da categoria, do tipo e da unidade de cada entrada.</li>
+ *   <li>{@code processOffsets}: Posição da primeira entrada de cada processo; as entradas do processo
+ *   {@code p} ocupam o intervalo {@code [processOffsets[p], processOffsets[p + 1])}.</li>
+ *   <li>{@code processNames}: Nome de cada processo, em minúsculas.</li>
+ *   <li>{@code energyInefficiency}: Ineficiência do fluxo com o impacto total da energia.</li>
+ * </ul>
+ *
+ * <p>As colunas são uma cópia dos processos no momento da criação: alterações posteriores aos fluxos não
+ * são refletidas. As instâncias não são alteradas depois de criadas e podem ser partilhadas entre threads.</p>
+ *
+ * @see Calculo#toColumns(List)
+ * @see Calculo#calculate(FlowColumns)
+ */
+public final class FlowColumns {
+    final double[] values;
+    final double[] lossRates;
+    final double[] emissionValues;
+    final double[] emissionLossRates;
+    final byte[] categories;
+    final byte[] types;
+    final byte[] units;
+    final int[] processOffsets;
+    final String[] processNames;
+    final double energyInefficiency;
+
+    /**
+     * Cria as colunas a partir de uma lista de processos já validada.
+     *
+     * @param processes          Os processos.
+     * @param energyInefficiency A ineficiência do fluxo com o impacto total da energia.
+     */
+    FlowColumns(List<ProcessInterface> processes, double energyInefficiency) {
+        int size = 0;
+        for (ProcessInterface process : processes) {
+            size += process.getInputs().size();
+        }
+
+        this.values = new double[size];
+        this.lossRates = new double[size];
+        this.emissionValues = new double[size];
+        this.emissionLossRates = new double[size];
+        this.categories = new byte[size];
+        this.types = new byte[size];
+        this.units = new byte[size];
+        this.processOffsets = new int[processes.size() + 1];
+        this.processNames = new String[processes.size()];
+        this.energyInefficiency = energyInefficiency;
+
+        int flow = 0;
+        for (int p = 0; p < processes.size(); p++) {
+            ProcessInterface process = processes.get(p);
+            processOffsets[p] = flow;
+            processNames[p] = process.getProcessName().toLowerCase();
+            for (FlowInterface input : process.getInputs()) {
+                setFlow(flow++, input, process.getFlow(Type.OUTPUT, input.getName()));
+            }
+        }
+        processOffsets[processes.size()] = flow;
+    }
+
+    private void setFlow(int index, FlowInterface input, FlowInterface emissionFlow) {
+        values[index] = input.getValue();
+        lossRates[index] = input.getLossRate();
+        categories[index] = (byte) input.getCategory().ordinal();
+        types[index] = (byte) input.getType().ordinal();
+        units[index] = (byte) input.getUnit().ordinal();
+        if (emissionFlow != null) {
+            emissionValues[index] = emissionFlow.getValue();
+            emissionLossRates[index] = emissionFlow.getLossRate();
+        }
+    }
+
+    /**
+     * Devolve o número de fluxos de entrada guardados.
+     *
+     * @return O número de fluxos.
+     */
+    public int getFlowCount() {
+        return values.length;
+    }
+
+    /**
+     * Devolve o número de processos guardados.
+     *
+     * @return O número de processos.
+     */
+    public int getProcessCount() {
+        return processNames.length;
+    }
+
+    /**
+     * Verifica se um fluxo de entrada é de energia.
+     *
+     * @param index O índice do fluxo.
+     * @return {@code true} se o fluxo for da categoria {@link FlowCategory#ENERGY}.
+     */
+    boolean isEnergy(int index) {
+        return categories[index] == FlowCategory.ENERGY.ordinal();
+    }
+}
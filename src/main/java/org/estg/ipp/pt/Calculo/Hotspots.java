@@ -0,0 +1,156 @@
+package org.estg.ipp.pt.Calculo;
+
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+
+import java.util.List;
+
+/**
+ * A classe {@code Hotspots} representa os maiores contribuidores para o PCF (Product Carbon Footprint) de um
+ * produto: os processos e os fluxos de entrada com maior impacto.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code resultado}: Impacto ambiental total, igual ao de {@link Calculo#calculate(List)}.</li>
+ *   <li>{@code topProcesses}: Os processos com maior impacto, do maior para o menor.</li>
+ *   <li>{@code topFlows}: Os fluxos de entrada com maior impacto, do maior para o menor.</li>
+ * </ul>
+ *
+ * <p>As instâncias não podem ser alteradas depois de criadas e podem ser partilhadas entre threads.</p>
+ *
+ * @see Calculo#calculateHotspots(List, int)
+ */
+public final class Hotspots {
+    private final double resultado;
+    private final List<ProcessHotspot> topProcesses;
+    private final List<FlowHotspot> topFlows;
+
+    /**
+     * Construtor da classe {@code Hotspots}.
+     *
+     * @param resultado    O impacto ambiental total.
+     * @param topProcesses Os processos com maior impacto, do maior para o menor; a lista é copiada.
+     * @param topFlows     Os fluxos com maior impacto, do maior para o menor; a lista é copiada.
+     */
+    public Hotspots(double resultado, List<ProcessHotspot> topProcesses, List<FlowHotspot> topFlows) {
+        this.resultado = resultado;
+        this.topProcesses = List.copyOf(topProcesses);
+        this.topFlows = List.copyOf(topFlows);
+    }
+
+    /**
+     * Devolve o impacto ambiental total.
+     *
+     * @return O impacto total como um valor {@code double}.
+     */
+    public double getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Devolve os processos com maior impacto.
+     *
+     * @return Uma lista não modificável, do maior para o menor impacto.
+     */
+    public List<ProcessHotspot> getTopProcesses() {
+        return topProcesses;
+    }
+
+    /**
+     * Devolve os fluxos de entrada com maior impacto.
+     *
+     * @return Uma lista não modificável, do maior para o menor impacto.
+     */
+    public List<FlowHotspot> getTopFlows() {
+        return topFlows;
+    }
+
+    @Override
+    public String toString() {
+        return "Hotspots{" +
+                "resultado=" + resultado +
+                ", topProcesses=" + topProcesses +
+                ", topFlows=" + topFlows +
+                '}';
+    }
+
+    /**
+     * Impacto de um processo.
+     */
+    public static final class ProcessHotspot {
+        private final String processName;
+        private final double impact;
+
+        /**
+         * Construtor da classe {@code ProcessHotspot}.
+         *
+         * @param processName O nome do processo, em minúsculas.
+         * @param impact      O impacto do processo.
+         */
+        public ProcessHotspot(String processName, double impact) {
+            this.processName = processName;
+            this.impact = impact;
+        }
+
+        public String getProcessName() {
+            return processName;
+        }
+
+        public double getImpact() {
+            return impact;
+        }
+
+        @Override
+        public String toString() {
+            return processName + "=" + impact;
+        }
+    }
+
+    /**
+     * Impacto de um fluxo de entrada de um processo.
+     *
+     * <p>O fator de emissão é o impacto por unidade do fluxo com perdas: a ineficiência do fluxo de emissão
+     * associado e, nos fluxos de energia, a ineficiência do impacto da energia.</p>
+     */
+    public static final class FlowHotspot {
+        private final String processName;
+        private final FlowInterface flow;
+        private final double emissionFactor;
+        private final double impact;
+
+        /**
+         * Construtor da classe {@code FlowHotspot}.
+         *
+         * @param processName    O nome do processo, em minúsculas.
+         * @param flow           O fluxo de entrada.
+         * @param emissionFactor O impacto por unidade do fluxo com perdas.
+         * @param impact         O impacto do fluxo.
+         */
+        public FlowHotspot(String processName, FlowInterface flow, double emissionFactor, double impact) {
+            this.processName = processName;
+            this.flow = flow;
+            this.emissionFactor = emissionFactor;
+            this.impact = impact;
+        }
+
+        public String getProcessName() {
+            return processName;
+        }
+
+        public FlowInterface getFlow() {
+            return flow;
+        }
+
+        public double getEmissionFactor() {
+            return emissionFactor;
+        }
+
+        public double getImpact() {
+            return impact;
+        }
+
+        @Override
+        public String toString() {
+            return processName + "/" + flow.getName() + "=" + impact;
+        }
+    }
+}
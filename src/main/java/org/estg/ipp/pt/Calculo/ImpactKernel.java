@@ -0,0 +1,28 @@
+package org.estg.ipp.pt.Calculo;
+
+/**
+ * A interface {@code ImpactKernel} define um cálculo acelerado da ineficiência e do impacto de vários fluxos
+ * guardados em arrays, usado por {@link CalculoFlowInefficiency}.
+ *
+ * <p>Uma implementação pode calcular apenas um prefixo do intervalo; os fluxos restantes são calculados
+ * de forma escalar por {@link CalculoFlowInefficiency}. Os resultados têm de ser iguais, bit a bit, aos do
+ * cálculo escalar.</p>
+ */
+interface ImpactKernel {
+
+    /**
+     * Calcula a ineficiência e o impacto dos fluxos no intervalo {@code [from, to)}.
+     *
+     * @param values            Valor de cada fluxo.
+     * @param lossRates         Taxa de perda de cada fluxo.
+     * @param emissionValues    Valor do fluxo de emissão associado a cada fluxo.
+     * @param emissionLossRates Taxa de perda do fluxo de emissão associado a cada fluxo.
+     * @param inefficiencies    Array onde é escrita a ineficiência de cada fluxo.
+     * @param impacts           Array onde é escrito o impacto de cada fluxo.
+     * @param from              O índice do primeiro fluxo (inclusivo).
+     * @param to                O índice do último fluxo (exclusivo).
+     * @return O índice do primeiro fluxo que não foi calculado.
+     */
+    int calculateImpacts(double[] values, double[] lossRates, double[] emissionValues, double[] emissionLossRates,
+                         double[] inefficiencies, double[] impacts, int from, int to);
+}
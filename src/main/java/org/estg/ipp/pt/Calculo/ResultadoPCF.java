@@ -0,0 +1,60 @@
+package org.estg.ipp.pt.Calculo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A classe {@code ResultadoPCF} representa o resultado imutável de um cálculo do PCF (Product Carbon Footprint).
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code resultado}: Impacto ambiental total.</li>
+ *   <li>{@code resultadoPerProcess}: Impacto ambiental de cada processo, pelo nome do processo em minúsculas.</li>
+ * </ul>
+ *
+ * <p>As instâncias não podem ser alteradas depois de criadas e podem ser partilhadas entre threads.</p>
+ *
+ * @see Calculo#calculate(java.util.List)
+ */
+public final class ResultadoPCF {
+    private final double resultado;
+    private final Map<String, Double> resultadoPerProcess;
+
+    /**
+     * Construtor da classe {@code ResultadoPCF}.
+     *
+     * @param resultado           O impacto ambiental total.
+     * @param resultadoPerProcess O impacto ambiental de cada processo; o mapa é copiado.
+     */
+    public ResultadoPCF(double resultado, Map<String, Double> resultadoPerProcess) {
+        this.resultado = resultado;
+        this.resultadoPerProcess = Collections.unmodifiableMap(new LinkedHashMap<>(resultadoPerProcess));
+    }
+
+    /**
+     * Devolve o impacto ambiental total.
+     *
+     * @return O impacto total como um valor {@code double}.
+     */
+    public double getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Devolve o impacto ambiental de cada processo.
+     *
+     * @return Um mapa não modificável com o impacto por processo, pela ordem dos processos.
+     */
+    public Map<String, Double> getResultadoPerProcess() {
+        return resultadoPerProcess;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoPCF{" +
+                "resultado=" + resultado +
+                ", resultadoPerProcess=" + resultadoPerProcess +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package org.estg.ipp.pt.Calculo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A classe {@code TopK} guarda os {@code k} elementos com maior impacto de uma sequência, sem guardar
+ * nem ordenar a sequência completa.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code heap}: Min-heap limitado a {@code k} elementos; o topo é o menor impacto guardado.</li>
+ *   <li>{@code impactOf}: Função que devolve o impacto de um elemento.</li>
+ * </ul>
+ *
+ * <p>Em caso de empate com o menor impacto guardado, é mantido o elemento mais antigo.
+ * Esta classe não é thread-safe.</p>
+ *
+ * @param <T> O tipo dos elementos.
+ */
+final class TopK<T> {
+    private final int k;
+    private final ToDoubleFunction<T> impactOf;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * Construtor da classe {@code TopK}.
+     *
+     * @param k        O número máximo de elementos guardados.
+     * @param impactOf A função que devolve o impacto de um elemento.
+     */
+    TopK(int k, ToDoubleFunction<T> impactOf) {
+        this.k = k;
+        this.impactOf = impactOf;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024), Comparator.comparingDouble(impactOf));
+    }
+
+    /**
+     * Indica se um elemento com este impacto seria guardado, para evitar criar elementos que seriam descartados.
+     *
+     * @param impact O impacto do elemento.
+     * @return {@code true} se o elemento seria guardado; {@code false} caso contrário.
+     */
+    boolean accepts(double impact) {
+        return heap.size() < k || impact > impactOf.applyAsDouble(heap.peek());
+    }
+
+    /**
+     * Guarda um elemento, se estiver entre os {@code k} maiores, descartando o menor guardado.
+     *
+     * @param element O elemento.
+     */
+    void offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (impactOf.applyAsDouble(element) > impactOf.applyAsDouble(heap.peek())) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Devolve os elementos guardados, do maior para o menor impacto.
+     *
+     * @return Uma nova lista com, no máximo, {@code k} elementos.
+     */
+    List<T> toList() {
+        List<T> elements = new ArrayList<>(heap);
+        elements.sort(Comparator.comparingDouble(impactOf).reversed());
+        return elements;
+    }
+}
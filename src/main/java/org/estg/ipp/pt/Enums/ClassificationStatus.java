@@ -0,0 +1,30 @@
+package org.estg.ipp.pt.Enums;
+
+/**
+ * A enumeração {@code ClassificationStatus} define o resultado da classificação de uma linha de dados
+ * num fluxo, indicando o primeiro campo inválido encontrado.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Permite saber porque é que uma linha foi rejeitada sem recorrer a exceções.</li>
+ * </ul>
+ *
+ * <p><b>Categorias:</b></p>
+ * <ul>
+ *   <li>{@code VALID}: A linha foi classificada com sucesso.</li>
+ *   <li>{@code MISSING_FIELDS}: A linha não tem os campos de tipo e de categoria.</li>
+ *   <li>{@code INVALID_TYPE}: O tipo não é um {@link Type}.</li>
+ *   <li>{@code INVALID_CATEGORY}: A categoria não é uma {@link FlowCategory}.</li>
+ *   <li>{@code INVALID_NAME}: O nome do fluxo está vazio.</li>
+ *   <li>{@code INVALID_VALUE}: O valor não é um número ou é negativo.</li>
+ *   <li>{@code INVALID_UNIT}: A unidade não é uma {@link UnitType}.</li>
+ *   <li>{@code INVALID_LOSS_RATE}: A taxa de perda não é um número ou é negativa.</li>
+ *   <li>{@code INCOMPATIBLE_UNIT}: A unidade não é aceite para a categoria do fluxo.</li>
+ * </ul>
+ *
+ * @see org.estg.ipp.pt.Models.FlowClassifier
+ */
+public enum ClassificationStatus {
+    VALID, MISSING_FIELDS, INVALID_TYPE, INVALID_CATEGORY, INVALID_NAME, INVALID_VALUE, INVALID_UNIT,
+    INVALID_LOSS_RATE, INCOMPATIBLE_UNIT
+}
@@ -0,0 +1,24 @@
+package org.estg.ipp.pt.Enums;
+
+/**
+ * A enumeração {@code FlushPolicy} define quando um {@link org.estg.ipp.pt.Export.ExportSession} escreve
+ * no ficheiro os registos que guardou em memória.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Permite escolher entre ter cada registo no ficheiro logo após a exportação e reduzir o número
+ *   de escritas quando são exportados muitos resultados seguidos.</li>
+ * </ul>
+ *
+ * <p><b>Categorias:</b></p>
+ * <ul>
+ *   <li>{@code EVERY_EXPORT}: Os registos são escritos no fim de cada exportação.</li>
+ *   <li>{@code BUFFER_FULL}: Os registos só são escritos quando o buffer está cheio, numa chamada a
+ *   {@code flush()} ou no fecho da sessão.</li>
+ * </ul>
+ *
+ * @see SyncPolicy
+ */
+public enum FlushPolicy {
+    EVERY_EXPORT, BUFFER_FULL
+}
@@ -0,0 +1,23 @@
+package org.estg.ipp.pt.Enums;
+
+/**
+ * A enumeração {@code SyncPolicy} define quando um {@link org.estg.ipp.pt.Export.ExportSession} obriga o
+ * sistema operativo a gravar no disco ({@code fsync}) o que já foi escrito no ficheiro.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Permite escolher entre não perder registos numa falha do sistema e evitar o custo de gravar
+ *   no disco após cada escrita.</li>
+ * </ul>
+ *
+ * <p><b>Categorias:</b></p>
+ * <ul>
+ *   <li>{@code EVERY_FLUSH}: O ficheiro é gravado no disco sempre que os registos são escritos.</li>
+ *   <li>{@code ON_CLOSE}: O ficheiro só é gravado no disco numa chamada a {@code sync()} ou no fecho da sessão.</li>
+ * </ul>
+ *
+ * @see FlushPolicy
+ */
+public enum SyncPolicy {
+    EVERY_FLUSH, ON_CLOSE
+}
@@ -0,0 +1,315 @@
+package org.estg.ipp.pt.Export;
+
+import org.estg.ipp.pt.Enums.FlushPolicy;
+import org.estg.ipp.pt.Enums.SyncPolicy;
+import org.estg.ipp.pt.Interfaces.Export.Export;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A classe {@code AsyncExporter} exporta resultados numa thread própria, para que a thread que calcula
+ * os resultados não fique à espera do disco.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Aceitar um resultado sem bloquear ({@link #submit(HashMap, Double, FilterOpt)}), validando-o e
+ *   filtrando-o na thread que o submete.</li>
+ *   <li>Escrever em cada ciclo todos os resultados em espera, até {@code maxBatchSize}, e gravar o ficheiro
+ *   no disco uma única vez por lote (group commit).</li>
+ *   <li>Devolver um {@link CompletableFuture} que termina quando o resultado está gravado no disco.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code session}: {@link ExportSession} usado apenas pela thread de escrita.</li>
+ *   <li>{@code pending}: Fila circular limitada com os resultados por escrever.</li>
+ *   <li>{@code writer}: Thread que esvazia a fila e escreve os lotes.</li>
+ *   <li>{@code failure}: Primeiro erro de escrita, depois do qual nenhum lote é escrito.</li>
+ * </ul>
+ *
+ * <p>Se a fila estiver cheia, o resultado é recusado em vez de bloquear: o {@link CompletableFuture}
+ * termina com {@link RejectedExecutionException} e {@link #exportData(HashMap, Double, FilterOpt)} devolve
+ * {@code false}. As ações encadeadas nos {@link CompletableFuture} sem o sufixo {@code Async} correm na
+ * thread de escrita e devem ser curtas.</p>
+ *
+ * <p>Se a escrita de um lote falhar, os registos do lote que ainda estão no buffer da sessão são descartados,
+ * todos os {@link CompletableFuture} do lote terminam com o erro e o exportador deixa de escrever: os pedidos
+ * seguintes terminam com o mesmo erro. Os registos do lote já escritos no ficheiro antes da falha não são
+ * removidos.</p>
+ *
+ * @see ExportSession
+ */
+public class AsyncExporter implements Export, Closeable {
+    /**
+     * Número de resultados na fila, por omissão.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Número máximo de resultados de cada lote, por omissão.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+    private static final Record STOP = new Record(null, null, false);
+
+    private final ExportSession session;
+    private final BlockingQueue<Record> pending;
+    private final int maxBatchSize;
+    private final Thread writer;
+    private volatile Exception failure;
+    private boolean closed;
+
+    /**
+     * Cria um exportador sobre um ficheiro, com a capacidade e o tamanho de lote por omissão.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @throws IOException Se o ficheiro não puder ser aberto.
+     */
+    public AsyncExporter(String path) throws IOException {
+        this(new ExportSession(path, FlushPolicy.BUFFER_FULL, SyncPolicy.ON_CLOSE, ExportSession.DEFAULT_BUFFER_SIZE),
+                DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Cria um exportador sobre uma sessão, que passa a ser usada e fechada apenas por este exportador.
+     *
+     * @param session      A sessão de exportação.
+     * @param capacity     Número máximo de resultados na fila.
+     * @param maxBatchSize Número máximo de resultados de cada lote.
+     * @throws IllegalArgumentException Se a sessão for {@code null} ou a capacidade ou o tamanho de lote não
+     *                                  forem positivos.
+     */
+    public AsyncExporter(ExportSession session, int capacity, int maxBatchSize) {
+        if (session == null) {
+            throw new IllegalArgumentException("Export session cannot be null.");
+        }
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive.");
+        }
+
+        this.session = session;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.writer = new Thread(this::drain, "pcf-export-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Submete um resultado para ser exportado, com as mesmas regras de
+     * {@link ResultExporter#exportData(HashMap, Double, FilterOpt)}.
+     *
+     * @param resultPerProcess Os resultados por processo, pelo nome do processo.
+     * @param result           O valor total de PCF que será exportado.
+     * @param filter           O filtro aplicado aos resultados por processo.
+     * @return Um {@link CompletableFuture} que termina quando o resultado está gravado no disco, ou termina
+     * com erro se a escrita falhar, a fila estiver cheia ou o exportador estiver fechado.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo, o filtro for inválido,
+     *                                  ou os valores no filtro forem negativos.
+     */
+    public CompletableFuture<Void> submit(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
+        return enqueue(new Record(ResultExporter.prepare(resultPerProcess, result, filter), result, false));
+    }
+
+    private CompletableFuture<Void> enqueue(Record record) {
+        if (!offer(record)) {
+            Exception cause = failure;
+            record.done.completeExceptionally(cause != null ? cause : new RejectedExecutionException(
+                    isClosed() ? "Exporter is closed." : "Export queue is full."));
+        }
+        return record.done;
+    }
+
+    /**
+     * Coloca um pedido na fila, se o exportador estiver aberto, não tiver falhado e a fila tiver espaço.
+     */
+    private synchronized boolean offer(Record record) {
+        return !closed && failure == null && pending.offer(record);
+    }
+
+    /**
+     * Submete um resultado para ser exportado, sem esperar que seja gravado.
+     *
+     * @param resultPerProcess Os resultados por processo, pelo nome do processo.
+     * @param result           O valor total de PCF que será exportado.
+     * @param filter           O filtro aplicado aos resultados por processo.
+     * @return {@code true} se o resultado for aceite na fila; {@code false} se a fila estiver cheia, o
+     * exportador estiver fechado ou uma escrita anterior tiver falhado.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo, o filtro for inválido,
+     *                                  ou os valores no filtro forem negativos.
+     * @see #submit(HashMap, Double, FilterOpt)
+     */
+    @Override
+    public boolean exportData(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
+        return offer(new Record(ResultExporter.prepare(resultPerProcess, result, filter), result, false));
+    }
+
+    /**
+     * Apaga o conteúdo do ficheiro depois de escritos os resultados já submetidos, e espera que termine.
+     */
+    @Override
+    public void clear() {
+        try {
+            enqueue(new Record(null, null, true)).join();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to clear the file.");
+        }
+    }
+
+    /**
+     * Ciclo da thread de escrita: espera por um resultado, junta os que estiverem na fila e escreve o lote.
+     */
+    private void drain() {
+        List<Record> batch = new ArrayList<>(maxBatchSize);
+        boolean stopped = false;
+        while (!stopped) {
+            batch.clear();
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            pending.drainTo(batch, maxBatchSize - 1);
+
+            stopped = batch.get(batch.size() - 1) == STOP;
+            if (stopped) {
+                batch.remove(batch.size() - 1);
+            }
+            write(batch);
+        }
+    }
+
+    /**
+     * Escreve um lote, grava-o no disco e termina os respetivos {@link CompletableFuture}.
+     *
+     * <p>Depois de uma falha, os lotes seguintes não são escritos e terminam com o mesmo erro.</p>
+     */
+    private void write(List<Record> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Exception cause = failure;
+        if (cause == null) {
+            try {
+                for (Record record : batch) {
+                    if (record.clear) {
+                        session.truncate();
+                    } else {
+                        session.append(record.resultPerProcess, record.result);
+                    }
+                }
+                session.sync();
+            } catch (IOException | RuntimeException e) {
+                cause = fail(e);
+            }
+        }
+
+        if (cause != null) {
+            for (Record record : batch) {
+                record.done.completeExceptionally(cause);
+            }
+            return;
+        }
+
+        for (Record record : batch) {
+            record.done.complete(null);
+        }
+    }
+
+    /**
+     * Regista a falha e descarta os registos do lote que ainda não foram escritos, para que não sejam
+     * escritos mais tarde, no fecho, depois de os respetivos {@link CompletableFuture} terem falhado.
+     */
+    private Exception fail(Exception e) {
+        try {
+            session.discard();
+        } catch (IOException discardError) {
+            e.addSuppressed(discardError);
+        }
+        failure = e;
+        return e;
+    }
+
+    /**
+     * Deixa de aceitar resultados, espera que os resultados já aceites sejam gravados no disco e fecha o ficheiro.
+     *
+     * @throws IOException Se o ficheiro não puder ser gravado ou fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        // A sessão só pode ser fechada depois de a thread de escrita terminar
+        boolean interrupted = false;
+        while (true) {
+            try {
+                pending.put(STOP);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        session.close();
+    }
+
+    /**
+     * Indica se o exportador está fechado.
+     *
+     * @return {@code true} se o exportador estiver fechado; {@code false} caso contrário.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Devolve o número de resultados à espera de serem escritos.
+     *
+     * @return O número de resultados na fila.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Resultado por escrever, ou pedido para limpar o ficheiro.
+     */
+    private static final class Record {
+        private final HashMap<String, Double> resultPerProcess;
+        private final Double result;
+        private final boolean clear;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Record(HashMap<String, Double> resultPerProcess, Double result, boolean clear) {
+            this.resultPerProcess = resultPerProcess;
+            this.result = result;
+            this.clear = clear;
+        }
+    }
+}
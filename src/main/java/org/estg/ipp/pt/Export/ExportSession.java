@@ -0,0 +1,310 @@
+package org.estg.ipp.pt.Export;
+
+import org.estg.ipp.pt.Enums.FlushPolicy;
+import org.estg.ipp.pt.Enums.SyncPolicy;
+import org.estg.ipp.pt.Interfaces.Export.Export;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * A classe {@code ExportSession} exporta vários resultados para o mesmo ficheiro CSV mantendo o ficheiro
+ * aberto entre exportações, em vez de o abrir e fechar em cada chamada como {@link ResultExporter}.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Escrever as mesmas linhas e aplicar as mesmas validações e filtros de {@link ResultExporter}.</li>
+ *   <li>Guardar os registos num buffer e escrevê-los no ficheiro de acordo com a {@link FlushPolicy}.</li>
+ *   <li>Gravar o ficheiro no disco de acordo com a {@link SyncPolicy}.</li>
+ *   <li>Garantir, no fecho, que todos os registos foram escritos e gravados no disco.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code channel}: {@link FileChannel} aberto em modo de acrescento durante toda a sessão.</li>
+ *   <li>{@code buffer}: Registos ainda não escritos no ficheiro.</li>
+ *   <li>{@code line}: {@link StringBuilder} reutilizado para formatar cada registo.</li>
+ *   <li>{@code empty}: Indica se o ficheiro ainda não tem cabeçalho.</li>
+ * </ul>
+ *
+ * <p>O ficheiro é escrito em UTF-8. Esta classe não é thread-safe; deve ser fechada com
+ * {@link #close()}, por exemplo com {@code try-with-resources}.</p>
+ *
+ * @see ResultExporter
+ */
+public class ExportSession implements Export, Closeable {
+    /**
+     * Tamanho do buffer, em bytes, por omissão.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final FlushPolicy flushPolicy;
+    private final SyncPolicy syncPolicy;
+    private final StringBuilder line = new StringBuilder();
+    private boolean empty;
+    private boolean closed;
+
+    /**
+     * Abre uma sessão sobre o ficheiro de {@link ResultExporter} ({@code ./Export/PFC.csv}), que escreve
+     * os registos quando o buffer está cheio e só grava no disco no fecho.
+     *
+     * @throws IOException Se o ficheiro não puder ser aberto.
+     */
+    public ExportSession() throws IOException {
+        this(ResultExporter.FILE_PATH, FlushPolicy.BUFFER_FULL, SyncPolicy.ON_CLOSE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Abre uma sessão sobre um ficheiro, que escreve os registos quando o buffer está cheio e só grava
+     * no disco no fecho.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @throws IOException Se o ficheiro não puder ser aberto.
+     */
+    public ExportSession(String path) throws IOException {
+        this(path, FlushPolicy.BUFFER_FULL, SyncPolicy.ON_CLOSE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Abre uma sessão sobre um ficheiro. Os registos são acrescentados ao conteúdo existente e a pasta
+     * é criada se não existir.
+     *
+     * @param path        O caminho do ficheiro CSV.
+     * @param flushPolicy Quando os registos são escritos no ficheiro.
+     * @param syncPolicy  Quando o ficheiro é gravado no disco.
+     * @param bufferSize  O tamanho do buffer, em bytes.
+     * @throws IllegalArgumentException Se o caminho ou as políticas forem {@code null}, ou o tamanho do buffer
+     *                                  não for positivo.
+     * @throws IOException              Se a pasta não puder ser criada ou o ficheiro não puder ser aberto.
+     */
+    public ExportSession(String path, FlushPolicy flushPolicy, SyncPolicy syncPolicy, int bufferSize) throws IOException {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Path cannot be null or empty.");
+        }
+        if (flushPolicy == null || syncPolicy == null) {
+            throw new IllegalArgumentException("Flush and sync policies cannot be null.");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+
+        this.path = Path.of(path);
+        Path directory = this.path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.flushPolicy = flushPolicy;
+        this.syncPolicy = syncPolicy;
+        this.empty = channel.size() == 0;
+    }
+
+    /**
+     * Exporta um resultado, com as mesmas regras de {@link ResultExporter#exportData(HashMap, Double, FilterOpt)}.
+     *
+     * @param resultPerProcess Os resultados por processo, pelo nome do processo.
+     * @param result           O valor total de PCF que será exportado.
+     * @param filter           O filtro aplicado aos resultados por processo.
+     * @return {@code true} se o registo for aceite; {@code false} se ocorrer um erro de escrita.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo, o filtro for inválido,
+     *                                  ou os valores no filtro forem negativos.
+     * @throws IllegalStateException    Se a sessão estiver fechada.
+     */
+    @Override
+    public boolean exportData(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
+        ensureOpen();
+        HashMap<String, Double> filtered = ResultExporter.prepare(resultPerProcess, result, filter);
+
+        try {
+            append(filtered, result);
+            if (flushPolicy == FlushPolicy.EVERY_EXPORT) {
+                flush();
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing the export file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Formata um resultado já validado e filtrado e guarda-o no buffer, sem aplicar a {@link FlushPolicy}.
+     *
+     * @param filtered Os resultados por processo já filtrados, ou {@code null}.
+     * @param result   O valor total de PCF.
+     * @throws IOException Se o buffer tiver de ser escrito e ocorrer um erro de escrita.
+     */
+    void append(HashMap<String, Double> filtered, Double result) throws IOException {
+        line.setLength(0);
+        if (empty) {
+            ResultExporter.appendHeader(line, filtered);
+        }
+        ResultExporter.appendResult(line, filtered, result);
+
+        write(line.toString().getBytes(StandardCharsets.UTF_8));
+        empty = false;
+    }
+
+    /**
+     * Guarda um registo no buffer, escrevendo primeiro o buffer se o registo não couber.
+     */
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer();
+        }
+
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+            sync(false);
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.clear();
+        }
+        sync(false);
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Grava o ficheiro no disco se a política o exigir ou se {@code force} for {@code true}.
+     */
+    private void sync(boolean force) throws IOException {
+        if (force || syncPolicy == SyncPolicy.EVERY_FLUSH) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Escreve no ficheiro os registos guardados no buffer e, com {@link SyncPolicy#EVERY_FLUSH}, grava-o no disco.
+     *
+     * @throws IOException           Se ocorrer um erro de escrita.
+     * @throws IllegalStateException Se a sessão estiver fechada.
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (buffer.position() > 0) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Escreve os registos guardados no buffer e grava o ficheiro no disco, independentemente da {@link SyncPolicy}.
+     *
+     * @throws IOException           Se ocorrer um erro de escrita.
+     * @throws IllegalStateException Se a sessão estiver fechada.
+     */
+    public void sync() throws IOException {
+        flush();
+        sync(true);
+    }
+
+    /**
+     * Apaga o conteúdo do ficheiro e os registos ainda não escritos; o próximo registo volta a ter cabeçalho.
+     *
+     * @throws IllegalStateException Se a sessão estiver fechada.
+     */
+    @Override
+    public void clear() {
+        try {
+            truncate();
+        } catch (IOException e) {
+            System.err.println("Failed to clear the file.");
+        }
+    }
+
+    /**
+     * Apaga o conteúdo do ficheiro e os registos ainda não escritos, como {@link #clear()}, mas lança o erro
+     * em vez de o escrever na consola.
+     *
+     * @throws IOException           Se o ficheiro não puder ser apagado.
+     * @throws IllegalStateException Se a sessão estiver fechada.
+     */
+    void truncate() throws IOException {
+        ensureOpen();
+        buffer.clear();
+        channel.truncate(0);
+        empty = true;
+    }
+
+    /**
+     * Descarta os registos guardados no buffer, sem os escrever; o próximo registo tem cabeçalho se o
+     * ficheiro estiver vazio.
+     *
+     * @throws IOException Se não for possível saber se o ficheiro está vazio.
+     */
+    void discard() throws IOException {
+        buffer.clear();
+        empty = channel.size() == 0;
+    }
+
+    /**
+     * Escreve os registos guardados no buffer, grava o ficheiro no disco e fecha-o.
+     *
+     * <p>O ficheiro é fechado mesmo que a escrita falhe. Chamar este método numa sessão fechada não tem efeito.</p>
+     *
+     * @throws IOException Se ocorrer um erro de escrita ou de gravação; nesse caso, os registos podem não
+     *                     estar no disco.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try (FileChannel ignored = channel) {
+            sync();
+        } finally {
+            closed = true;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Export session is closed.");
+        }
+    }
+
+    /**
+     * Devolve o caminho do ficheiro exportado.
+     *
+     * @return O caminho do ficheiro.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Indica se a sessão está fechada.
+     *
+     * @return {@code true} se a sessão estiver fechada; {@code false} caso contrário.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,131 @@
+package org.estg.ipp.pt.Export;
+
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A classe {@code ProcessFilter} é a forma compilada de um {@link FilterOpt}: o filtro é validado e os seus
+ * valores são lidos uma única vez, em vez de a cada processo avaliado.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Indicar, apenas pelo nome, se um processo pode passar no filtro, para que o cálculo possa ignorar
+ *   os restantes processos antes de os calcular.</li>
+ *   <li>Verificar se o resultado de um processo passa no filtro.</li>
+ *   <li>Aplicar o filtro a um mapa de resultados por processo, com as mesmas regras de
+ *   {@link ResultExporter#exportData(HashMap, Double, FilterOpt)}.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code minValue} e {@code maxValue}: Intervalo de valores aceite, inclusive.</li>
+ *   <li>{@code processName}: Nome exato do processo aceite, ou {@code null} para aceitar todos.</li>
+ * </ul>
+ *
+ * <p>As instâncias não podem ser alteradas depois de criadas; alterar o {@link FilterOpt} original não altera
+ * o filtro compilado. A exportação e o cálculo ({@code Calculo#calculate(List, FilterOpt)}) usam esta classe
+ * para aplicarem as mesmas regras.</p>
+ *
+ * @see FilterOpt
+ */
+public final class ProcessFilter {
+    private final double minValue;
+    private final double maxValue;
+    private final String processName;
+
+    private ProcessFilter(double minValue, double maxValue, String processName) {
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.processName = processName;
+    }
+
+    /**
+     * Valida e compila um filtro.
+     *
+     * @param filter O filtro.
+     * @return O filtro compilado.
+     * @throws IllegalArgumentException Se o filtro for {@code null} ou os seus valores forem negativos.
+     */
+    public static ProcessFilter compile(FilterOpt filter) {
+        if(filter == null){
+            throw new IllegalArgumentException("Filter can't be null");
+        }
+
+        if(filter.getMinValue() < 0 || filter.getMaxValue() < 0){
+            throw new IllegalArgumentException("minValue and maxValue on filter must both be non-negative.");
+        }
+        return new ProcessFilter(filter.getMinValue(), filter.getMaxValue(), filter.getProcessName());
+    }
+
+    /**
+     * Indica se um processo com este nome pode passar no filtro, antes de o seu resultado ser conhecido.
+     *
+     * @param name O nome do processo.
+     * @return {@code true} se o filtro não tiver nome ou o nome for igual ao do filtro; {@code false} caso contrário.
+     */
+    public boolean acceptsProcess(String name) {
+        return processName == null || processName.equals(name);
+    }
+
+    /**
+     * Indica se um resultado está entre o mínimo e o máximo do filtro, inclusive.
+     *
+     * @param value O resultado de um processo.
+     * @return {@code true} se o valor estiver no intervalo; {@code false} caso contrário.
+     */
+    public boolean acceptsValue(double value) {
+        return minValue <= value && maxValue >= value;
+    }
+
+    /**
+     * Verifica se o resultado de um processo passa no filtro.
+     *
+     * @param name  O nome do processo.
+     * @param value O resultado do processo.
+     * @return {@code true} se o nome e o valor forem aceites; {@code false} caso contrário.
+     */
+    public boolean test(String name, double value) {
+        return acceptsProcess(name) && acceptsValue(value);
+    }
+
+    /**
+     * Devolve os resultados por processo que passam no filtro.
+     *
+     * <p>Quando o filtro tem um nome de processo, apenas esse nome é procurado no mapa.</p>
+     *
+     * @param resultPerProcess Os resultados por processo, pelo nome do processo.
+     * @return Um novo {@link HashMap} apenas com os resultados que passam no filtro.
+     */
+    public HashMap<String, Double> apply(Map<String, Double> resultPerProcess) {
+        HashMap<String, Double> result = new HashMap<>();
+
+        if (processName != null) {
+            Double value = resultPerProcess.get(processName);
+            if (value != null && acceptsValue(value)) {
+                result.put(processName, value);
+            }
+            return result;
+        }
+
+        for (Map.Entry<String, Double> entry : resultPerProcess.entrySet()) {
+            if (acceptsValue(entry.getValue())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    public double getMinValue() {
+        return minValue;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public String getProcessName() {
+        return processName;
+    }
+}
@@ -17,7 +17,8 @@ import java.util.Map;
  * <p><b>Funcionalidades:</b></p>
  * <ul>
  *   <li>Exportar os valores PCF para um ficheiro CSV.</li>
- *   <li>Aplicar filtros aos dados antes da exportação, através da interface {@link FilterOpt}.</li>
+ *   <li>Aplicar filtros aos dados antes da exportação, através da interface {@link FilterOpt}, compilada
+ *   num {@link ProcessFilter}.</li>
  *   <li>Gerar automaticamente o diretório 'Export', caso ausente.</li>
  *   <li>Validar os valores antes de exportar.</li>
  *   <li>Limpar o conteúdo do ficheiro exportado, se necessário.</li>
@@ -31,10 +32,14 @@ import java.util.Map;
  * <p>Esta classe fornece uma implementação para a exportação de dados,
  * com verificações de integridade e manipulação de erros de I/O.</p>
  *
+ * <p>Cada exportação abre e fecha o ficheiro. Para exportar muitos resultados seguidos, deve ser usado um
+ * {@link ExportSession}, que mantém o ficheiro aberto e escreve as mesmas linhas.</p>
+ *
  * @see Export
+ * @see ExportSession
  */
 public class ResultExporter implements Export {
-    private static final String FILE_PATH = "./Export/PFC.csv";
+    static final String FILE_PATH = "./Export/PFC.csv";
 
     /**
      * Exporta os dados de resultados por processo e o valor total de PCF para um ficheiro CSV.
@@ -50,25 +55,29 @@ public class ResultExporter implements Export {
      */
     @Override
     public boolean exportData(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
+        return export(prepare(resultPerProcess, result, filter), result);
+    }
+
+    /**
+     * Valida os dados de uma exportação e aplica o filtro aos resultados por processo.
+     *
+     * @param resultPerProcess Os resultados por processo, ou {@code null}.
+     * @param result           O valor total de PCF.
+     * @param filter           O filtro a aplicar aos resultados por processo.
+     * @return Os resultados por processo filtrados, ou {@code null} se {@code resultPerProcess} for {@code null}.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo, o filtro for inválido,
+     *                                  ou os valores no filtro forem negativos.
+     */
+    static HashMap<String, Double> prepare(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
         if (result == null || result < 0) {
             throw new IllegalArgumentException("Result value must be non-negative.");
         }
 
         if (resultPerProcess == null) {
-            return export(resultPerProcess, result);
-        }
-
-        if(filter == null){
-            throw new IllegalArgumentException("Filter can't be null");
+            return null;
         }
 
-        if(filter.getMinValue() < 0 || filter.getMaxValue() < 0){
-            throw new IllegalArgumentException("minValue and maxValue on filter must both be non-negative.");
-        }
-
-        resultPerProcess = filter(resultPerProcess, filter);
-
-        return export(resultPerProcess, result);
+        return ProcessFilter.compile(filter).apply(resultPerProcess);
     }
 
     /**
@@ -87,28 +96,14 @@ public class ResultExporter implements Export {
                 throw new IOException("Failed to create directory: " + directory.getAbsolutePath());
             }
 
-            String header = "Result";
-            if (resultPerProcess != null) {
-                header += header + ", Result per Process";
+            StringBuilder line = new StringBuilder();
+            if (file.length() == 0) {
+                appendHeader(line, resultPerProcess);
             }
-
-            header += "\n";
+            appendResult(line, resultPerProcess, result);
 
             try (FileWriter writer = new FileWriter(file, true)) {
-                if (file.length() == 0) {
-                    writer.append(header);
-                }
-
-                writer.append(String.valueOf(result)).append(",");
-
-                if (resultPerProcess != null && !resultPerProcess.isEmpty()) {
-                    StringBuilder perProcessData = new StringBuilder();
-                    for (String key : resultPerProcess.keySet()) {
-                        perProcessData.append(key).append(": ").append(resultPerProcess.get(key)).append("; ");
-                    }
-
-                    writer.append(perProcessData.toString()).append("\n");
-                }
+                writer.append(line);
                 return true;
             }
         } catch (IOException e) {
@@ -117,22 +112,35 @@ public class ResultExporter implements Export {
     }
 
     /**
-     * Filtra os dados do {@link HashMap} de resultados com base nos critérios do filtro fornecido.
+     * Acrescenta o cabeçalho do ficheiro CSV, escrito apenas quando o ficheiro está vazio.
+     *
+     * @param line             Onde o cabeçalho é acrescentado.
+     * @param resultPerProcess Os resultados por processo do primeiro registo, ou {@code null}.
+     */
+    static void appendHeader(StringBuilder line, HashMap<String, Double> resultPerProcess) {
+        line.append("Result");
+        if (resultPerProcess != null) {
+            line.append("Result, Result per Process");
+        }
+        line.append('\n');
+    }
+
+    /**
+     * Acrescenta o registo de um resultado: o valor total e, se existirem, os resultados por processo.
      *
-     * @param resultPerProcess O {@link HashMap} original que contém os resultados por processo.
-     * @param filter O filtro utilizado para selecionar os dados relevantes.
-     * @return Um {@link HashMap} que contém apenas os dados que correspondem aos critérios do filtro.
+     * @param line             Onde o registo é acrescentado.
+     * @param resultPerProcess Os resultados por processo já filtrados, ou {@code null}.
+     * @param result           O valor total de PCF.
      */
-    private HashMap<String, Double> filter(HashMap<String, Double> resultPerProcess, FilterOpt filter) {
-        HashMap<String, Double> result = new HashMap<>();
+    static void appendResult(StringBuilder line, HashMap<String, Double> resultPerProcess, Double result) {
+        line.append(result.doubleValue()).append(',');
 
-        for (String key : resultPerProcess.keySet()) {
-            if (((filter.getProcessName() != null && filter.getProcessName().equals(key) || filter.getProcessName() == null)
-                    && filter.getMinValue() <= resultPerProcess.get(key) && filter.getMaxValue() >= resultPerProcess.get(key))) {
-                result.put(key, resultPerProcess.get(key));
+        if (resultPerProcess != null && !resultPerProcess.isEmpty()) {
+            for (Map.Entry<String, Double> entry : resultPerProcess.entrySet()) {
+                line.append(entry.getKey()).append(": ").append(entry.getValue()).append("; ");
             }
+            line.append('\n');
         }
-        return result;
     }
 
     /**
@@ -0,0 +1,194 @@
+package org.estg.ipp.pt.Export;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * A classe {@code ResultIndex} guarda em memória os índices de um {@link ResultStore}: a posição de cada
+ * resultado no ficheiro, pelo identificador e pelo instante, e os resultados de cada processo, pelo valor.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code runs}: Posição de cada resultado, pelo identificador da execução.</li>
+ *   <li>{@code byTime}: Posições ordenadas pelo instante e, em caso de empate, pelo identificador.</li>
+ *   <li>{@code byProcess}: Para cada nome de processo, os pares (valor, identificador) ordenados pelo valor.</li>
+ *   <li>{@code liveBytes} e {@code deadBytes}: Bytes do ficheiro com resultados ativos e com resultados
+ *   apagados ou marcas de remoção, usados para decidir a compactação.</li>
+ * </ul>
+ *
+ * <p>Esta classe não é thread-safe; é protegida pelo {@link ResultStore}.</p>
+ */
+final class ResultIndex {
+    private static final Comparator<Entry> BY_TIME =
+            Comparator.comparingLong((Entry entry) -> entry.timestamp).thenComparingLong(entry -> entry.runId);
+    private static final Comparator<ValueKey> BY_VALUE =
+            Comparator.comparingDouble((ValueKey key) -> key.value).thenComparingLong(key -> key.runId);
+
+    private final Map<Long, Entry> runs = new HashMap<>();
+    private final TreeSet<Entry> byTime = new TreeSet<>(BY_TIME);
+    private final Map<String, TreeSet<ValueKey>> byProcess = new HashMap<>();
+    private long liveBytes;
+    private long deadBytes;
+    private long maxRunId;
+
+    /**
+     * Regista um resultado guardado numa posição do ficheiro.
+     *
+     * @param result O resultado.
+     * @param offset A posição do registo no ficheiro.
+     * @param length O tamanho do registo, em bytes.
+     */
+    void add(StoredResult result, long offset, int length) {
+        Entry entry = new Entry(result.getRunId(), result.getTimestamp().toEpochMilli(), offset, length);
+        runs.put(entry.runId, entry);
+        byTime.add(entry);
+        for (Map.Entry<String, Double> process : result.getResultPerProcess().entrySet()) {
+            byProcess.computeIfAbsent(process.getKey(), key -> new TreeSet<>(BY_VALUE))
+                    .add(new ValueKey(process.getValue(), entry.runId));
+        }
+        liveBytes += length;
+        maxRunId = Math.max(maxRunId, entry.runId);
+    }
+
+    /**
+     * Remove um resultado dos índices, depois de ter sido apagado com uma marca de remoção.
+     *
+     * @param result          O resultado apagado, tal como está guardado.
+     * @param tombstoneLength O tamanho da marca de remoção, em bytes.
+     */
+    void remove(StoredResult result, int tombstoneLength) {
+        Entry entry = runs.remove(result.getRunId());
+        if (entry != null) {
+            byTime.remove(entry);
+            for (Map.Entry<String, Double> process : result.getResultPerProcess().entrySet()) {
+                TreeSet<ValueKey> values = byProcess.get(process.getKey());
+                values.remove(new ValueKey(process.getValue(), entry.runId));
+                if (values.isEmpty()) {
+                    byProcess.remove(process.getKey());
+                }
+            }
+            liveBytes -= entry.length;
+            deadBytes += entry.length;
+        }
+        deadBytes += tombstoneLength;
+    }
+
+    /**
+     * Regista uma marca de remoção sem resultado correspondente.
+     *
+     * @param runId           O identificador apagado.
+     * @param tombstoneLength O tamanho da marca de remoção, em bytes.
+     */
+    void addOrphanTombstone(long runId, int tombstoneLength) {
+        deadBytes += tombstoneLength;
+        maxRunId = Math.max(maxRunId, runId);
+    }
+
+    Entry get(long runId) {
+        return runs.get(runId);
+    }
+
+    /**
+     * Devolve os resultados guardados num intervalo de tempo, pelo instante.
+     *
+     * @param fromMillis Início do intervalo, inclusive.
+     * @param toMillis   Fim do intervalo, exclusive.
+     * @return As posições dos resultados.
+     */
+    NavigableSet<Entry> between(long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) {
+            return new TreeSet<>(BY_TIME);
+        }
+        return byTime.subSet(new Entry(Long.MIN_VALUE, fromMillis, 0, 0), true,
+                new Entry(Long.MIN_VALUE, toMillis, 0, 0), false);
+    }
+
+    /**
+     * Devolve os resultados com um processo cujo valor está num intervalo, pelo instante.
+     *
+     * @param processName O nome do processo.
+     * @param min         O valor mínimo, inclusive.
+     * @param max         O valor máximo, inclusive.
+     * @param fromMillis  Início do intervalo de tempo, inclusive.
+     * @param toMillis    Fim do intervalo de tempo, exclusive.
+     * @return As posições dos resultados, ordenadas pelo instante.
+     */
+    List<Entry> withProcessValue(String processName, double min, double max, long fromMillis, long toMillis) {
+        TreeSet<ValueKey> values = byProcess.get(processName);
+        List<Entry> entries = new ArrayList<>();
+        if (values == null || min > max) {
+            return entries;
+        }
+
+        for (ValueKey key : values.subSet(new ValueKey(min, Long.MIN_VALUE), true, new ValueKey(max, Long.MAX_VALUE), true)) {
+            Entry entry = runs.get(key.runId);
+            if (entry.timestamp >= fromMillis && entry.timestamp < toMillis) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(BY_TIME);
+        return entries;
+    }
+
+    /**
+     * Devolve os resultados ativos pela ordem em que estão no ficheiro.
+     *
+     * @return Uma nova lista com as posições dos resultados.
+     */
+    List<Entry> byOffset() {
+        List<Entry> entries = new ArrayList<>(runs.values());
+        entries.sort(Comparator.comparingLong(entry -> entry.offset));
+        return entries;
+    }
+
+    int size() {
+        return runs.size();
+    }
+
+    long getLiveBytes() {
+        return liveBytes;
+    }
+
+    long getDeadBytes() {
+        return deadBytes;
+    }
+
+    long getMaxRunId() {
+        return maxRunId;
+    }
+
+    /**
+     * Posição de um resultado no ficheiro.
+     */
+    static final class Entry {
+        final long runId;
+        final long timestamp;
+        final long offset;
+        final int length;
+
+        Entry(long runId, long timestamp, long offset, int length) {
+            this.runId = runId;
+            this.timestamp = timestamp;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Valor de um processo num resultado.
+     */
+    private static final class ValueKey {
+        private final double value;
+        private final long runId;
+
+        private ValueKey(double value, long runId) {
+            this.value = value;
+            this.runId = runId;
+        }
+    }
+}
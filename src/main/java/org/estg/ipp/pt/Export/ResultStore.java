@@ -0,0 +1,642 @@
+package org.estg.ipp.pt.Export;
+
+import org.estg.ipp.pt.Interfaces.Export.Export;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * A classe {@code ResultStore} guarda os resultados do PCF num ficheiro binário onde os registos são
+ * apenas acrescentados, com índices em memória que permitem consultar os resultados sem ler o ficheiro
+ * todo.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Guardar cada resultado com um identificador de execução ({@code runId}) e o instante em que foi
+ *   guardado.</li>
+ *   <li>Consultar os resultados de um intervalo de tempo com as regras de um {@link FilterOpt}
+ *   ({@link #query(FilterOpt, Instant, Instant)}); com um nome de processo, só são lidos do ficheiro os
+ *   resultados desse processo com o valor no intervalo do filtro.</li>
+ *   <li>Apagar resultados com marcas de remoção (tombstones) e compactar o ficheiro numa thread própria
+ *   ({@link #compactAsync()}), automaticamente quando a maior parte do ficheiro já não é usada.</li>
+ *   <li>Ser usado como um {@link Export}, no lugar de {@link ResultExporter}.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code channel}: {@link FileChannel} do ficheiro, lido por posição.</li>
+ *   <li>{@code index}: {@link ResultIndex} com a posição de cada resultado, pelo identificador e pelo
+ *   instante, e os valores de cada processo; é reconstruído ao abrir o ficheiro.</li>
+ *   <li>{@code logSize}: Tamanho do ficheiro, onde é escrito o próximo registo.</li>
+ *   <li>{@code generation}: Incrementado quando o ficheiro é substituído ou limpo, para que uma compactação
+ *   iniciada antes seja descartada.</li>
+ * </ul>
+ *
+ * <p>Cada registo é guardado como {@code [tamanho][CRC32][conteúdo]}; ao abrir o ficheiro, um último registo
+ * incompleto ou corrompido (ex.: após uma falha durante a escrita) é descartado. Os registos são escritos
+ * diretamente no ficheiro, mas só ficam garantidos no disco após {@link #sync()} ou {@link #close()}.</p>
+ *
+ * <p>A compactação copia os resultados ativos para um ficheiro novo sem bloquear as outras operações, exceto
+ * no fim, quando copia os registos acrescentados entretanto e substitui o ficheiro. Todos os outros métodos
+ * são sincronizados, pelo que a mesma instância pode ser usada por várias threads.</p>
+ *
+ * @see StoredResult
+ */
+public class ResultStore implements Export, Closeable {
+    /**
+     * Número mínimo de bytes sem uso a partir do qual a compactação é iniciada automaticamente.
+     */
+    public static final long AUTO_COMPACT_MIN_BYTES = 1024 * 1024;
+
+    private static final int HEADER_SIZE = 8;
+    private static final byte RESULT = 1;
+    private static final byte TOMBSTONE = 2;
+    private static final long ALL_TIME_FROM = Long.MIN_VALUE;
+    private static final long ALL_TIME_TO = Long.MAX_VALUE;
+
+    private final Path path;
+    private final Clock clock;
+    private final ExecutorService compactor;
+    private final Object compactLock = new Object();
+    private FileChannel channel;
+    private ResultIndex index;
+    private long logSize;
+    private long generation;
+    private boolean closed;
+    private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+
+    /**
+     * Abre ou cria um ficheiro de resultados, com o relógio do sistema em UTC.
+     *
+     * @param path O caminho do ficheiro.
+     * @throws IOException Se o ficheiro não puder ser aberto ou lido.
+     */
+    public ResultStore(String path) throws IOException {
+        this(path, Clock.systemUTC());
+    }
+
+    /**
+     * Abre ou cria um ficheiro de resultados e reconstrói os índices a partir dos registos.
+     *
+     * @param path  O caminho do ficheiro.
+     * @param clock O relógio usado para o instante de cada resultado.
+     * @throws IllegalArgumentException Se o caminho ou o relógio forem {@code null}.
+     * @throws IOException              Se o ficheiro não puder ser aberto ou lido.
+     */
+    public ResultStore(String path, Clock clock) throws IOException {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Path cannot be null or empty.");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null.");
+        }
+
+        this.path = Path.of(path);
+        this.clock = clock;
+        Path directory = this.path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        // Uma compactação interrompida deixa apenas o ficheiro temporário, que é descartado
+        Files.deleteIfExists(compactPath());
+
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.index = new ResultIndex();
+        try {
+            this.logSize = scan(channel, 0, index);
+            if (logSize < channel.size()) {
+                System.err.println("Discarding incomplete records after offset " + logSize + " of " + path);
+                channel.truncate(logSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pcf-result-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private Path compactPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    /**
+     * Guarda um resultado com o próximo identificador de execução.
+     *
+     * @param resultPerProcess O resultado de cada processo, ou {@code null} se não existir.
+     * @param result           O valor total de PCF.
+     * @return O identificador de execução atribuído.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo.
+     * @throws IOException              Se o registo não puder ser escrito.
+     * @throws IllegalStateException    Se o ficheiro estiver fechado.
+     */
+    public synchronized long append(Map<String, Double> resultPerProcess, double result) throws IOException {
+        ensureOpen();
+        if (result < 0) {
+            throw new IllegalArgumentException("Result value must be non-negative.");
+        }
+
+        long runId = index.getMaxRunId() + 1;
+        StoredResult stored = new StoredResult(runId, Instant.ofEpochMilli(clock.millis()), result,
+                resultPerProcess == null ? Map.of() : resultPerProcess);
+        ByteBuffer record = encode(stored);
+        int length = record.remaining();
+
+        writeFully(channel, record, logSize);
+        index.add(stored, logSize, length);
+        logSize += length;
+        return runId;
+    }
+
+    /**
+     * Guarda um resultado, com as mesmas regras de {@link ResultExporter#exportData(HashMap, Double, FilterOpt)}:
+     * só os resultados por processo que passam no filtro são guardados.
+     *
+     * @param resultPerProcess Os resultados por processo, pelo nome do processo.
+     * @param result           O valor total de PCF.
+     * @param filter           O filtro aplicado aos resultados por processo.
+     * @return {@code true} se o resultado for guardado; {@code false} se ocorrer um erro de escrita.
+     * @throws IllegalArgumentException Se o valor total de PCF for negativo, o filtro for inválido,
+     *                                  ou os valores no filtro forem negativos.
+     */
+    @Override
+    public boolean exportData(HashMap<String, Double> resultPerProcess, Double result, FilterOpt filter) {
+        HashMap<String, Double> filtered = ResultExporter.prepare(resultPerProcess, result, filter);
+        try {
+            append(filtered, result);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing the results file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Devolve um resultado pelo identificador de execução.
+     *
+     * @param runId O identificador de execução.
+     * @return O resultado, ou {@code null} se não existir ou tiver sido apagado.
+     * @throws IOException Se o registo não puder ser lido.
+     */
+    public synchronized StoredResult get(long runId) throws IOException {
+        ensureOpen();
+        ResultIndex.Entry entry = index.get(runId);
+        return entry == null ? null : read(channel, entry);
+    }
+
+    /**
+     * Devolve todos os resultados com pelo menos um processo que passa no filtro, pelo instante.
+     *
+     * @param filter O filtro.
+     * @return Os resultados, cada um apenas com os processos que passam no filtro.
+     * @throws IllegalArgumentException Se o filtro for inválido.
+     * @throws IOException              Se algum registo não puder ser lido.
+     * @see #query(FilterOpt, Instant, Instant)
+     */
+    public List<StoredResult> query(FilterOpt filter) throws IOException {
+        return query(filter, ALL_TIME_FROM, ALL_TIME_TO);
+    }
+
+    /**
+     * Devolve os resultados guardados num intervalo de tempo com pelo menos um processo que passa no filtro,
+     * com as regras de {@link ResultExporter}: o nome do processo tem de ser igual ao do filtro, se este tiver
+     * um, e o valor tem de estar entre o mínimo e o máximo, inclusive.
+     *
+     * <p>Com um nome de processo no filtro, os resultados são encontrados pelo índice dos valores desse
+     * processo; caso contrário, pelo índice do tempo.</p>
+     *
+     * @param filter O filtro.
+     * @param from   Início do intervalo, inclusive.
+     * @param to     Fim do intervalo, exclusive.
+     * @return Os resultados, pelo instante, cada um apenas com os processos que passam no filtro.
+     * @throws IllegalArgumentException Se o filtro for inválido ou algum instante for {@code null}.
+     * @throws IOException              Se algum registo não puder ser lido.
+     */
+    public List<StoredResult> query(FilterOpt filter, Instant from, Instant to) throws IOException {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Time range cannot be null.");
+        }
+        return query(filter, from.toEpochMilli(), to.toEpochMilli());
+    }
+
+    private synchronized List<StoredResult> query(FilterOpt filter, long fromMillis, long toMillis) throws IOException {
+        ProcessFilter compiled = ProcessFilter.compile(filter);
+        ensureOpen();
+
+        Collection<ResultIndex.Entry> entries = compiled.getProcessName() == null
+                ? index.between(fromMillis, toMillis)
+                : index.withProcessValue(compiled.getProcessName(), compiled.getMinValue(), compiled.getMaxValue(),
+                        fromMillis, toMillis);
+
+        List<StoredResult> results = new ArrayList<>();
+        for (ResultIndex.Entry entry : entries) {
+            StoredResult stored = read(channel, entry);
+            Map<String, Double> matching = new LinkedHashMap<>();
+            for (Map.Entry<String, Double> process : stored.getResultPerProcess().entrySet()) {
+                if (compiled.test(process.getKey(), process.getValue())) {
+                    matching.put(process.getKey(), process.getValue());
+                }
+            }
+            if (!matching.isEmpty()) {
+                results.add(new StoredResult(stored.getRunId(), stored.getTimestamp(), stored.getResult(), matching));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Apaga um resultado, acrescentando uma marca de remoção ao ficheiro.
+     *
+     * <p>Quando o espaço sem uso passa {@link #AUTO_COMPACT_MIN_BYTES} e é maior do que o espaço usado, é
+     * iniciada uma compactação em segundo plano.</p>
+     *
+     * @param runId O identificador de execução.
+     * @return {@code true} se o resultado existir; {@code false} caso contrário.
+     * @throws IOException Se o registo não puder ser lido ou a marca não puder ser escrita.
+     */
+    public synchronized boolean delete(long runId) throws IOException {
+        ensureOpen();
+        ResultIndex.Entry entry = index.get(runId);
+        if (entry == null) {
+            return false;
+        }
+
+        StoredResult stored = read(channel, entry);
+        ByteBuffer record = encodeTombstone(runId, clock.millis());
+        int length = record.remaining();
+        writeFully(channel, record, logSize);
+        index.remove(stored, length);
+        logSize += length;
+
+        if (index.getDeadBytes() >= AUTO_COMPACT_MIN_BYTES && index.getDeadBytes() > index.getLiveBytes()) {
+            compactAsync();
+        }
+        return true;
+    }
+
+    /**
+     * Apaga todos os resultados, deixando o ficheiro vazio; os identificadores de execução voltam a começar
+     * em 1. Uma compactação em curso é descartada.
+     */
+    @Override
+    public synchronized void clear() {
+        ensureOpen();
+        try {
+            channel.truncate(0);
+            index = new ResultIndex();
+            logSize = 0;
+            generation++;
+        } catch (IOException e) {
+            System.err.println("Failed to clear the file.");
+        }
+    }
+
+    /**
+     * Inicia a compactação do ficheiro numa thread própria, se ainda não estiver em curso.
+     *
+     * @return Um {@link CompletableFuture} que termina quando a compactação terminar.
+     * @throws IllegalStateException Se o ficheiro estiver fechado.
+     */
+    public synchronized CompletableFuture<Void> compactAsync() {
+        ensureOpen();
+        if (compaction.isDone()) {
+            compaction = CompletableFuture.runAsync(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, compactor);
+        }
+        return compaction;
+    }
+
+    /**
+     * Reescreve o ficheiro apenas com os resultados ativos, descartando os resultados apagados e as marcas
+     * de remoção.
+     *
+     * <p>Os resultados são copiados sem bloquear as outras operações; no fim, os registos acrescentados
+     * entretanto são copiados e o ficheiro é substituído de forma atómica. Se o ficheiro for limpo durante
+     * a cópia, a compactação é descartada.</p>
+     *
+     * @throws IOException Se o ficheiro não puder ser copiado ou substituído.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            copyLiveRecords();
+        }
+    }
+
+    private void copyLiveRecords() throws IOException {
+        FileChannel source;
+        List<ResultIndex.Entry> live;
+        long copiedUpTo;
+        long maxRunId;
+        long startGeneration;
+        synchronized (this) {
+            ensureOpen();
+            source = channel;
+            live = index.byOffset();
+            copiedUpTo = logSize;
+            maxRunId = index.getMaxRunId();
+            startGeneration = generation;
+        }
+
+        Path target = compactPath();
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ResultIndex compacted = new ResultIndex();
+            long position = 0;
+            for (ResultIndex.Entry entry : live) {
+                ByteBuffer record = readRecord(source, entry.offset, entry.length);
+                compacted.add(decode(record.position(HEADER_SIZE)), position, entry.length);
+                writeFully(out, record.rewind(), position);
+                position += entry.length;
+            }
+            if (compacted.getMaxRunId() < maxRunId) {
+                // Mantém a marca do maior identificador, para que não volte a ser atribuído
+                ByteBuffer tombstone = encodeTombstone(maxRunId, clock.millis());
+                int length = tombstone.remaining();
+                writeFully(out, tombstone, position);
+                compacted.addOrphanTombstone(maxRunId, length);
+                position += length;
+            }
+
+            synchronized (this) {
+                if (closed || generation != startGeneration) {
+                    out.close();
+                    Files.deleteIfExists(target);
+                    return;
+                }
+
+                // Registos acrescentados durante a cópia, incluindo marcas de remoção de resultados copiados
+                long tail = logSize - copiedUpTo;
+                if (tail > 0) {
+                    for (long copied = 0; copied < tail; ) {
+                        copied += out.transferFrom(channel.position(copiedUpTo + copied), position + copied, tail - copied);
+                    }
+                    if (scan(out, position, compacted) != position + tail) {
+                        throw new IOException("Records changed during compaction");
+                    }
+                }
+                out.force(true);
+                out.close();
+
+                channel.close();
+                try {
+                    Files.move(target, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    // Se a substituição falhar, o ficheiro original continua a ser usado
+                    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                index = compacted;
+                logSize = position + Math.max(tail, 0);
+                generation++;
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Garante que todos os registos escritos estão gravados no disco.
+     *
+     * @throws IOException Se o ficheiro não puder ser gravado.
+     */
+    public synchronized void sync() throws IOException {
+        ensureOpen();
+        channel.force(true);
+    }
+
+    /**
+     * Espera pela compactação em curso, grava o ficheiro no disco e fecha-o. Chamar este método num ficheiro
+     * fechado não tem efeito.
+     *
+     * @throws IOException Se o ficheiro não puder ser gravado ou fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        CompletableFuture<Void> running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            running = compaction;
+        }
+        try {
+            running.join();
+        } catch (RuntimeException e) {
+            System.err.println("Compaction failed: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            compactor.shutdown();
+            try (FileChannel ignored = channel) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Devolve o número de resultados ativos.
+     *
+     * @return O número de resultados.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Devolve o tamanho do ficheiro.
+     *
+     * @return O tamanho, em bytes, incluindo resultados apagados e marcas de remoção ainda não compactados.
+     */
+    public synchronized long getLogSize() {
+        return logSize;
+    }
+
+    /**
+     * Devolve o caminho do ficheiro.
+     *
+     * @return O caminho do ficheiro.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Result store is closed.");
+        }
+    }
+
+    /**
+     * Lê os registos entre uma posição e o fim do ficheiro e aplica-os a um índice.
+     *
+     * @return A posição a seguir ao último registo completo e válido.
+     */
+    private static long scan(FileChannel source, long from, ResultIndex target) throws IOException {
+        long position = from;
+        // O stream não é fechado, para não fechar o canal
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(source.position(from)), 1 << 16));
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[256];
+        while (true) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > source.size() - position - HEADER_SIZE) {
+                    return position;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException e) {
+                return position;
+            }
+
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                return position;
+            }
+
+            apply(source, ByteBuffer.wrap(payload, 0, length), position, HEADER_SIZE + length, target);
+            position += HEADER_SIZE + length;
+        }
+    }
+
+    private static void apply(FileChannel source, ByteBuffer payload, long offset, int length, ResultIndex target)
+            throws IOException {
+        if (payload.get(payload.position()) == TOMBSTONE) {
+            long runId = payload.getLong(payload.position() + 1);
+            ResultIndex.Entry entry = target.get(runId);
+            if (entry == null) {
+                target.addOrphanTombstone(runId, length);
+            } else {
+                target.remove(read(source, entry), length);
+            }
+        } else {
+            target.add(decode(payload), offset, length);
+        }
+    }
+
+    private static StoredResult read(FileChannel source, ResultIndex.Entry entry) throws IOException {
+        return decode(readRecord(source, entry.offset, entry.length).position(HEADER_SIZE));
+    }
+
+    private static ByteBuffer readRecord(FileChannel source, long offset, int length) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(length);
+        while (record.hasRemaining()) {
+            if (source.read(record, offset + record.position()) < 0) {
+                throw new EOFException("Unexpected end of the results file at offset " + offset);
+            }
+        }
+        return record.flip();
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer bytes, long position) throws IOException {
+        long offset = position;
+        while (bytes.hasRemaining()) {
+            offset += target.write(bytes, offset);
+        }
+    }
+
+    /**
+     * Codifica um resultado: tipo, identificador, instante, valor total e, para cada processo, o nome em
+     * UTF-8 e o valor.
+     */
+    private static ByteBuffer encode(StoredResult stored) {
+        Map<String, Double> processes = stored.getResultPerProcess();
+        List<byte[]> names = new ArrayList<>(processes.size());
+        int size = 1 + Long.BYTES * 3 + Integer.BYTES;
+        for (String name : processes.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Process name is too long: " + name.substring(0, 32) + "...");
+            }
+            names.add(bytes);
+            size += Short.BYTES + bytes.length + Double.BYTES;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + size).position(HEADER_SIZE);
+        record.put(RESULT).putLong(stored.getRunId()).putLong(stored.getTimestamp().toEpochMilli())
+                .putDouble(stored.getResult()).putInt(processes.size());
+        int i = 0;
+        for (Double value : processes.values()) {
+            byte[] name = names.get(i++);
+            record.putShort((short) name.length).put(name).putDouble(value);
+        }
+        return seal(record);
+    }
+
+    private static ByteBuffer encodeTombstone(long runId, long timestamp) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + 1 + Long.BYTES * 2).position(HEADER_SIZE);
+        record.put(TOMBSTONE).putLong(runId).putLong(timestamp);
+        return seal(record);
+    }
+
+    /**
+     * Escreve o tamanho e o CRC32 do conteúdo no cabeçalho e prepara o registo para ser escrito.
+     */
+    private static ByteBuffer seal(ByteBuffer record) {
+        int length = record.position() - HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, length);
+        record.putInt(0, length).putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private static StoredResult decode(ByteBuffer payload) {
+        payload.get();
+        long runId = payload.getLong();
+        Instant timestamp = Instant.ofEpochMilli(payload.getLong());
+        double result = payload.getDouble();
+        int count = payload.getInt();
+
+        Map<String, Double> processes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[payload.getShort()];
+            payload.get(name);
+            processes.put(new String(name, StandardCharsets.UTF_8), payload.getDouble());
+        }
+        return new StoredResult(runId, timestamp, result, processes);
+    }
+}
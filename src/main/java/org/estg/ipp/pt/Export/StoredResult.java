@@ -0,0 +1,74 @@
+package org.estg.ipp.pt.Export;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A classe {@code StoredResult} representa um resultado guardado num {@link ResultStore}.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code runId}: Identificador da execução, único no {@link ResultStore}.</li>
+ *   <li>{@code timestamp}: Instante em que o resultado foi guardado.</li>
+ *   <li>{@code result}: Valor total de PCF.</li>
+ *   <li>{@code resultPerProcess}: Resultado de cada processo, pela ordem em que foram guardados.</li>
+ * </ul>
+ *
+ * <p>As instâncias não podem ser alteradas depois de criadas e podem ser partilhadas entre threads.</p>
+ *
+ * @see ResultStore
+ */
+public final class StoredResult {
+    private final long runId;
+    private final Instant timestamp;
+    private final double result;
+    private final Map<String, Double> resultPerProcess;
+
+    /**
+     * Construtor da classe {@code StoredResult}.
+     *
+     * @param runId            Identificador da execução.
+     * @param timestamp        Instante em que o resultado foi guardado.
+     * @param result           Valor total de PCF.
+     * @param resultPerProcess Resultado de cada processo; o mapa é copiado.
+     */
+    public StoredResult(long runId, Instant timestamp, double result, Map<String, Double> resultPerProcess) {
+        this.runId = runId;
+        this.timestamp = timestamp;
+        this.result = result;
+        this.resultPerProcess = Collections.unmodifiableMap(new LinkedHashMap<>(resultPerProcess));
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public double getResult() {
+        return result;
+    }
+
+    /**
+     * Devolve o resultado de cada processo.
+     *
+     * @return Um mapa não modificável com o resultado por processo.
+     */
+    public Map<String, Double> getResultPerProcess() {
+        return resultPerProcess;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredResult{" +
+                "runId=" + runId +
+                ", timestamp=" + timestamp +
+                ", result=" + result +
+                ", resultPerProcess=" + resultPerProcess +
+                '}';
+    }
+}
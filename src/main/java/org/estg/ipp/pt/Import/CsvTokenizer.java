@@ -0,0 +1,373 @@
+package org.estg.ipp.pt.Import;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A classe {@code CsvTokenizer} divide uma linha de texto em campos separados por um delimitador,
+ * guardando apenas as posições de início e fim de cada campo.
+ *
+ * <p>Ao contrário de {@link String#split(String)}, não são criadas strings intermédias: os campos
+ * só são materializados quando {@link #getField(int)} é chamado. A mesma instância pode ser reutilizada
+ * para todas as linhas de um ficheiro, o que elimina as alocações por linha na importação, na modelagem
+ * e na classificação de fluxos.</p>
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Divisão de qualquer {@link CharSequence}, incluindo vistas sobre ficheiros mapeados em memória.</li>
+ *   <li>Subdivisão de um campo com outro delimitador (ex.: {@code Material;Leather}).</li>
+ *   <li>Conversão de campos numéricos sem criar strings no caso comum e, opcionalmente, sem lançar
+ *   exceções para campos inválidos.</li>
+ * </ul>
+ *
+ * <p>O número de campos segue a semântica de {@link String#split(String)}: os campos vazios no fim
+ * da linha são descartados. Esta classe não é thread-safe.</p>
+ *
+ * @see Import
+ */
+public final class CsvTokenizer {
+    /**
+     * Maior mantissa que pode ser representada exatamente num {@code double}.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Potências de 10 representáveis exatamente num {@code double}.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final char delimiter;
+    private CharSequence source;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fieldCount;
+
+    /**
+     * Construtor da classe {@code CsvTokenizer}.
+     *
+     * @param delimiter O carácter que separa os campos.
+     */
+    public CsvTokenizer(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Divide a sequência de caracteres fornecida em campos.
+     *
+     * @param source A linha a ser dividida.
+     * @return Esta instância, para encadeamento.
+     */
+    public CsvTokenizer tokenize(CharSequence source) {
+        return tokenize(source, 0, source.length());
+    }
+
+    /**
+     * Divide o intervalo {@code [from, to)} da sequência de caracteres fornecida em campos.
+     *
+     * @param source A sequência de caracteres.
+     * @param from   Posição inicial (inclusiva).
+     * @param to     Posição final (exclusiva).
+     * @return Esta instância, para encadeamento.
+     */
+    public CsvTokenizer tokenize(CharSequence source, int from, int to) {
+        this.source = source;
+        int count = 0;
+        int fieldStart = from;
+
+        for (int i = from; i < to; i++) {
+            if (source.charAt(i) == delimiter) {
+                count = addField(count, fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        count = addField(count, fieldStart, to);
+
+        // Tal como String.split, uma linha vazia tem um campo e os campos vazios finais são descartados
+        if (from != to) {
+            while (count > 0 && starts[count - 1] == ends[count - 1]) {
+                count--;
+            }
+        }
+
+        fieldCount = count;
+        return this;
+    }
+
+    /**
+     * Divide um campo de outro {@code CsvTokenizer} com o delimitador desta instância.
+     *
+     * @param parent O tokenizer que contém o campo.
+     * @param index  O índice do campo a ser subdividido.
+     * @return Esta instância, para encadeamento.
+     */
+    public CsvTokenizer tokenizeField(CsvTokenizer parent, int index) {
+        Objects.checkIndex(index, parent.fieldCount);
+        return tokenize(parent.source, parent.starts[index], parent.ends[index]);
+    }
+
+    private int addField(int count, int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        return count + 1;
+    }
+
+    /**
+     * Devolve o número de campos da última linha dividida.
+     *
+     * @return O número de campos.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Devolve a sequência de caracteres dividida.
+     *
+     * @return A sequência de caracteres atual.
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Devolve a posição de início de um campo na sequência de caracteres.
+     *
+     * @param index O índice do campo.
+     * @return A posição inicial (inclusiva).
+     */
+    public int getStart(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return starts[index];
+    }
+
+    /**
+     * Devolve a posição de fim de um campo na sequência de caracteres.
+     *
+     * @param index O índice do campo.
+     * @return A posição final (exclusiva).
+     */
+    public int getEnd(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return ends[index];
+    }
+
+    /**
+     * Materializa um campo como {@link String}.
+     *
+     * @param index O índice do campo.
+     * @return O conteúdo do campo.
+     */
+    public String getField(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return source.subSequence(starts[index], ends[index]).toString();
+    }
+
+    /**
+     * Verifica se um campo está vazio ou contém apenas espaços, tal como {@code trim().isEmpty()}.
+     *
+     * @param index O índice do campo.
+     * @return {@code true} se o campo estiver em branco; {@code false} caso contrário.
+     */
+    public boolean isBlank(int index) {
+        Objects.checkIndex(index, fieldCount);
+        for (int i = starts[index]; i < ends[index]; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converte um campo para {@code double} com o mesmo resultado de {@link Double#parseDouble(String)}.
+     *
+     * <p>Números decimais simples (com mantissa até 2<sup>53</sup> e expoente decimal até 22) são convertidos
+     * diretamente a partir dos caracteres, sem criar strings. Os restantes formatos são delegados em
+     * {@link Double#parseDouble(String)}.</p>
+     *
+     * @param index O índice do campo.
+     * @return O valor numérico do campo.
+     * @throws NumberFormatException Se o campo não for um número válido.
+     */
+    public double parseDouble(int index) {
+        Objects.checkIndex(index, fieldCount);
+        int start = skipLeadingSpaces(source, starts[index], ends[index]);
+        int end = skipTrailingSpaces(source, start, ends[index]);
+
+        double value = parseSimpleDecimal(source, start, end);
+        if (Double.isNaN(value)) {
+            return Double.parseDouble(getField(index));
+        }
+        return value;
+    }
+
+    /**
+     * Converte um campo para {@code double} sem lançar exceções.
+     *
+     * @param index   O índice do campo.
+     * @param invalid O valor devolvido se o campo não for um número válido.
+     * @return O valor numérico do campo, ou {@code invalid}.
+     * @see #parseDouble(CharSequence, int, int, double)
+     */
+    public double parseDouble(int index, double invalid) {
+        Objects.checkIndex(index, fieldCount);
+        return parseDouble(source, starts[index], ends[index], invalid);
+    }
+
+    /**
+     * Converte o intervalo {@code [start, end)} de uma sequência de caracteres para {@code double}, com o
+     * mesmo resultado de {@link Double#parseDouble(String)}, mas sem lançar exceções.
+     *
+     * <p>Os números decimais simples são convertidos sem criar strings. Um texto sem dígitos (e que não seja
+     * {@code NaN} ou {@code Infinity}) é rejeitado sem recorrer a {@link Double#parseDouble(String)}; só os
+     * formatos menos comuns (ex.: hexadecimal, mais de 18 dígitos) são delegados.</p>
+     *
+     * @param text    A sequência de caracteres.
+     * @param start   Posição inicial (inclusiva).
+     * @param end     Posição final (exclusiva).
+     * @param invalid O valor devolvido se o texto não for um número válido.
+     * @return O valor numérico, ou {@code invalid}.
+     */
+    public static double parseDouble(CharSequence text, int start, int end, double invalid) {
+        start = skipLeadingSpaces(text, start, end);
+        end = skipTrailingSpaces(text, start, end);
+
+        double value = parseSimpleDecimal(text, start, end);
+        if (!Double.isNaN(value)) {
+            return value;
+        }
+        if (!mayBeNumber(text, start, end)) {
+            return invalid;
+        }
+
+        try {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        } catch (NumberFormatException e) {
+            return invalid;
+        }
+    }
+
+    // Ignorar espaços, tal como Double.parseDouble
+    private static int skipLeadingSpaces(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int skipTrailingSpaces(CharSequence text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Verifica se o texto pode ser um número aceite por {@link Double#parseDouble(String)}: tem de ter
+     * pelo menos um dígito ou ser {@code NaN}/{@code Infinity}.
+     */
+    private static boolean mayBeNumber(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if ((c >= '0' && c <= '9') || c == 'N' || c == 'I') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converte números no formato {@code [+-]digitos[.digitos][(e|E)[+-]digitos]} quando o resultado
+     * pode ser calculado exatamente com uma única operação de vírgula flutuante.
+     *
+     * @return O valor convertido, ou {@code NaN} se o formato não for suportado.
+     */
+    private static double parseSimpleDecimal(CharSequence source, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+
+        for (; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    // Zeros à esquerda não contam como dígitos significativos
+                    if (seenPoint) {
+                        exponent--;
+                    }
+                    continue;
+                }
+                if (++digits > 18) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    exponent--;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        if (!seenDigit) {
+            return Double.NaN;
+        }
+
+        if (i < end && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+                negativeExponent = source.charAt(i) == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            int exponentStart = i;
+            for (; i < end && source.charAt(i) >= '0' && source.charAt(i) <= '9'; i++) {
+                if (explicitExponent > 1000) {
+                    return Double.NaN;
+                }
+                explicitExponent = explicitExponent * 10 + (source.charAt(i) - '0');
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end || mantissa > MAX_EXACT_MANTISSA) {
+            return Double.NaN;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = (double) mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = (double) mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return Double.NaN;
+        }
+
+        return negative ? -value : value;
+    }
+}
@@ -2,11 +2,20 @@ package org.estg.ipp.pt.Import;
 
 import org.estg.ipp.pt.Interfaces.Import.ImportInterface;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A classe {@code Import} implementa a interface {@link ImportInterface} para realizar
@@ -19,17 +28,24 @@ import java.util.List;
  * <p><b>Funcionalidades:</b></p>
  * <ul>
  *   <li>Leitura de linhas de arquivos CSV</li>
+ *   <li>Leitura em streaming, linha a linha, sem guardar o ficheiro em memória</li>
+ *   <li>Leitura em paralelo de um conjunto de dados dividido em vários ficheiros (shards)</li>
  * </ul>
  *
+ * <p>Os ficheiros são lidos através de um {@link MappedCsvReader} e cada linha é validada com um
+ * {@link CsvTokenizer}, sem criar strings intermédias para os campos.</p>
+ *
  * <p><b>Estrutura Interna:</b></p>
  * <ul>
  *   <li>{@code csvLines}: Lista de strings que representa as linhas do arquivo CSV.</li>
+ *   <li>{@code shardErrors}: Erros de cada ficheiro na última importação de shards.</li>
  * </ul>
  *
  * @see ImportInterface
  */
 public class Import implements ImportInterface {
     private final List<String> csvLines = new ArrayList<>();
+    private final Map<String, String> shardErrors = new LinkedHashMap<>();
 
     /**
      * Devolve uma cópia da lista de linhas do ficheiro CSV importado.
@@ -56,60 +72,266 @@ public class Import implements ImportInterface {
      */
     @Override
     public boolean ImportCSV(String path) {
-        // Validação: Caminho não pode ser nulo ou vazio
-        if (path == null || path.isEmpty()) {
-            System.err.println("Path cannot be null or empty.");
+        if (!isValidPath(path)) {
             return false;
         }
 
-        // Validação: Caminho não pode exceder 255 caracteres
-        if (path.length() > 255) {
-            System.err.println("Path exceeds maximum length of 255 characters.");
+        try (Stream<String> rows = openRows(path)) {
+            // Adicionar linhas válidas à lista
+            rows.forEach(csvLines::add);
+
+            return true;
+
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println(describeError(e));
             return false;
         }
+    }
 
-        // Validação: Extensão do arquivo deve ser .csv
-        if (!path.endsWith(".csv")) {
-            System.err.println("Invalid file extension. Only .csv files are allowed.");
+    /**
+     * Importa um conjunto de ficheiros CSV (shards) de um mesmo conjunto de dados, lidos em paralelo
+     * com uma thread por processador disponível.
+     *
+     * @param location Uma pasta ou um padrão glob no nome do ficheiro (ex.: {@code data/primaryData-*.csv}).
+     * @return {@code true} se todos os ficheiros forem importados; {@code false} caso contrário.
+     * @see #ImportShards(String, int)
+     */
+    public boolean ImportShards(String location) {
+        return ImportShards(location, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Importa um conjunto de ficheiros CSV (shards) de um mesmo conjunto de dados, lidos em paralelo.
+     *
+     * <p>O processo inclui as seguintes etapas:</p>
+     * <ul>
+     *   <li>Encontrar os ficheiros {@code .csv} da pasta, ou os que correspondem ao padrão glob.</li>
+     *   <li>Verificar que todos os ficheiros têm dados primários ou todos têm dados secundários.</li>
+     *   <li>Validar cada ficheiro, com as regras de {@link #ImportCSV(String)}, num conjunto limitado
+     *   de threads.</li>
+     *   <li>Adicionar as linhas de cada ficheiro, lidas em streaming, pela ordem dos nomes dos ficheiros.</li>
+     * </ul>
+     *
+     * <p>As linhas só são adicionadas se todos os ficheiros forem importados. Os erros de cada ficheiro ficam
+     * disponíveis em {@link #getShardErrors()}.</p>
+     *
+     * @param location    Uma pasta ou um padrão glob no nome do ficheiro (ex.: {@code data/primaryData-*.csv}).
+     * @param parallelism O número máximo de ficheiros lidos ao mesmo tempo.
+     * @return {@code true} se todos os ficheiros forem importados; {@code false} caso contrário.
+     */
+    public boolean ImportShards(String location, int parallelism) {
+        shardErrors.clear();
+        if (parallelism < 1) {
+            System.err.println("Parallelism must be positive.");
             return false;
         }
 
-        // Validação: Verificar se o nome do ficheiro é primário ou secundário
-        boolean isPrimary = path.toLowerCase().contains("primary");
-        boolean isSecondary = path.toLowerCase().contains("secondary");
-
-        if (!isPrimary && !isSecondary) {
-            System.err.println("File name must indicate primary or secondary data.");
+        int previousSize = csvLines.size();
+        new ShardImporter(parallelism).importShards(location, shardErrors, rows -> rows.forEach(csvLines::add));
+        if (!shardErrors.isEmpty()) {
+            // Descartar as linhas de uma leitura que falhou a meio
+            csvLines.subList(previousSize, csvLines.size()).clear();
+            shardErrors.forEach((shard, error) -> System.err.println(shard + ": " + error));
             return false;
         }
+        return true;
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
+    /**
+     * Devolve os erros da última importação com {@link #ImportShards(String, int)}.
+     *
+     * @return Um mapa imutável do caminho de cada ficheiro (ou da localização) para a mensagem de erro,
+     * pela ordem dos ficheiros; vazio se a importação for bem-sucedida.
+     */
+    public Map<String, String> getShardErrors() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(shardErrors));
+    }
 
-            // Ignorar a primeira linha se for cabeçalho
-            br.readLine();
-
-            while ((line = br.readLine()) != null) {
-                // Remover aspas e dividir por vírgulas
-                String[] fields = line.replace("\"", "").split(",");
-                // Validação: Cada linha deve ter exatamente 6 campos
-                if (fields.length != 6) {
-                    throw new IllegalArgumentException("Invalid CSV format: Each line must have exactly 6 fields.");
+    /**
+     * Abre um ficheiro CSV em modo streaming, sem guardar as linhas em {@code csvLines}.
+     *
+     * <p>As validações do caminho são as mesmas de {@link #ImportCSV(String)}. Se o caminho for inválido
+     * ou o ficheiro não puder ser aberto, é devolvido um {@link Stream} vazio. As linhas são lidas e
+     * validadas à medida que o {@link Stream} é consumido; uma linha com formato inválido lança
+     * {@link IllegalArgumentException} e um erro de leitura lança {@link UncheckedIOException}.</p>
+     *
+     * <p>O {@link Stream} devolvido mantém o ficheiro aberto e deve ser fechado pelo chamador,
+     * por exemplo com {@code try-with-resources}.</p>
+     *
+     * @param path O caminho do ficheiro CSV a ser lido.
+     * @return Um {@link Stream} com as linhas de dados do ficheiro, sem o cabeçalho.
+     */
+    @Override
+    public Stream<String> streamCSV(String path) {
+        if (!isValidPath(path)) {
+            return Stream.empty();
+        }
+
+        try {
+            return openRows(path);
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("Error reading the CSV file: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Abre o ficheiro e devolve as linhas de dados, já sem o cabeçalho, validando cada linha
+     * quando esta é consumida.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @return Um {@link Stream} que fecha o ficheiro quando é fechado.
+     * @throws IOException Se o ficheiro não puder ser aberto.
+     */
+    static Stream<String> openRows(String path) throws IOException {
+        MappedCsvReader reader = new MappedCsvReader(Path.of(path));
+        CsvTokenizer tokenizer = new CsvTokenizer(',');
+
+        // Ignorar a primeira linha se for cabeçalho
+        reader.nextLine();
+
+        Spliterator<String> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                try {
+                    if (!reader.nextLine()) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
 
-                // Adicionar linha válida à lista
-                csvLines.add(line);
+                validateLine(tokenizer.tokenize(reader.getLine()));
+                action.accept(reader.getLine().toString());
+                return true;
             }
+        };
 
-            return true;
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error reading the CSV file: " + e.getMessage());
-            return false;
+    /**
+     * Valida todas as linhas de dados de um ficheiro com as regras de {@link #openRows(String)}, sem criar
+     * uma string por linha.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @throws IOException              Se o ficheiro não puder ser lido.
+     * @throws IllegalArgumentException Se uma linha tiver formato inválido.
+     */
+    static void validateRows(String path) throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(Path.of(path))) {
+            CsvTokenizer tokenizer = new CsvTokenizer(',');
+
+            // Ignorar a primeira linha se for cabeçalho
+            reader.nextLine();
+            while (reader.nextLine()) {
+                validateLine(tokenizer.tokenize(reader.getLine()));
+            }
+        }
+    }
+
+    /**
+     * Valida o formato de uma linha do CSV.
+     *
+     * <p>Os campos são contados como {@code line.replace("\"", "").split(",")}: as aspas são ignoradas, pelo
+     * que uma vírgula entre aspas também separa campos, e os campos finais vazios ou só com aspas não contam.</p>
+     *
+     * @param fields A linha já dividida em campos.
+     * @throws IllegalArgumentException Se a linha não tiver exatamente 6 campos.
+     */
+    private static void validateLine(CsvTokenizer fields) {
+        int count = fields.getFieldCount();
+        while (count > 0 && isQuotesOnly(fields, count - 1)) {
+            count--;
+        }
+
+        // Validação: Cada linha deve ter exatamente 6 campos
+        if (count != 6) {
+            throw new IllegalArgumentException("Invalid CSV format: Each line must have exactly 6 fields.");
+        }
+    }
+
+    /**
+     * Verifica se um campo fica vazio depois de retiradas as aspas.
+     */
+    private static boolean isQuotesOnly(CsvTokenizer fields, int index) {
+        CharSequence source = fields.getSource();
+        for (int i = fields.getStart(index); i < fields.getEnd(index); i++) {
+            if (source.charAt(i) != '"') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        } catch (IllegalArgumentException e) {
-            System.err.println("CSV validation error: " + e.getMessage());
+    /**
+     * Valida o caminho do ficheiro a importar.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @return {@code true} se o caminho for válido; {@code false} caso contrário.
+     */
+    private boolean isValidPath(String path) {
+        String error = validatePath(path);
+        if (error != null) {
+            System.err.println(error);
             return false;
         }
+        return true;
+    }
+
+    /**
+     * Verifica as regras do caminho do ficheiro a importar.
+     *
+     * @param path O caminho do ficheiro CSV.
+     * @return A mensagem de erro, ou {@code null} se o caminho for válido.
+     */
+    static String validatePath(String path) {
+        // Validação: Caminho não pode ser nulo ou vazio
+        if (path == null || path.isEmpty()) {
+            return "Path cannot be null or empty.";
+        }
+
+        // Validação: Caminho não pode exceder 255 caracteres
+        if (path.length() > 255) {
+            return "Path exceeds maximum length of 255 characters.";
+        }
+
+        // Validação: Extensão do arquivo deve ser .csv
+        if (!path.endsWith(".csv")) {
+            return "Invalid file extension. Only .csv files are allowed.";
+        }
+
+        // Validação: Verificar se o nome do ficheiro é primário ou secundário
+        boolean isPrimary = path.toLowerCase().contains("primary");
+        boolean isSecondary = path.toLowerCase().contains("secondary");
+
+        if (!isPrimary && !isSecondary) {
+            return "File name must indicate primary or secondary data.";
+        }
+
+        return null;
+    }
+
+    /**
+     * Devolve a mensagem de erro de uma falha na leitura ou na validação de um ficheiro.
+     *
+     * @param e O erro.
+     * @return A mensagem a apresentar.
+     */
+    static String describeError(Exception e) {
+        if (e instanceof UncheckedIOException) {
+            return "Error reading the CSV file: " + e.getCause().getMessage();
+        }
+        if (e instanceof IOException || e instanceof InvalidPathException) {
+            return "Error reading the CSV file: " + e.getMessage();
+        }
+        return "CSV validation error: " + e.getMessage();
     }
 }
@@ -0,0 +1,172 @@
+package org.estg.ipp.pt.Import;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A classe {@code MappedCsvReader} lê um ficheiro CSV linha a linha através de um {@link MappedByteBuffer},
+ * sem copiar os bytes do ficheiro para a memória da JVM.
+ *
+ * <p>O ficheiro é mapeado em janelas de tamanho fixo, para suportar ficheiros maiores do que 2 GB.
+ * Cada linha é exposta como uma {@link CharSequence} sobre os bytes mapeados, que pode ser dividida
+ * diretamente por um {@link CsvTokenizer}; a linha só é descodificada (UTF-8) quando é convertida
+ * para {@link String}.</p>
+ *
+ * <p>Os delimitadores ({@code ,}, {@code ;}) e as mudanças de linha são caracteres ASCII e nunca aparecem
+ * dentro de uma sequência multibyte UTF-8, pelo que a divisão sobre os bytes é segura.</p>
+ *
+ * @see CsvTokenizer
+ */
+final class MappedCsvReader implements Closeable {
+    /**
+     * Tamanho inicial de cada janela mapeada.
+     */
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final ByteSequence line = new ByteSequence();
+    private int windowSize = WINDOW_SIZE;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    /**
+     * Abre e mapeia o início do ficheiro indicado.
+     *
+     * @param path O caminho do ficheiro.
+     * @throws IOException Se o ficheiro não puder ser aberto ou mapeado.
+     */
+    MappedCsvReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Avança para a próxima linha do ficheiro.
+     *
+     * @return {@code true} se existir uma nova linha; {@code false} no fim do ficheiro.
+     * @throws IOException Se ocorrer um erro ao mapear o ficheiro.
+     */
+    boolean nextLine() throws IOException {
+        if (windowStart + position >= size) {
+            return false;
+        }
+
+        int end = indexOfNewline(position);
+        while (end < 0) {
+            if (windowStart + window.limit() >= size) {
+                // Última linha sem mudança de linha
+                end = window.limit();
+                break;
+            }
+
+            if (position == 0) {
+                // A linha não cabe numa janela completa
+                windowSize = windowSize > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : windowSize * 2;
+            }
+            map(windowStart + position);
+            end = indexOfNewline(0);
+        }
+
+        int lineEnd = end;
+        if (lineEnd > position && window.get(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+
+        line.set(window, position, lineEnd - position);
+        position = Math.min(end + 1, window.limit());
+        return true;
+    }
+
+    /**
+     * Devolve a linha atual como uma vista sobre os bytes mapeados.
+     *
+     * <p>A vista é reutilizada e só é válida até à próxima chamada de {@link #nextLine()}.</p>
+     *
+     * @return A linha atual.
+     */
+    CharSequence getLine() {
+        return line;
+    }
+
+    private int indexOfNewline(int from) {
+        for (int i = from; i < window.limit(); i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Vista {@link CharSequence} sobre um intervalo de bytes de um {@link ByteBuffer}.
+     *
+     * <p>{@link #charAt(int)} devolve o byte como carácter (suficiente para procurar delimitadores
+     * e dígitos); {@link #toString()} descodifica o intervalo em UTF-8.</p>
+     */
+    private static final class ByteSequence implements CharSequence {
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        private ByteSequence() {
+        }
+
+        private ByteSequence(ByteBuffer buffer, int offset, int length) {
+            set(buffer, offset, length);
+        }
+
+        private void set(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
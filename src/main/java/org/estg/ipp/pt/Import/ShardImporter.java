@@ -0,0 +1,191 @@
+package org.estg.ipp.pt.Import;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A classe {@code ShardImporter} valida em paralelo e lê, pela ordem, os ficheiros (shards) de um conjunto
+ * de dados dividido em vários ficheiros CSV, para {@link Import#ImportShards(String, int)}.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code parallelism}: Número máximo de threads, e de ficheiros lidos ao mesmo tempo.</li>
+ * </ul>
+ *
+ * <p>A importação é feita em duas passagens: primeiro, todos os ficheiros são validados em paralelo, sem
+ * guardar as linhas; depois, se não existirem erros, cada ficheiro é lido em streaming e entregue ao
+ * consumidor pela ordem dos caminhos. Nenhuma das passagens guarda um ficheiro inteiro em memória.</p>
+ */
+final class ShardImporter {
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final int parallelism;
+
+    ShardImporter(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Encontra, valida e lê os ficheiros de uma localização.
+     *
+     * <p>O consumidor recebe as linhas de cada ficheiro num {@link Stream}, pela ordem dos caminhos, e só
+     * depois de todos os ficheiros terem sido validados; o {@link Stream} é fechado quando o consumidor
+     * termina. Se um ficheiro falhar durante a leitura (por exemplo, por ter sido alterado depois da
+     * validação), o erro é registado e os ficheiros seguintes não são entregues.</p>
+     *
+     * @param location Uma pasta ou um padrão glob no nome do ficheiro.
+     * @param errors   Mapa onde são registados os erros, pelo caminho do ficheiro (ou pela localização).
+     * @param consumer O consumidor das linhas de cada ficheiro.
+     */
+    void importShards(String location, Map<String, String> errors, Consumer<Stream<String>> consumer) {
+        List<Path> shards;
+        try {
+            shards = findShards(location);
+        } catch (IOException | IllegalArgumentException | UncheckedIOException e) {
+            errors.put(String.valueOf(location), Import.describeError(e));
+            return;
+        }
+
+        if (shards.isEmpty()) {
+            errors.put(String.valueOf(location), "No CSV files found.");
+            return;
+        }
+
+        validateShards(shards, errors);
+        if (errors.isEmpty()) {
+            validateContents(shards, errors);
+        }
+        if (errors.isEmpty()) {
+            streamShards(shards, errors, consumer);
+        }
+    }
+
+    /**
+     * Devolve os ficheiros {@code .csv} de uma pasta, ou os que correspondem a um padrão glob no nome
+     * do ficheiro, ordenados pelo caminho.
+     */
+    private static List<Path> findShards(String location) throws IOException {
+        if (location == null || location.isEmpty()) {
+            throw new IOException("Path cannot be null or empty.");
+        }
+
+        Path path = Path.of(location);
+        Path directory = path;
+        String glob = "*.csv";
+        if (isGlob(path.getFileName() == null ? "" : path.getFileName().toString())) {
+            directory = path.getParent() == null ? Path.of(".") : path.getParent();
+            glob = path.getFileName().toString();
+        } else if (!Files.isDirectory(path)) {
+            throw new IOException("Not a directory or glob pattern: " + location);
+        }
+
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, glob)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    shards.add(entry);
+                }
+            }
+        }
+        shards.sort(Comparator.comparing(Path::toString));
+        return shards;
+    }
+
+    private static boolean isGlob(String fileName) {
+        for (int i = 0; i < fileName.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(fileName.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aplica as regras de caminho de {@link Import#ImportCSV(String)} a cada ficheiro e verifica que
+     * não se misturam dados primários e secundários.
+     */
+    private static void validateShards(List<Path> shards, Map<String, String> errors) {
+        boolean secondary = isSecondary(shards.get(0));
+        for (Path shard : shards) {
+            String error = Import.validatePath(shard.toString());
+            if (error == null && isSecondary(shard) != secondary) {
+                error = "Shards must all contain primary or all contain secondary data.";
+            }
+            if (error != null) {
+                errors.put(shard.toString(), error);
+            }
+        }
+    }
+
+    /**
+     * Apenas o nome do ficheiro indica se os dados são secundários, para que o nome das pastas não conte.
+     */
+    private static boolean isSecondary(Path shard) {
+        Path fileName = shard.getFileName();
+        return fileName != null && fileName.toString().toLowerCase().contains("secondary");
+    }
+
+    /**
+     * Valida o conteúdo dos ficheiros num conjunto de threads limitado a {@code parallelism}, sem guardar
+     * as linhas.
+     */
+    private void validateContents(List<Path> shards, Map<String, String> errors) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, shards.size()));
+        try {
+            List<Future<?>> results = new ArrayList<>(shards.size());
+            for (Path shard : shards) {
+                results.add(executor.submit(() -> {
+                    Import.validateRows(shard.toString());
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < shards.size() && !Thread.currentThread().isInterrupted(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    errors.put(shards.get(i).toString(), describeFailure(e.getCause()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors.put(shards.get(i).toString(), "Import interrupted.");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Entrega as linhas de cada ficheiro ao consumidor, pela ordem dos caminhos, até ao primeiro erro.
+     */
+    private static void streamShards(List<Path> shards, Map<String, String> errors, Consumer<Stream<String>> consumer) {
+        for (Path shard : shards) {
+            try (Stream<String> rows = Import.openRows(shard.toString())) {
+                consumer.accept(rows);
+            } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+                errors.put(shard.toString(), Import.describeError(e));
+                return;
+            }
+        }
+    }
+
+    private static String describeFailure(Throwable cause) {
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return Import.describeError((Exception) cause);
+    }
+}
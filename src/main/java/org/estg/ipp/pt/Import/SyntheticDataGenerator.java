@@ -0,0 +1,354 @@
+package org.estg.ipp.pt.Import;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Models.Flow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A classe {@code SyntheticDataGenerator} gera ficheiros CSV de dados primários e secundários, no formato
+ * de 6 campos lido por {@link Import}, com qualquer número de processos e de fluxos.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Gerar os dados primários e secundários de forma reprodutível: a mesma semente e a mesma
+ *   configuração produzem sempre as mesmas linhas.</li>
+ *   <li>Configurar o número de processos, o número de fluxos por processo, o peso de cada
+ *   {@link FlowCategory} e de cada {@link UnitType} e a proporção de valores em falta.</li>
+ *   <li>Devolver as linhas como {@link Stream}, sem cabeçalho, ou escrevê-las num ficheiro CSV com cabeçalho.</li>
+ * </ul>
+ *
+ * <p><b>Dados gerados:</b></p>
+ * <ul>
+ *   <li>Os processos obrigatórios para o cálculo (Cutting, Stitching, Assembling e Package) são sempre
+ *   os primeiros; os restantes chamam-se {@code Process<i>}.</li>
+ *   <li>Cada fluxo tem uma categoria escolhida pelos pesos configurados; os fluxos de material, energia e
+ *   transporte são entradas e os de resíduos e emissões são saídas. A unidade é escolhida, pelos pesos
+ *   configurados, entre as unidades aceites para a categoria ({@link Flow#isUnitAllowed(FlowCategory, UnitType)}),
+ *   ou {@link UnitType#NONE} se nenhuma tiver peso.</li>
+ *   <li>Os dados secundários têm todos os fluxos dos dados primários, a emissão associada a cada entrada e
+ *   o processo Energy, com a entrada e a emissão da eletricidade.</li>
+ *   <li>Nos dados primários, cada fluxo tem o valor em falta (campo vazio) com a proporção configurada,
+ *   para ser preenchido a partir dos dados secundários durante a modelagem.</li>
+ * </ul>
+ *
+ * <p>Os ficheiros escritos só podem ser importados se o nome indicar o tipo de dados
+ * ({@code primary} ou {@code secondary}).</p>
+ */
+public final class SyntheticDataGenerator {
+    /**
+     * Cabeçalho dos ficheiros CSV escritos.
+     */
+    public static final String HEADER = "processName,Type,FlowType,value,unit,percentage";
+
+    private static final List<String> REQUIRED_PROCESSES = List.of("Cutting", "Stitching", "Assembling", "Package");
+    private static final long PROCESS_SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private int processCount = REQUIRED_PROCESSES.size();
+    private int flowsPerProcess = 4;
+    private double missingRatio = 0.1;
+    private final Map<FlowCategory, Double> categoryWeights = new EnumMap<>(FlowCategory.class);
+    private final Map<UnitType, Double> unitWeights = new EnumMap<>(UnitType.class);
+
+    /**
+     * Cria um gerador com a configuração por omissão: os processos obrigatórios, 4 fluxos por processo,
+     * 10% de valores em falta, maioritariamente materiais e todas as unidades com o mesmo peso
+     * (exceto {@link UnitType#NONE}).
+     *
+     * @param seed A semente dos valores aleatórios.
+     */
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+        categoryWeights.put(FlowCategory.MATERIAL, 6.0);
+        categoryWeights.put(FlowCategory.ENERGY, 1.0);
+        categoryWeights.put(FlowCategory.TRANSPORT, 1.0);
+        categoryWeights.put(FlowCategory.WASTE, 1.0);
+        categoryWeights.put(FlowCategory.EMISSION, 1.0);
+        for (UnitType unit : UnitType.values()) {
+            unitWeights.put(unit, unit == UnitType.NONE ? 0.0 : 1.0);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getProcessCount() {
+        return processCount;
+    }
+
+    /**
+     * Define o número de processos dos dados primários, sem contar com o processo Energy.
+     *
+     * @param processCount O número de processos.
+     * @throws IllegalArgumentException Se for menor do que o número de processos obrigatórios.
+     */
+    public void setProcessCount(int processCount) {
+        if (processCount < REQUIRED_PROCESSES.size()) {
+            throw new IllegalArgumentException("Process count must be at least " + REQUIRED_PROCESSES.size());
+        }
+        this.processCount = processCount;
+    }
+
+    public int getFlowsPerProcess() {
+        return flowsPerProcess;
+    }
+
+    /**
+     * Define o número de fluxos de cada processo nos dados primários.
+     *
+     * @param flowsPerProcess O número de fluxos.
+     * @throws IllegalArgumentException Se não for positivo.
+     */
+    public void setFlowsPerProcess(int flowsPerProcess) {
+        if (flowsPerProcess < 1) {
+            throw new IllegalArgumentException("Flows per process must be positive");
+        }
+        this.flowsPerProcess = flowsPerProcess;
+    }
+
+    public double getMissingRatio() {
+        return missingRatio;
+    }
+
+    /**
+     * Define a proporção de fluxos dos dados primários com valores em falta.
+     *
+     * @param missingRatio A proporção, entre 0 e 1.
+     * @throws IllegalArgumentException Se a proporção estiver fora do intervalo.
+     */
+    public void setMissingRatio(double missingRatio) {
+        if (!(missingRatio >= 0 && missingRatio <= 1)) {
+            throw new IllegalArgumentException("Missing ratio must be between 0 and 1");
+        }
+        this.missingRatio = missingRatio;
+    }
+
+    /**
+     * Define o peso relativo de uma categoria na escolha da categoria de cada fluxo.
+     *
+     * @param category A categoria.
+     * @param weight   O peso; {@code 0} exclui a categoria.
+     * @throws IllegalArgumentException Se o peso for negativo ou se nenhuma categoria ficar com peso.
+     */
+    public void setCategoryWeight(FlowCategory category, double weight) {
+        validateWeight(weight);
+        double others = totalWeight(categoryWeights) - categoryWeights.get(category);
+        if (others + weight <= 0) {
+            throw new IllegalArgumentException("At least one category must have a positive weight");
+        }
+        categoryWeights.put(category, weight);
+    }
+
+    /**
+     * Define o peso relativo de uma unidade na escolha da unidade de cada fluxo.
+     *
+     * @param unit   A unidade.
+     * @param weight O peso; {@code 0} exclui a unidade.
+     * @throws IllegalArgumentException Se o peso for negativo.
+     */
+    public void setUnitWeight(UnitType unit, double weight) {
+        validateWeight(weight);
+        unitWeights.put(unit, weight);
+    }
+
+    private static void validateWeight(double weight) {
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be a non-negative number");
+        }
+    }
+
+    /**
+     * Devolve o nome de um processo gerado.
+     *
+     * @param process O índice do processo, a partir de 0.
+     * @return O nome do processo.
+     */
+    public static String processName(int process) {
+        return process < REQUIRED_PROCESSES.size() ? REQUIRED_PROCESSES.get(process) : "Process" + process;
+    }
+
+    /**
+     * Gera as linhas dos dados primários, sem cabeçalho.
+     *
+     * @return As linhas, geradas à medida que são consumidas.
+     */
+    public Stream<String> primaryRows() {
+        return IntStream.range(0, processCount).boxed().flatMap(process -> processRows(process, false).stream());
+    }
+
+    /**
+     * Gera as linhas dos dados secundários, sem cabeçalho, começando pelo processo Energy.
+     *
+     * @return As linhas, geradas à medida que são consumidas.
+     */
+    public Stream<String> secondaryRows() {
+        return Stream.concat(energyRows().stream(),
+                IntStream.range(0, processCount).boxed().flatMap(process -> processRows(process, true).stream()));
+    }
+
+    /**
+     * Escreve os dados primários num ficheiro CSV com cabeçalho.
+     *
+     * @param path O caminho do ficheiro.
+     * @return {@code true} se o ficheiro for escrito; {@code false} caso contrário.
+     */
+    public boolean writePrimary(String path) {
+        return write(path, primaryRows());
+    }
+
+    /**
+     * Escreve os dados secundários num ficheiro CSV com cabeçalho.
+     *
+     * @param path O caminho do ficheiro.
+     * @return {@code true} se o ficheiro for escrito; {@code false} caso contrário.
+     */
+    public boolean writeSecondary(String path) {
+        return write(path, secondaryRows());
+    }
+
+    private static boolean write(String path, Stream<String> rows) {
+        try (rows; BufferedWriter writer = Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            Iterator<String> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                writer.newLine();
+            }
+            return true;
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("Error writing the CSV file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gera as linhas de um processo. Os valores dependem apenas da semente e do índice do processo,
+     * para que os dados primários e secundários de cada fluxo sejam iguais.
+     */
+    private List<String> processRows(int process, boolean secondary) {
+        SplittableRandom random = new SplittableRandom(seed + (process + 1) * PROCESS_SEED_STEP);
+        String processName = processName(process);
+        List<String> rows = new ArrayList<>(secondary ? flowsPerProcess * 2 : flowsPerProcess);
+
+        for (int flow = 0; flow < flowsPerProcess; flow++) {
+            FlowCategory category = pickCategory(random);
+            Type type = category == FlowCategory.WASTE || category == FlowCategory.EMISSION ? Type.OUTPUT : Type.INPUT;
+            String name = "F" + flow;
+            String values = values(random, category);
+            String emissionValues = values(random, FlowCategory.EMISSION);
+            boolean missing = random.nextDouble() < missingRatio;
+
+            if (secondary) {
+                rows.add(row(processName, type, category, name, values));
+                if (type == Type.INPUT) {
+                    rows.add(row(processName, Type.OUTPUT, FlowCategory.EMISSION, name, emissionValues));
+                }
+            } else {
+                // Sem valor, a modelagem copia o valor, a unidade e a taxa de perda dos dados secundários
+                rows.add(row(processName, type, category, name, missing ? values.substring(values.indexOf(',')) : values));
+            }
+        }
+        return rows;
+    }
+
+    private List<String> energyRows() {
+        SplittableRandom random = new SplittableRandom(seed);
+        return List.of(
+                row("Energy", Type.INPUT, FlowCategory.ENERGY, "Electricity",
+                        decimal(1 + random.nextInt(100_000)) + ",kWh," + rate(random)),
+                row("Energy", Type.OUTPUT, FlowCategory.EMISSION, "Electricity",
+                        decimal(1 + random.nextInt(1_000)) + ",GCO2EQKWH," + rate(random)));
+    }
+
+    private static String row(String processName, Type type, FlowCategory category, String name, String values) {
+        return processName + "," + (type == Type.INPUT ? "Input" : "Output") + "," + label(category) + ";" + name + "," + values;
+    }
+
+    private static String label(FlowCategory category) {
+        String name = category.name();
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+
+    /**
+     * Gera os três últimos campos de uma linha: valor, unidade e taxa de perda.
+     */
+    private String values(SplittableRandom random, FlowCategory category) {
+        return decimal(1 + random.nextInt(100_000)) + "," + pickUnit(random, category).name() + "," + rate(random);
+    }
+
+    /**
+     * Taxa de perda entre 0 e 0,5, com três casas decimais.
+     */
+    private static String rate(SplittableRandom random) {
+        return decimal(random.nextInt(501));
+    }
+
+    /**
+     * Formata um valor em milésimas com três casas decimais, sem notação científica.
+     */
+    private static String decimal(int thousandths) {
+        int fraction = thousandths % 1000;
+        return thousandths / 1000 + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+
+    private FlowCategory pickCategory(SplittableRandom random) {
+        double target = random.nextDouble() * totalWeight(categoryWeights);
+        FlowCategory picked = null;
+        for (Map.Entry<FlowCategory, Double> entry : categoryWeights.entrySet()) {
+            if (entry.getValue() > 0) {
+                picked = entry.getKey();
+                target -= entry.getValue();
+                if (target < 0) {
+                    break;
+                }
+            }
+        }
+        return picked;
+    }
+
+    private UnitType pickUnit(SplittableRandom random, FlowCategory category) {
+        double total = 0;
+        for (Map.Entry<UnitType, Double> entry : unitWeights.entrySet()) {
+            if (Flow.isUnitAllowed(category, entry.getKey())) {
+                total += entry.getValue();
+            }
+        }
+
+        double target = random.nextDouble() * total;
+        for (Map.Entry<UnitType, Double> entry : unitWeights.entrySet()) {
+            if (entry.getValue() > 0 && Flow.isUnitAllowed(category, entry.getKey())) {
+                target -= entry.getValue();
+                if (target < 0) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return UnitType.NONE;
+    }
+
+    private static double totalWeight(Map<?, Double> weights) {
+        double total = 0;
+        for (double weight : weights.values()) {
+            total += weight;
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package org.estg.ipp.pt.Interfaces.Calculo;
 
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 import org.estg.ipp.pt.Models.*;
 
 import java.util.List;
@@ -26,5 +27,5 @@ public interface CalculateEnergy{
      * @return Um objeto {@link Flow} que representa o impacto energético calculado.
      * @throws IllegalArgumentException Se a lista de fluxos de energia for nula ou vazia.
      */
-    Flow calculateEnergyImpact(List<Flow> energyFlows);
+    Flow calculateEnergyImpact(List<? extends FlowInterface> energyFlows);
 }
@@ -1,7 +1,7 @@
 package org.estg.ipp.pt.Interfaces.Calculo;
 
 
-import org.estg.ipp.pt.Models.Flow;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 
 /**
  * A interface {@code CalculateFlowInefficiency} define o contrato para o cálculo
@@ -15,7 +15,7 @@ import org.estg.ipp.pt.Models.Flow;
  * <p>Esta interface pode ser implementada por classes responsáveis por calcular a ineficiência
  * de fluxos.</p>
  *
- * @see Flow
+ * @see FlowInterface
  */
 public interface CalculateFlowInefficiency {
     /**
@@ -25,5 +25,5 @@ public interface CalculateFlowInefficiency {
      * @return O valor da ineficiência do fluxo, representado por um valor numérico.
      * @throws IllegalArgumentException Se o fluxo fornecido for nulo.
      */
-    double calculateFlowInefficiency(Flow flow);
+    double calculateFlowInefficiency(FlowInterface flow);
 }
@@ -1,6 +1,6 @@
 package org.estg.ipp.pt.Interfaces.Calculo;
 
-import org.estg.ipp.pt.Models.Flow;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 
 /**
  * A interface {@code CalculateImpact} define o contrato para o cálculo do impacto ambiental
@@ -17,7 +17,7 @@ import org.estg.ipp.pt.Models.Flow;
  * em processos que envolvem fluxos e emissões associadas.</p>
  *
  * @see CalculateFlowInefficiency
- * @see Flow
+ * @see FlowInterface
  */
 public interface CalculateImpact  extends CalculateFlowInefficiency {
     /**
@@ -28,5 +28,5 @@ public interface CalculateImpact  extends CalculateFlowInefficiency {
      * @return O valor do impacto calculado.
      * @throws IllegalArgumentException Se algum dos fluxos fornecidos for nulo.
      */
-    double calculateImpact(Flow flow, Flow emissionFlow);
+    double calculateImpact(FlowInterface flow, FlowInterface emissionFlow);
 }
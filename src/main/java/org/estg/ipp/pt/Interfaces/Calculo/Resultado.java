@@ -1,5 +1,6 @@
 package org.estg.ipp.pt.Interfaces.Calculo;
 
+import org.estg.ipp.pt.Calculo.ResultadoPCF;
 import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
 import org.estg.ipp.pt.Models.*;
 
@@ -32,6 +33,24 @@ public interface Resultado extends CalculateImpact {
      */
     double calculatePCFvalue(List<ProcessInterface> processes);
 
+    /**
+     * Calcula o PCF (Product Carbon Footprint) com base nos processos fornecidos, sem guardar o resultado.
+     *
+     * @param processes Uma lista de objetos {@link ProcessInterface} que representam os processos a serem considerados no cálculo.
+     * @return O resultado imutável do cálculo, com o total e o impacto por processo.
+     * @throws IllegalArgumentException Se a lista de processos for vazia ou estiver incompleta.
+     */
+    ResultadoPCF calculate(List<ProcessInterface> processes);
+
+    /**
+     * Calcula o PCF de várias variantes de um produto numa única chamada.
+     *
+     * @param variants A lista de variantes, cada uma com a sua lista de processos.
+     * @return Um resultado por variante, pela ordem das variantes.
+     * @throws IllegalArgumentException Se alguma variante for vazia ou estiver incompleta.
+     */
+    List<ResultadoPCF> calculateBatch(List<List<ProcessInterface>> variants);
+
     /**
      * Devolve o valor total calculado do resultado do impacto ambiental.
      *
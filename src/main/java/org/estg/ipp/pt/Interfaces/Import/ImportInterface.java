@@ -1,6 +1,7 @@
 package org.estg.ipp.pt.Interfaces.Import;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * A interface {@code ImportInterface} define os métodos necessários para a importação de dados a partir
@@ -17,6 +18,7 @@ import java.util.List;
  * <ul>
  *   <li>{@code getCsvLines()}: Método responsável por devolver as linhas do CSV como uma lista de strings.</li>
  *   <li>{@code ImportCSV()}: Método que realiza a importação dos dados a partir de um arquivo CSV específico.</li>
+ *   <li>{@code streamCSV()}: Método que lê as linhas de um arquivo CSV em streaming, sem as guardar em memória.</li>
  * </ul>
  *
  * @see org.estg.ipp.pt.Models.ProcessManager
@@ -45,4 +47,16 @@ public interface ImportInterface {
      * @return {@code true} se a importação for bem-sucedida; {@code false} caso contrário.
      */
     boolean ImportCSV(String path);
+
+    /**
+     * Lê um ficheiro CSV em modo streaming a partir do caminho especificado.
+     *
+     * <p>Ao contrário de {@link #ImportCSV(String)}, as linhas não são guardadas em memória: cada linha é lida
+     * e validada apenas quando o {@link Stream} é consumido, o que permite passar ficheiros de grande dimensão
+     * diretamente para a modelagem com memória constante. O {@link Stream} devolvido deve ser fechado pelo chamador.</p>
+     *
+     * @param path O caminho do ficheiro CSV a ser lido.
+     * @return Um {@link Stream} com as linhas de dados do CSV, ou um {@link Stream} vazio se o caminho for inválido.
+     */
+    Stream<String> streamCSV(String path);
 }
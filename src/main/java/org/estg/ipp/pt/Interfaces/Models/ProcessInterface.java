@@ -1,7 +1,8 @@
 package org.estg.ipp.pt.Interfaces.Models;
 
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
-import org.estg.ipp.pt.Models.Flow;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ import java.util.List;
  *   <li>Obter o nome do processo.</li>
  *   <li>Obter os fluxos de entrada associados ao processo.</li>
  *   <li>Obter os fluxos de saída associados ao processo.</li>
+ *   <li>Procurar um fluxo de entrada ou saída pelo nome e categoria.</li>
  * </ul>
  *
  * <p><b>Objetivo:</b></p>
@@ -21,7 +23,7 @@ import java.util.List;
  *   <li>Fornecer uma estrutura consistente para representar e manipular processos.</li>
  * </ul>
  *
- * @see Flow
+ * @see FlowInterface
  */
 public interface ProcessInterface {
     /**
@@ -34,14 +36,33 @@ public interface ProcessInterface {
     /**
      * Obtém os fluxos de entrada associados ao processo.
      *
-     * @return Uma lista de objetos {@link Flow} que representa os fluxos de entrada.
+     * @return Uma lista de objetos {@link FlowInterface} que representa os fluxos de entrada.
      */
-    List<Flow> getInputs();
+    List<? extends FlowInterface> getInputs();
 
     /**
      * Obtém os fluxos de saída associados ao processo.
      *
-     * @return Uma lista de objetos {@link Flow} que representa os fluxos de saída.
+     * @return Uma lista de objetos {@link FlowInterface} que representa os fluxos de saída.
      */
-    List<Flow> getOutputs();
+    List<? extends FlowInterface> getOutputs();
+
+    /**
+     * Procura o primeiro fluxo de entrada ou saída com o nome indicado.
+     *
+     * @param type O lado do processo onde procurar ({@link Type#INPUT} ou {@link Type#OUTPUT}).
+     * @param name O nome do fluxo.
+     * @return O fluxo encontrado ou {@code null} se não existir.
+     */
+    FlowInterface getFlow(Type type, String name);
+
+    /**
+     * Procura o primeiro fluxo de entrada ou saída com o nome e a categoria indicados.
+     *
+     * @param type     O lado do processo onde procurar ({@link Type#INPUT} ou {@link Type#OUTPUT}).
+     * @param name     O nome do fluxo.
+     * @param category A categoria do fluxo.
+     * @return O fluxo encontrado ou {@code null} se não existir.
+     */
+    FlowInterface getFlow(Type type, String name, FlowCategory category);
 }
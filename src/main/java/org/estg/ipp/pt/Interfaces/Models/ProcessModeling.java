@@ -1,8 +1,11 @@
 package org.estg.ipp.pt.Interfaces.Models;
 
+import org.estg.ipp.pt.Models.FlowBatch;
+import org.estg.ipp.pt.Models.ImmutableProcess;
 import org.estg.ipp.pt.Models.Process;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * A interface {@code ProcessModeling} define os métodos essenciais para a modelagem e
@@ -19,6 +22,7 @@ import java.util.List;
  * relacionadas à manipulação de processos.</p>
  *
  * @see Process
+ * @see ImmutableProcess
  */
 public interface ProcessModeling {
     /**
@@ -29,6 +33,24 @@ public interface ProcessModeling {
      */
     boolean modeling(List<String> data);
 
+    /**
+     * Realiza a modelagem de processos a partir de um {@link Stream} de linhas, consumindo-as uma a uma
+     * sem as guardar em memória.
+     *
+     * @param data Stream de strings que contêm os dados necessários para a modelagem do processo.
+     * @return true se a modelagem foi bem-sucedida, caso contrário, false.
+     */
+    boolean modeling(Stream<String> data);
+
+    /**
+     * Realiza a modelagem de processos a partir de um {@link Stream} de lotes de linhas já classificadas,
+     * permitindo que a leitura e a classificação das linhas corram noutra thread.
+     *
+     * @param batches Stream de lotes classificados, pela ordem das linhas.
+     * @return true se a modelagem foi bem-sucedida, caso contrário, false.
+     */
+    boolean modelingBatches(Stream<FlowBatch> batches);
+
     /**
      * Recupera a lista de processos primários modelados.
      *
@@ -39,9 +61,9 @@ public interface ProcessModeling {
     /**
      * Recupera a lista de processos secundários modelados.
      *
-     * @return Uma lista de objetos {@link Process} que representa os processos secundários.
+     * @return Uma lista de objetos {@link ImmutableProcess} que representa os processos secundários.
      */
-    List<Process> getSecondaryProcesses();
+    List<ImmutableProcess> getSecondaryProcesses();
 
     /**
      * Limpa todos os processos modelados (primários e secundários).
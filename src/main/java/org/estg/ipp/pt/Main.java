@@ -2,19 +2,25 @@ package org.estg.ipp.pt;
 
 import org.estg.ipp.pt.Calculo.Calculo;
 import org.estg.ipp.pt.Export.FilterOptions;
+import org.estg.ipp.pt.Export.ProcessFilter;
 import org.estg.ipp.pt.Export.ResultExporter;
 import org.estg.ipp.pt.Import.Import;
 import org.estg.ipp.pt.Interfaces.Calculo.Resultado;
 import org.estg.ipp.pt.Interfaces.Export.Export;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
 import org.estg.ipp.pt.Interfaces.Import.ImportInterface;
 import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
 import org.estg.ipp.pt.Interfaces.Models.ProcessModeling;
 import org.estg.ipp.pt.Models.Process;
 import org.estg.ipp.pt.Models.ProcessManager;
+import org.estg.ipp.pt.Pipeline.PipelinePCF;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 public class Main {
     public static void main(String[] args) {
@@ -29,30 +35,26 @@ public class Main {
         System.out.print("Digite o caminho do arquivo primaryData.csv: ");
         String primaryDataPath = scanner.nextLine();
 
-        // Importação dos dados
-        ImportInterface importSecondary = new Import();
-        importSecondary.ImportCSV(secondaryDataPath);
-        List<String> secondaryData = importSecondary.getCsvLines();
-        ImportInterface importPrimary = new Import();
-        importPrimary.ImportCSV(primaryDataPath);
-        List<String> primaryData = importPrimary.getCsvLines();
+        Resultado calculo;
+        List<ProcessInterface> processes;
+        if (Arrays.asList(args).contains("--pipeline")) {
+            // Importação, modelagem e cálculo em etapas concorrentes
+            PipelinePCF pipeline = new PipelinePCF();
+            if (!pipeline.run(secondaryDataPath, primaryDataPath)) {
+                System.out.println("Erro ao importar os dados. O programa será encerrado.");
+                scanner.close();
+                return;
+            }
+            calculo = pipeline.getCalculo();
+            processes = new ArrayList<>(pipeline.getProcessModeling().getPrimaryProcesses());
+        } else {
+            processes = runSequential(secondaryDataPath, primaryDataPath);
 
-        // Processamento dos dados
-        ProcessModeling processModeling = new ProcessManager();
-        processModeling.modeling(secondaryData);
-        processModeling.modeling(primaryData);
-        List<ProcessInterface> processes = new ArrayList<>();
-        System.out.println(processModeling.getPrimaryProcesses().size());
-        System.out.println(processModeling.getSecondaryProcesses().size());
-        for(Process process : processModeling.getPrimaryProcesses()){
-            System.out.println("Processo: " + process.getProcessName());
-            processes.add(process);
+            // Cálculo do PCF
+            calculo = new Calculo();
+            calculo.calculatePCFvalue(processes);
         }
 
-        // Cálculo do PCF
-        Resultado calculo = new Calculo();
-        calculo.calculatePCFvalue(processes);
-
         System.out.println("Calculado com sucesso!");
         // Perguntar o tipo de exportação
         System.out.println("===============Escolha o tipo de exportação:=================");
@@ -79,14 +81,38 @@ public class Main {
             System.out.print("Digite o valor máximo para o filtro: ");
             double maxValue = scanner.nextDouble();
 
-            // Realizar a filtragem e exportar
+            // Filtrar os resultados já calculados e exportar com o PCF total do produto
+            FilterOpt filter = new FilterOptions(minValue, maxValue, processName);
+            HashMap<String, Double> filtered = ProcessFilter.compile(filter).apply(calculo.getResultadoPerProcess());
+            System.out.println("PCF dos processos filtrados: "
+                    + filtered.values().stream().mapToDouble(Double::doubleValue).sum());
+
             Export export = new ResultExporter();
-            // Supondo que o método de exportação aceite o filtro
-            export.exportData(calculo.getResultadoPerProcess(), calculo.getResultado(), new FilterOptions(minValue, maxValue, processName));
+            export.exportData(filtered, calculo.getResultado(), filter);
         } else {
             System.out.println("Escolha inválida. O programa será encerrado.");
         }
 
         scanner.close();
     }
+
+    private static List<ProcessInterface> runSequential(String secondaryDataPath, String primaryDataPath) {
+        // Importação e processamento dos dados em streaming
+        ImportInterface importData = new Import();
+        ProcessModeling processModeling = new ProcessManager();
+        try (Stream<String> secondaryData = importData.streamCSV(secondaryDataPath)) {
+            processModeling.modeling(secondaryData);
+        }
+        try (Stream<String> primaryData = importData.streamCSV(primaryDataPath)) {
+            processModeling.modeling(primaryData);
+        }
+        List<ProcessInterface> processes = new ArrayList<>();
+        System.out.println(processModeling.getPrimaryProcesses().size());
+        System.out.println(processModeling.getSecondaryProcesses().size());
+        for(Process process : processModeling.getPrimaryProcesses()){
+            System.out.println("Processo: " + process.getProcessName());
+            processes.add(process);
+        }
+        return processes;
+    }
 }
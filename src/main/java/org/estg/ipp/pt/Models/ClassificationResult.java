@@ -0,0 +1,97 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.ClassificationStatus;
+
+/**
+ * A classe {@code ClassificationResult} representa o resultado da classificação de uma linha de dados por
+ * {@link FlowClassifier}: o {@link ClassificationStatus} e, se a linha for válida, o {@link Flow} criado.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code status}: O estado da classificação, ou o primeiro campo inválido.</li>
+ *   <li>{@code flow}: O fluxo criado, ou {@code null} se a linha for inválida.</li>
+ *   <li>{@code INVALID}: Resultados partilhados para cada estado inválido, para que as linhas rejeitadas
+ *   não criem objetos.</li>
+ * </ul>
+ *
+ * <p>As instâncias não podem ser alteradas depois de criadas e podem ser partilhadas entre threads.</p>
+ *
+ * @see FlowClassifier#classify(String[])
+ */
+public final class ClassificationResult {
+    private static final ClassificationResult[] INVALID = new ClassificationResult[ClassificationStatus.values().length];
+
+    static {
+        for (ClassificationStatus status : ClassificationStatus.values()) {
+            if (status != ClassificationStatus.VALID) {
+                INVALID[status.ordinal()] = new ClassificationResult(status, null);
+            }
+        }
+    }
+
+    private final ClassificationStatus status;
+    private final Flow flow;
+
+    private ClassificationResult(ClassificationStatus status, Flow flow) {
+        this.status = status;
+        this.flow = flow;
+    }
+
+    /**
+     * Cria o resultado de uma linha válida.
+     *
+     * @param flow O fluxo criado.
+     * @return O resultado, com o estado {@link ClassificationStatus#VALID}.
+     * @throws IllegalArgumentException Se o fluxo for {@code null}.
+     */
+    static ClassificationResult valid(Flow flow) {
+        if (flow == null) {
+            throw new IllegalArgumentException("Flow can't be null");
+        }
+        return new ClassificationResult(ClassificationStatus.VALID, flow);
+    }
+
+    /**
+     * Devolve o resultado partilhado de uma linha rejeitada.
+     *
+     * @param status O primeiro campo inválido.
+     * @return O resultado, sem fluxo.
+     * @throws IllegalArgumentException Se o estado for {@code null} ou {@link ClassificationStatus#VALID}.
+     */
+    static ClassificationResult invalid(ClassificationStatus status) {
+        if (status == null || status == ClassificationStatus.VALID) {
+            throw new IllegalArgumentException("Status must be an invalid status");
+        }
+        return INVALID[status.ordinal()];
+    }
+
+    public ClassificationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Devolve o fluxo criado.
+     *
+     * @return O fluxo, ou {@code null} se a linha for inválida.
+     */
+    public Flow getFlow() {
+        return flow;
+    }
+
+    /**
+     * Indica se a linha foi classificada com sucesso.
+     *
+     * @return {@code true} se o estado for {@link ClassificationStatus#VALID}.
+     */
+    public boolean isValid() {
+        return status == ClassificationStatus.VALID;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassificationResult{" +
+                "status=" + status +
+                ", flow=" + flow +
+                '}';
+    }
+}
@@ -5,8 +5,8 @@ import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
 import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
+
 
 /**
  * A classe {@code Flow} representa um fluxo de dados dentro de um processo. Ela encapsula as informações
@@ -30,46 +30,53 @@ import java.util.Map;
  *
  * <p>Essa classe implementa a interface {@link FlowInterface}, que define os métodos para manipulação de fluxos.</p>
  *
+ * <p>As unidades aceites para cada categoria são definidas em {@link UnitCompatibility}.</p>
+ *
+ * <p>Cada fluxo conhece os {@link Process} que o contêm; alterar o nome ou a categoria invalida apenas os
+ * índices desses processos.</p>
+ *
  * @see FlowCategory
  * @see Type
  * @see UnitType
  */
 public class Flow implements FlowInterface {
 
+    private static final Process[] NO_OWNERS = new Process[0];
+
     /**
      * Categoria do fluxo, ou seja, o tipo de recurso ou atividade que ele representa.
      */
-    FlowCategory category;
+    private FlowCategory category;
 
     /**
      * Nome do fluxo, utilizado para identificação.
      */
-    String name;
+    private String name;
 
     /**
      * Tipo do fluxo, indica se é uma entrada ou saída.
      */
-    Type type;
+    private Type type;
 
     /**
      * Valor quantitativo associado ao fluxo.
      */
-    double value;
+    private double value;
 
     /**
      * Unidade do fluxo, representa a métrica utilizada (e.g., KG, KM, KWH).
      */
-    UnitType unit;
+    private UnitType unit;
 
     /**
-     * Nome da categoria, utilizado para identificação da categoria de fluxo.
+     * Taxa de perda associada ao fluxo, é expressa como uma percentagem.
      */
-    String categoryName;
+    private double lossRate;
 
     /**
-     * Taxa de perda associada ao fluxo, é expressa como uma percentagem.
+     * Processos que contêm o fluxo, uma vez por cada lista onde o fluxo foi adicionado.
      */
-    double lossRate;
+    private Process[] owners = NO_OWNERS;
 
     /**
      * Construtor da classe {@code Flow}.
@@ -107,7 +114,7 @@ public class Flow implements FlowInterface {
      * @param lossRate Taxa de perda do fluxo.
      * @throws IllegalArgumentException Se os dados forem inválidos.
      */
-    private static void validate(
+    static void validate(
             FlowCategory category, String name, Type type,
             double value, UnitType unit, double lossRate) throws IllegalArgumentException {
 
@@ -148,21 +155,23 @@ public class Flow implements FlowInterface {
         }
     }
 
+    /**
+     * Verifica se uma unidade é aceite para uma categoria de fluxo.
+     *
+     * @param category Categoria do fluxo.
+     * @param unit     Unidade do fluxo.
+     * @return {@code true} se um fluxo da categoria puder ter a unidade; {@code false} caso contrário.
+     */
+    public static boolean isUnitAllowed(FlowCategory category, UnitType unit) {
+        return UnitCompatibility.isAllowed(category, unit);
+    }
+
     /**
      * Valida se a unidade é compatível com a categoria.
      */
     private static void validateUnitForCategory(FlowCategory category, UnitType unit) {
-        Map<FlowCategory, List<UnitType>> expectedUnits = Map.of(
-                FlowCategory.TRANSPORT, List.of(UnitType.KM, UnitType.NONE),
-                FlowCategory.EMISSION, List.of(UnitType.KGCO2EQ, UnitType.KGCO2TONELADAKM, UnitType.GCO2EQKWH, UnitType.NONE),
-                FlowCategory.MATERIAL, List.of(UnitType.KG, UnitType.NONE),
-                FlowCategory.ENERGY, List.of(UnitType.KWH,UnitType.GCO2EQKWH, UnitType.NONE),
-                FlowCategory.WASTE, List.of(UnitType.KG, UnitType.NONE)
-        );
-
-        List<UnitType> expectedUnit = expectedUnits.get(category);
-        if (expectedUnit != null && !expectedUnit.contains(unit)) {
-            throw new IllegalArgumentException(category + " unit must be " + expectedUnit);
+        if (!UnitCompatibility.isAllowed(category, unit)) {
+            throw new IllegalArgumentException(category + " unit must be " + UnitCompatibility.getAllowedUnits(category));
         }
     }
 
@@ -175,6 +184,7 @@ public class Flow implements FlowInterface {
 
     public void setCategory(FlowCategory category) {
         this.category = category;
+        invalidateOwners();
     }
 
     public String getName() {
@@ -183,6 +193,7 @@ public class Flow implements FlowInterface {
 
     public void setName(String name) {
         this.name = name;
+        invalidateOwners();
     }
 
     public Type getType() {
@@ -217,15 +228,50 @@ public class Flow implements FlowInterface {
         this.lossRate = lossRate;
     }
 
+    /**
+     * Regista um processo que passou a conter o fluxo.
+     *
+     * @param process O processo.
+     */
+    void addOwner(Process process) {
+        owners = Arrays.copyOf(owners, owners.length + 1);
+        owners[owners.length - 1] = process;
+    }
+
+    /**
+     * Remove um registo de um processo que deixou de conter o fluxo.
+     *
+     * @param process O processo.
+     */
+    void removeOwner(Process process) {
+        for (int i = 0; i < owners.length; i++) {
+            if (owners[i] == process) {
+                Process[] remaining = Arrays.copyOf(owners, owners.length - 1);
+                System.arraycopy(owners, i + 1, remaining, i, owners.length - i - 1);
+                owners = remaining.length == 0 ? NO_OWNERS : remaining;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Invalida os índices dos processos que contêm o fluxo, depois de o nome ou a categoria mudarem.
+     */
+    private void invalidateOwners() {
+        for (Process owner : owners) {
+            owner.invalidateIndexes();
+        }
+    }
+
     @Override
     public String toString() {
         return "Flow{" +
-                "category=" + category +
-                ", name='" + name + '\'' +
-                ", type=" + type +
-                ", value=" + value +
-                ", unit=" + unit +
-                ", percentage=" + lossRate +
+                "category=" + getCategory() +
+                ", name='" + getName() + '\'' +
+                ", type=" + getType() +
+                ", value=" + getValue() +
+                ", unit=" + getUnit() +
+                ", percentage=" + getLossRate() +
                 '}';
     }
 }
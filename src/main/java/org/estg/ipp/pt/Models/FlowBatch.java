@@ -0,0 +1,111 @@
+package org.estg.ipp.pt.Models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A classe {@code FlowBatch} guarda um lote de linhas já classificadas: para cada linha, o nome do processo
+ * e o {@link Flow} criado por {@link FlowClassifier#classifyRow(String, FlowBatch)}.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code processNames} e {@code flows}: Nome do processo e fluxo de cada linha, pela ordem das linhas.</li>
+ *   <li>{@code valid}: {@code false} se alguma linha do lote for inválida; um lote inválido é descartado por
+ *   completo e termina a modelagem.</li>
+ * </ul>
+ *
+ * <p>Um lote é preenchido por uma thread e depois entregue a {@link ProcessManager#modelingBatches(java.util.stream.Stream)},
+ * que pode correr noutra thread; o lote não deve ser alterado depois de ser entregue.</p>
+ *
+ * @see FlowClassifier
+ * @see ProcessManager
+ */
+public final class FlowBatch {
+    private final List<String> processNames;
+    private final List<Flow> flows;
+    private boolean valid = true;
+
+    /**
+     * Construtor da classe {@code FlowBatch}.
+     *
+     * @param capacity Número de linhas esperado no lote.
+     */
+    public FlowBatch(int capacity) {
+        this.processNames = new ArrayList<>(capacity);
+        this.flows = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Acrescenta uma linha classificada ao lote.
+     *
+     * @param processName O nome do processo da linha.
+     * @param flow        O fluxo da linha.
+     */
+    void add(String processName, Flow flow) {
+        processNames.add(processName);
+        flows.add(flow);
+    }
+
+    /**
+     * Marca o lote como inválido, depois de uma linha ser rejeitada.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Esvazia o lote, para ser preenchido de novo.
+     */
+    void clear() {
+        processNames.clear();
+        flows.clear();
+        valid = true;
+    }
+
+    /**
+     * Indica se todas as linhas do lote foram classificadas com sucesso.
+     *
+     * @return {@code true} se nenhuma linha tiver sido rejeitada; {@code false} caso contrário.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Devolve o número de linhas classificadas no lote.
+     *
+     * @return O número de linhas.
+     */
+    public int size() {
+        return flows.size();
+    }
+
+    /**
+     * Indica se o lote não tem linhas classificadas.
+     *
+     * @return {@code true} se o lote estiver vazio; {@code false} caso contrário.
+     */
+    public boolean isEmpty() {
+        return flows.isEmpty();
+    }
+
+    /**
+     * Devolve o nome do processo de uma linha.
+     *
+     * @param index O índice da linha no lote.
+     * @return O nome do processo.
+     */
+    public String getProcessName(int index) {
+        return processNames.get(index);
+    }
+
+    /**
+     * Devolve o fluxo de uma linha.
+     *
+     * @param index O índice da linha no lote.
+     * @return O fluxo.
+     */
+    public Flow getFlow(int index) {
+        return flows.get(index);
+    }
+}
@@ -1,10 +1,13 @@
 package org.estg.ipp.pt.Models;
 
+import org.estg.ipp.pt.Enums.ClassificationStatus;
 import org.estg.ipp.pt.Enums.FlowCategory;
 import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Import.CsvTokenizer;
 import org.estg.ipp.pt.Interfaces.Models.DataClassification;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -16,20 +19,49 @@ import java.util.List;
  * <p><b>Funcionalidades:</b></p>
  * <ul>
  *   <li>Interpretação de dados para determinar a categoria, tipo, unidade e valores associados a um fluxo.</li>
- *   <li>Tratamento de erros para entradas inválidas.</li>
+ *   <li>Tratamento de erros para entradas inválidas, com um {@link ClassificationStatus} que indica o
+ *   campo rejeitado, sem lançar exceções.</li>
  * </ul>
  *
  * <p><b>Estrutura Interna:</b></p>
  * <ul>
- *   <li>Método {@code classifyFlow}: Responsável por analisar os dados e devolver um objeto {@link Flow}.</li>
+ *   <li>Método {@code classify}: Responsável por analisar os dados e devolver um {@link ClassificationResult}
+ *   com o estado e o {@link Flow} criado.</li>
+ *   <li>Método {@code classifyFlow}: Devolve o {@link Flow} criado, ou {@code null} se os dados forem inválidos.</li>
+ *   <li>Método {@code classifyRow}: Divide uma linha CSV e guarda o fluxo criado num {@link FlowBatch}.</li>
+ *   <li>{@code CATEGORIES}, {@code TYPES} e {@code UNITS}: Tabelas pré-calculadas que encontram a constante
+ *   correspondente a um campo sem distinguir maiúsculas de minúsculas e sem criar strings.</li>
+ *   <li>{@code rowTokenizer}: {@link CsvTokenizer} reutilizado para dividir cada linha em campos.</li>
+ *   <li>{@code categoryTokenizer}: {@link CsvTokenizer} reutilizado para dividir a categoria do fluxo
+ *   (ex.: {@code Material;Leather}).</li>
+ *   <li>{@code names}: Cache dos nomes dos fluxos já convertidos para maiúsculas, para que linhas com o
+ *   mesmo nome reutilizem a mesma string.</li>
  * </ul>
  *
+ * <p>O único estado entre chamadas são os tokenizers e a cache de nomes, que são reutilizados; por isso, uma
+ * instância não deve ser partilhada entre threads.</p>
+ *
  * @see Flow
  * @see FlowCategory
  * @see Type
  * @see UnitType
  */
 public class FlowClassifier implements DataClassification {
+    private static final EnumTable<FlowCategory> CATEGORIES = new EnumTable<>(FlowCategory.values());
+    private static final EnumTable<Type> TYPES = new EnumTable<>(Type.values());
+    private static final EnumTable<UnitType> UNITS = new EnumTable<>(UnitType.values());
+
+    /**
+     * Valor devolvido para números inválidos; como os valores negativos também são rejeitados,
+     * basta uma única verificação.
+     */
+    private static final double INVALID_NUMBER = -1;
+
+    private static final int NAME_CACHE_SIZE = 1024;
+
+    private final CsvTokenizer rowTokenizer = new CsvTokenizer(',');
+    private final CsvTokenizer categoryTokenizer = new CsvTokenizer(';');
+    private final NameCache names = new NameCache(NAME_CACHE_SIZE);
 
     /**
      * Classifica um fluxo com base em dados fornecidos.
@@ -53,42 +85,280 @@ public class FlowClassifier implements DataClassification {
      */
     @Override
     public Flow classifyFlow(String[] data) {
+        return classify(data).getFlow();
+    }
+
+    /**
+     * Classifica um fluxo a partir de uma linha já dividida por um {@link CsvTokenizer}.
+     *
+     * <p>Segue as mesmas regras de {@link #classifyFlow(String[])}, mas lê os campos diretamente
+     * da linha original, sem criar um array de strings.</p>
+     *
+     * @param data A linha dividida em campos.
+     * @return Um objeto {@link Flow} criado a partir dos dados, ou {@code null} em caso de erro.
+     */
+    public Flow classifyFlow(CsvTokenizer data) {
+        return classify(data).getFlow();
+    }
+
+    /**
+     * Divide uma linha CSV em campos, classifica o fluxo e acrescenta-o ao lote com o nome do processo
+     * (o primeiro campo).
+     *
+     * <p>Se a linha for inválida, o lote é marcado como inválido e a linha não é acrescentada.</p>
+     *
+     * @param row   A linha de dados.
+     * @param batch O lote onde a linha é guardada.
+     * @return {@code true} se a linha for válida; {@code false} caso contrário.
+     */
+    public boolean classifyRow(String row, FlowBatch batch) {
         try {
-            String[] categorySplit = data[2].split(";");
+            CsvTokenizer fields = rowTokenizer.tokenize(row);
+            Flow flow = classifyFlow(fields);
+            if (flow != null) {
+                batch.add(fields.getField(0), flow);
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // Uma linha que não pode ser lida é tratada como qualquer outra linha inválida
+        }
+        batch.invalidate();
+        return false;
+    }
 
-            FlowCategory category = FlowCategory.valueOf(categorySplit[0].toUpperCase());
+    /**
+     * Classifica um fluxo com as regras de {@link #classifyFlow(String[])}, indicando o motivo da rejeição.
+     *
+     * @param data Array de {@code String} contendo os atributos do fluxo.
+     * @return O resultado, com o fluxo criado ou, caso contrário, o primeiro campo inválido.
+     */
+    public ClassificationResult classify(String[] data) {
+        if (data == null || data.length < 3 || data[1] == null || data[2] == null) {
+            return ClassificationResult.invalid(ClassificationStatus.MISSING_FIELDS);
+        }
 
-            String name = categorySplit[0].toUpperCase();
+        String unit = data.length >= 5 && data[4] != null ? data[4] : "";
+        return classify(parseType(data[1], 0, data[1].length()), categoryTokenizer.tokenize(data[2]),
+                numberField(data, 3), parseUnit(unit, 0, unit.length()), numberField(data, 5));
+    }
 
-            if (categorySplit.length >= 2) {
-                name = categorySplit[1].toUpperCase();
-            }
+    /**
+     * Classifica um fluxo com as regras de {@link #classifyFlow(CsvTokenizer)}, indicando o motivo da rejeição.
+     *
+     * <p>As linhas rejeitadas não criam objetos; as válidas criam apenas o resultado, o {@link Flow} e,
+     * se ainda não estiver em cache, o seu nome.</p>
+     *
+     * @param data A linha dividida em campos.
+     * @return O resultado, com o fluxo criado ou, caso contrário, o primeiro campo inválido.
+     */
+    public ClassificationResult classify(CsvTokenizer data) {
+        int fields = data.getFieldCount();
+        if (fields < 3) {
+            return ClassificationResult.invalid(ClassificationStatus.MISSING_FIELDS);
+        }
+
+        UnitType unit = fields >= 5 ? parseUnit(data.getSource(), data.getStart(4), data.getEnd(4)) : UnitType.NONE;
+        return classify(parseType(data.getSource(), data.getStart(1), data.getEnd(1)),
+                categoryTokenizer.tokenizeField(data, 2), numberField(data, 3), unit, numberField(data, 5));
+    }
+
+    /**
+     * Valida os campos já lidos, pela ordem da linha, e cria o fluxo.
+     *
+     * @param type           O tipo, ou {@code null} se for inválido.
+     * @param categoryFields A categoria e o nome do fluxo.
+     * @param value          O valor, negativo se for inválido.
+     * @param unit           A unidade, ou {@code null} se for inválida.
+     * @param lossRate       A taxa de perda, negativa se for inválida.
+     * @return O resultado da classificação.
+     */
+    private ClassificationResult classify(Type type, CsvTokenizer categoryFields, double value, UnitType unit, double lossRate) {
+        if (type == null) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_TYPE);
+        }
+
+        FlowCategory category = CATEGORIES.find(categoryFields.getSource(), categoryFields.getStart(0), categoryFields.getEnd(0));
+        if (category == null) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_CATEGORY);
+        }
 
-            double value = 0.0;
-            if (data.length >= 4 && (data[3] != null && !data[3].trim().isEmpty())) {
-                value = Double.parseDouble(data[3]);
+        String name = parseName(category, categoryFields);
+        if (name == null) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_NAME);
+        }
+        if (value < 0) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_VALUE);
+        }
+        if (unit == null) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_UNIT);
+        }
+        if (lossRate < 0) {
+            return ClassificationResult.invalid(ClassificationStatus.INVALID_LOSS_RATE);
+        }
+        if (!Flow.isUnitAllowed(category, unit)) {
+            return ClassificationResult.invalid(ClassificationStatus.INCOMPATIBLE_UNIT);
+        }
+        return ClassificationResult.valid(new Flow(category, name, type, value, unit, lossRate));
+    }
+
+    /**
+     * Lê um campo numérico opcional; um campo em falta ou em branco vale {@code 0}.
+     */
+    private static double numberField(String[] data, int index) {
+        if (data.length <= index || data[index] == null || data[index].trim().isEmpty()) {
+            return 0.0;
+        }
+        return CsvTokenizer.parseDouble(data[index], 0, data[index].length(), INVALID_NUMBER);
+    }
+
+    private static double numberField(CsvTokenizer data, int index) {
+        if (data.getFieldCount() <= index || data.isBlank(index)) {
+            return 0.0;
+        }
+        return data.parseDouble(index, INVALID_NUMBER);
+    }
+
+    /**
+     * O tipo é comparado sem os espaços no início e no fim.
+     *
+     * @return O tipo, ou {@code null} se for inválido.
+     */
+    private static Type parseType(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return TYPES.find(text, start, end);
+    }
+
+    /**
+     * O nome é o segundo campo da categoria (ex.: {@code Leather} em {@code Material;Leather});
+     * sem segundo campo, o nome é o da categoria.
+     *
+     * @return O nome em maiúsculas, ou {@code null} se estiver vazio.
+     */
+    private String parseName(FlowCategory category, CsvTokenizer categoryFields) {
+        if (categoryFields.getFieldCount() < 2) {
+            return category.name();
+        }
+
+        int start = categoryFields.getStart(1);
+        int end = categoryFields.getEnd(1);
+        return start == end ? null : names.get(categoryFields.getSource(), start, end);
+    }
+
+    /**
+     * Uma unidade em falta ou em branco é {@link UnitType#NONE}.
+     *
+     * @return A unidade, ou {@code null} se for inválida.
+     */
+    private static UnitType parseUnit(CharSequence text, int start, int end) {
+        boolean blank = true;
+        for (int i = start; i < end && blank; i++) {
+            blank = text.charAt(i) <= ' ';
+        }
+        return blank ? UnitType.NONE : UNITS.find(text, start, end);
+    }
+
+    /**
+     * Converte um carácter para maiúsculas, com um caminho rápido para ASCII.
+     */
+    private static char toUpperCase(char c) {
+        if (c < 128) {
+            return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+
+    /**
+     * Verifica se o intervalo {@code [start, end)}, em maiúsculas, é igual ao texto esperado.
+     */
+    private static boolean matches(String expected, CharSequence text, int start, int end) {
+        if (expected.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (toUpperCase(text.charAt(start + i)) != expected.charAt(i)) {
+                return false;
             }
+        }
+        return true;
+    }
+
+    /**
+     * Tabela das constantes de uma enumeração, agrupadas pelo comprimento do nome.
+     */
+    private static final class EnumTable<E extends Enum<E>> {
+        private final List<List<E>> byLength;
 
-            UnitType unitType = UnitType.NONE;
-            if (data.length >= 5 && (data[4] != null && !data[4].trim().isEmpty())) {
-                unitType = UnitType.valueOf(data[4].toUpperCase());
+        private EnumTable(E[] constants) {
+            int maxLength = Arrays.stream(constants).mapToInt(constant -> constant.name().length()).max().orElse(0);
+            List<List<E>> table = new ArrayList<>();
+            for (int length = 0; length <= maxLength; length++) {
+                final int size = length;
+                table.add(Arrays.stream(constants).filter(constant -> constant.name().length() == size).toList());
             }
+            this.byLength = List.copyOf(table);
+        }
 
-            double lossRate = 0.0;
-            if (data.length >= 6 && (data[5] != null && !data[5].trim().isEmpty())) {
-                lossRate = Double.parseDouble(data[5]);
+        /**
+         * Procura a constante cujo nome é igual ao intervalo em maiúsculas.
+         *
+         * @return A constante, ou {@code null} se não existir.
+         */
+        private E find(CharSequence text, int start, int end) {
+            int length = end - start;
+            if (length >= byLength.size()) {
+                return null;
             }
 
-            return new Flow(
-                    category,
-                    name,
-                    Type.valueOf(data[1].trim().toUpperCase()),
-                    value,
-                    unitType,
-                    lossRate
-            );
-        } catch (Exception e) {
+            List<E> candidates = byLength.get(length);
+            for (int i = 0; i < candidates.size(); i++) {
+                E candidate = candidates.get(i);
+                if (matches(candidate.name(), text, start, end)) {
+                    return candidate;
+                }
+            }
             return null;
         }
     }
+
+    /**
+     * Cache de mapeamento direto dos nomes em maiúsculas: cada nome ocupa a posição dada pelo seu hash e
+     * substitui o nome anterior dessa posição, pelo que o tamanho da cache é fixo.
+     */
+    private static final class NameCache {
+        private final String[] entries;
+
+        private NameCache(int size) {
+            this.entries = new String[size];
+        }
+
+        /**
+         * Devolve o intervalo {@code [start, end)} em maiúsculas, tal como {@link String#toUpperCase()}.
+         */
+        private String get(CharSequence text, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (c >= 128) {
+                    // Fora de ASCII, a conversão pode mudar o comprimento do texto
+                    return text.subSequence(start, end).toString().toUpperCase();
+                }
+                hash = 31 * hash + toUpperCase(c);
+            }
+
+            int slot = (hash ^ (hash >>> 16)) & (entries.length - 1);
+            String cached = entries[slot];
+            if (cached != null && matches(cached, text, start, end)) {
+                return cached;
+            }
+
+            String upperCase = text.subSequence(start, end).toString().toUpperCase();
+            entries[slot] = upperCase;
+            return upperCase;
+        }
+    }
 }
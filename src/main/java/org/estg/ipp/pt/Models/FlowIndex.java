@@ -0,0 +1,51 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice dos fluxos de uma lista pelo nome e pela categoria, que guarda a primeira ocorrência de cada chave.
+ *
+ * <p>O índice só é alterado por {@link #add(FlowInterface)}; as pesquisas não o alteram. Quem usa o índice
+ * é responsável por o descartar quando algum fluxo muda de nome ou de categoria.</p>
+ *
+ * @param <F> O tipo dos fluxos indexados.
+ * @see Process
+ * @see ImmutableProcess
+ */
+final class FlowIndex<F extends FlowInterface> {
+    private final Map<String, F> byName = new HashMap<>();
+    private final Map<String, Map<FlowCategory, F>> byCategory = new HashMap<>();
+
+    FlowIndex(List<? extends F> flows) {
+        for (F flow : flows) {
+            add(flow);
+        }
+    }
+
+    void add(F flow) {
+        if (flow == null) {
+            return;
+        }
+
+        byName.putIfAbsent(flow.getName(), flow);
+        if (flow.getCategory() != null) {
+            byCategory.computeIfAbsent(flow.getName(), name -> new EnumMap<>(FlowCategory.class))
+                    .putIfAbsent(flow.getCategory(), flow);
+        }
+    }
+
+    F get(String name, FlowCategory category) {
+        if (category == null) {
+            return byName.get(name);
+        }
+
+        Map<FlowCategory, F> flows = byCategory.get(name);
+        return flows == null ? null : flows.get(category);
+    }
+}
@@ -0,0 +1,129 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+
+/**
+ * A classe {@code ImmutableFlow} representa um fluxo que não pode ser alterado, usado pelos processos
+ * secundários de {@link SecondaryDataRepository}.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Pode ser usado em qualquer lugar onde é esperado um {@link FlowInterface}; não tem métodos de
+ *   alteração.</li>
+ *   <li>Pode ser partilhado entre threads e entre processos sem ser copiado ({@link #of(FlowInterface)}
+ *   devolve o próprio fluxo se já for imutável).</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code nameId}: Identificador do nome na {@link SymbolTable} global.</li>
+ *   <li>{@code category}, {@code type}, {@code value}, {@code unit} e {@code lossRate}: Restantes atributos
+ *   do fluxo.</li>
+ * </ul>
+ *
+ * <p>Por os atributos serem finais, as instâncias podem ser publicadas para outras threads sem
+ * sincronização. O nome é guardado na {@link SymbolTable} global, que nunca remove nomes, pelo que esta
+ * classe deve ser usada para dados com nomes que se repetem, como os fatores de emissão.</p>
+ *
+ * @see Flow
+ * @see ImmutableProcess
+ */
+public final class ImmutableFlow implements FlowInterface {
+    private final FlowCategory category;
+    private final int nameId;
+    private final Type type;
+    private final double value;
+    private final UnitType unit;
+    private final double lossRate;
+
+    /**
+     * Construtor da classe {@code ImmutableFlow}.
+     *
+     * @param category Categoria do fluxo.
+     * @param name     Nome do fluxo.
+     * @param type     Tipo do fluxo (entrada ou saída).
+     * @param value    Valor associado ao fluxo.
+     * @param unit     Unidade do fluxo.
+     * @param lossRate Taxa de perda do fluxo.
+     * @throws IllegalArgumentException Se algum parâmetro for inválido.
+     */
+    public ImmutableFlow(FlowCategory category, String name, Type type, double value, UnitType unit, double lossRate) {
+        Flow.validate(category, name, type, value, unit, lossRate);
+
+        this.category = category;
+        this.nameId = SymbolTable.global().intern(name);
+        this.type = type;
+        this.value = value;
+        this.unit = unit;
+        this.lossRate = lossRate;
+    }
+
+    /**
+     * Devolve uma versão imutável de um fluxo.
+     *
+     * @param flow O fluxo.
+     * @return O próprio fluxo, se já for imutável; caso contrário, uma cópia imutável.
+     * @throws IllegalArgumentException Se os atributos do fluxo forem inválidos.
+     */
+    public static ImmutableFlow of(FlowInterface flow) {
+        if (flow instanceof ImmutableFlow immutableFlow) {
+            return immutableFlow;
+        }
+        return new ImmutableFlow(flow.getCategory(), flow.getName(), flow.getType(), flow.getValue(), flow.getUnit(),
+                flow.getLossRate());
+    }
+
+    @Override
+    public FlowCategory getCategory() {
+        return category;
+    }
+
+    @Override
+    public String getName() {
+        return SymbolTable.global().getName(nameId);
+    }
+
+    /**
+     * Devolve o identificador do nome do fluxo.
+     *
+     * @return O identificador do nome na {@link SymbolTable} global.
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public UnitType getUnit() {
+        return unit;
+    }
+
+    @Override
+    public double getLossRate() {
+        return lossRate;
+    }
+
+    @Override
+    public String toString() {
+        return "Flow{" +
+                "category=" + category +
+                ", name='" + getName() + '\'' +
+                ", type=" + type +
+                ", value=" + value +
+                ", unit=" + unit +
+                ", percentage=" + lossRate +
+                '}';
+    }
+}
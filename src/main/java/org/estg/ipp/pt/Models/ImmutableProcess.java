@@ -0,0 +1,167 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A classe {@code ImmutableProcess} representa um processo secundário que não pode ser alterado, guardado
+ * por {@link SecondaryDataRepository}.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Pode ser usado em qualquer lugar onde é esperado um {@link ProcessInterface}.</li>
+ *   <li>Pesquisa de fluxos pelo nome (e categoria) em tempo constante.</li>
+ *   <li>Pode ser partilhado entre threads e entre versões do repositório sem ser copiado.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code processName}: Nome do processo, partilhado através da {@link SymbolTable} global.</li>
+ *   <li>{@code inputs} e {@code outputs}: Listas imutáveis de {@link ImmutableFlow}.</li>
+ *   <li>{@code inputIndex} e {@code outputIndex}: Índices dos fluxos de cada lista, criados na primeira
+ *   pesquisa.</li>
+ * </ul>
+ *
+ * <p>Os fluxos já imutáveis são reutilizados sem cópia, pelo que processos de versões diferentes partilham
+ * os fluxos que não mudaram. Como os fluxos nunca mudam, os índices nunca ficam desatualizados.</p>
+ *
+ * @see ImmutableFlow
+ * @see Process
+ */
+public final class ImmutableProcess implements ProcessInterface {
+    private final String processName;
+    private final List<ImmutableFlow> inputs;
+    private final List<ImmutableFlow> outputs;
+    private volatile FlowIndex<ImmutableFlow> inputIndex;
+    private volatile FlowIndex<ImmutableFlow> outputIndex;
+
+    /**
+     * Construtor da classe {@code ImmutableProcess}.
+     *
+     * @param processName Nome do processo.
+     * @param inputs      Fluxos de entrada; os fluxos que não forem imutáveis são copiados.
+     * @param outputs     Fluxos de saída; os fluxos que não forem imutáveis são copiados.
+     * @throws IllegalArgumentException Se o nome for {@code null} ou algum fluxo for inválido.
+     */
+    public ImmutableProcess(String processName, List<? extends FlowInterface> inputs,
+                            List<? extends FlowInterface> outputs) {
+        this.processName = SymbolTable.global().canonical(processName);
+        this.inputs = copyFlows(List.of(), inputs);
+        this.outputs = copyFlows(List.of(), outputs);
+    }
+
+    private ImmutableProcess(ImmutableProcess process, ProcessInterface added) {
+        this.processName = process.processName;
+        this.inputs = copyFlows(process.inputs, added.getInputs());
+        this.outputs = copyFlows(process.outputs, added.getOutputs());
+    }
+
+    /**
+     * Devolve uma versão imutável de um processo.
+     *
+     * @param process O processo.
+     * @return O próprio processo, se já for imutável; caso contrário, uma cópia imutável.
+     * @throws IllegalArgumentException Se algum fluxo for inválido.
+     */
+    public static ImmutableProcess of(ProcessInterface process) {
+        if (process instanceof ImmutableProcess immutableProcess) {
+            return immutableProcess;
+        }
+        return new ImmutableProcess(process.getProcessName(), process.getInputs(), process.getOutputs());
+    }
+
+    /**
+     * Devolve uma cópia deste processo com os fluxos de outro processo acrescentados no fim de cada lista.
+     * Os fluxos deste processo são reutilizados sem cópia.
+     *
+     * @param added O processo com os fluxos a acrescentar.
+     * @return O novo processo, com o nome deste processo.
+     */
+    ImmutableProcess append(ProcessInterface added) {
+        return new ImmutableProcess(this, added);
+    }
+
+    /**
+     * Cria uma lista imutável com os fluxos de {@code first} seguidos das versões imutáveis de {@code flows}.
+     */
+    private static List<ImmutableFlow> copyFlows(List<ImmutableFlow> first, List<? extends FlowInterface> flows) {
+        if (flows == null || flows.isEmpty()) {
+            return first;
+        }
+
+        List<ImmutableFlow> copies = new ArrayList<>(first.size() + flows.size());
+        copies.addAll(first);
+        for (FlowInterface flow : flows) {
+            copies.add(ImmutableFlow.of(flow));
+        }
+        return List.copyOf(copies);
+    }
+
+    @Override
+    public String getProcessName() {
+        return processName;
+    }
+
+    /**
+     * Devolve os fluxos de entrada.
+     *
+     * @return Uma lista imutável dos fluxos de entrada.
+     */
+    @Override
+    public List<ImmutableFlow> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Devolve os fluxos de saída.
+     *
+     * @return Uma lista imutável dos fluxos de saída.
+     */
+    @Override
+    public List<ImmutableFlow> getOutputs() {
+        return outputs;
+    }
+
+    @Override
+    public ImmutableFlow getFlow(Type type, String name) {
+        return getFlow(type, name, null);
+    }
+
+    /**
+     * Procura o primeiro fluxo de entrada ou saída com o nome e a categoria indicados.
+     *
+     * @param type     O lado do processo onde procurar ({@link Type#INPUT} ou {@link Type#OUTPUT}).
+     * @param name     O nome do fluxo.
+     * @param category A categoria do fluxo, ou {@code null} para qualquer categoria.
+     * @return O fluxo encontrado ou {@code null} se não existir.
+     */
+    @Override
+    public ImmutableFlow getFlow(Type type, String name, FlowCategory category) {
+        boolean input = type == Type.INPUT;
+        FlowIndex<ImmutableFlow> index = input ? inputIndex : outputIndex;
+        if (index == null) {
+            // Duas threads podem criar o mesmo índice; como os fluxos não mudam, qualquer um serve
+            index = new FlowIndex<>(input ? inputs : outputs);
+            if (input) {
+                inputIndex = index;
+            } else {
+                outputIndex = index;
+            }
+        }
+        return index.get(name, category);
+    }
+
+    @Override
+    public String toString() {
+        return "Process{" +
+                "processName='" + processName + '\'' +
+                ", input=" + inputs +
+                ", output=" + outputs +
+                '}';
+    }
+}
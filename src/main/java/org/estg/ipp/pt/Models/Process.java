@@ -5,6 +5,8 @@ import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +18,7 @@ import java.util.List;
  *   <li>Gestão dos fluxos de entrada e saída associados ao processo.</li>
  *   <li>Cálculo da pegada de carbono com base em fluxos de emissão.</li>
  *   <li>Adição dinâmica de fluxos de entrada e saída.</li>
+ *   <li>Pesquisa de fluxos pelo nome (e categoria) em tempo constante.</li>
  * </ul>
  *
  * <p><b>Estrutura Interna:</b></p>
@@ -23,8 +26,19 @@ import java.util.List;
  *   <li>{@code processName}: Nome do processo.</li>
  *   <li>{@code inputs}: Lista de fluxos de entrada do processo.</li>
  *   <li>{@code outputs}: Lista de fluxos de saída do processo.</li>
+ *   <li>{@code inputIndex} e {@code outputIndex}: Índices dos fluxos de cada lista pelo nome e pela categoria,
+ *   criados na primeira pesquisa.</li>
  * </ul>
  *
+ * <p>As listas de fluxos são copiadas no construtor e em {@link #setInputs(List)}/{@link #setOutputs(List)}, e
+ * {@link #getInputs()}/{@link #getOutputs()} devolvem vistas não modificáveis: os fluxos só são acrescentados
+ * através de {@link #addInput(Flow)} e {@link #addOutput(Flow)}, que mantêm os índices atualizados. Cada
+ * {@link Flow} guarda os processos que o contêm: alterar o nome ou a categoria de um fluxo invalida apenas os
+ * índices desses processos, que são reconstruídos na pesquisa seguinte.</p>
+ *
+ * <p>As pesquisas com {@link #getFlow(Type, String, FlowCategory)} podem ser feitas por várias threads em
+ * simultâneo; as alterações do processo não são thread-safe.</p>
+ *
  * <p>Essa classe implementa a interface {@link ProcessInterface}, que define métodos para
  * manipular e gerir os processos e os seus fluxos.</p>
  *
@@ -34,20 +48,24 @@ import java.util.List;
  */
 public class Process implements ProcessInterface {
     String processName;
-    List<Flow> inputs;
-    List<Flow> outputs;
+    private List<Flow> inputs;
+    private List<Flow> outputs;
+    private List<Flow> inputsView;
+    private List<Flow> outputsView;
+    private volatile FlowIndex<Flow> inputIndex;
+    private volatile FlowIndex<Flow> outputIndex;
 
     /**
      * Construtor para inicializar um processo com o seu nome, entradas e saídas.
      *
      * @param processName Nome do processo.
-     * @param input Lista de fluxos de entrada.
-     * @param output Lista de fluxos de saída.
+     * @param input Lista de fluxos de entrada; a lista é copiada.
+     * @param output Lista de fluxos de saída; a lista é copiada.
      */
     public Process(String processName, List<Flow> input, List<Flow> output) {
         this.processName = processName;
-        this.inputs = input;
-        this.outputs = output;
+        replaceInputs(input);
+        replaceOutputs(output);
     }
 
     /**
@@ -64,27 +82,150 @@ public class Process implements ProcessInterface {
         this.processName = processName;
     }
 
+    /**
+     * Devolve os fluxos de entrada.
+     *
+     * @return Uma vista não modificável dos fluxos de entrada, ou {@code null} se não existirem.
+     */
     public List<Flow> getInputs() {
-        return inputs;
+        return inputsView;
     }
 
+    /**
+     * Substitui os fluxos de entrada.
+     *
+     * @param inputs Os novos fluxos de entrada; a lista é copiada.
+     */
     public void setInputs(List<Flow> inputs) {
-        this.inputs = inputs;
+        replaceInputs(inputs);
     }
 
+    private void replaceInputs(List<Flow> inputs) {
+        removeOwner(this.inputs);
+        this.inputs = inputs == null ? null : new ArrayList<>(inputs);
+        addOwner(this.inputs);
+        this.inputsView = inputs == null ? null : Collections.unmodifiableList(this.inputs);
+        this.inputIndex = null;
+    }
+
+    /**
+     * Devolve os fluxos de saída.
+     *
+     * @return Uma vista não modificável dos fluxos de saída, ou {@code null} se não existirem.
+     */
     public List<Flow> getOutputs() {
-        return outputs;
+        return outputsView;
     }
 
+    /**
+     * Substitui os fluxos de saída.
+     *
+     * @param outputs Os novos fluxos de saída; a lista é copiada.
+     */
     public void setOutputs(List<Flow> outputs) {
-        this.outputs = outputs;
+        replaceOutputs(outputs);
+    }
+
+    private void replaceOutputs(List<Flow> outputs) {
+        removeOwner(this.outputs);
+        this.outputs = outputs == null ? null : new ArrayList<>(outputs);
+        addOwner(this.outputs);
+        this.outputsView = outputs == null ? null : Collections.unmodifiableList(this.outputs);
+        this.outputIndex = null;
     }
 
     public void addInput(Flow flow) {
         this.inputs.add(flow);
+        addOwner(flow);
+        FlowIndex<Flow> index = inputIndex;
+        if (index != null) {
+            index.add(flow);
+        }
     }
+
     public void addOutput(Flow flow) {
         this.outputs.add(flow);
+        addOwner(flow);
+        FlowIndex<Flow> index = outputIndex;
+        if (index != null) {
+            index.add(flow);
+        }
+    }
+
+    private void addOwner(List<Flow> flows) {
+        if (flows != null) {
+            for (Flow flow : flows) {
+                addOwner(flow);
+            }
+        }
+    }
+
+    private void addOwner(Flow flow) {
+        if (flow != null) {
+            flow.addOwner(this);
+        }
+    }
+
+    private void removeOwner(List<Flow> flows) {
+        if (flows != null) {
+            for (Flow flow : flows) {
+                if (flow != null) {
+                    flow.removeOwner(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta os índices dos fluxos, para serem reconstruídos na pesquisa seguinte. Chamado por {@link Flow}
+     * quando um fluxo deste processo muda de nome ou de categoria.
+     */
+    void invalidateIndexes() {
+        inputIndex = null;
+        outputIndex = null;
+    }
+
+    /**
+     * Procura o primeiro fluxo de entrada ou saída com o nome indicado.
+     *
+     * @param type O lado do processo onde procurar ({@link Type#INPUT} ou {@link Type#OUTPUT}).
+     * @param name O nome do fluxo.
+     * @return O fluxo encontrado ou {@code null} se não existir.
+     */
+    @Override
+    public Flow getFlow(Type type, String name) {
+        return getFlow(type, name, null);
+    }
+
+    /**
+     * Procura o primeiro fluxo de entrada ou saída com o nome e a categoria indicados.
+     *
+     * <p>Se o índice ainda não existir, ou algum fluxo deste processo tiver mudado de nome ou de categoria
+     * desde que foi criado, é criado um novo índice.</p>
+     *
+     * @param type     O lado do processo onde procurar ({@link Type#INPUT} ou {@link Type#OUTPUT}).
+     * @param name     O nome do fluxo.
+     * @param category A categoria do fluxo, ou {@code null} para qualquer categoria.
+     * @return O fluxo encontrado ou {@code null} se não existir.
+     */
+    @Override
+    public Flow getFlow(Type type, String name, FlowCategory category) {
+        boolean input = type == Type.INPUT;
+        List<Flow> flows = input ? inputs : outputs;
+        if (flows == null) {
+            return null;
+        }
+
+        FlowIndex<Flow> index = input ? inputIndex : outputIndex;
+        if (index == null) {
+            index = new FlowIndex<>(flows);
+            if (input) {
+                inputIndex = index;
+            } else {
+                outputIndex = index;
+            }
+        }
+        return index.get(name, category);
     }
 
     @Override
@@ -2,11 +2,23 @@ package org.estg.ipp.pt.Models;
 
 import org.estg.ipp.pt.Enums.FlowCategory;
 import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
 import org.estg.ipp.pt.Interfaces.Models.ProcessModeling;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * A classe {@code ProcessManager} é responsável pela gestão de processos, podendo
@@ -20,16 +32,32 @@ import java.util.List;
  *   <li>Gestão separada de processos primários e secundários.</li>
  *   <li>Classificação de fluxos em entradas e saídas.</li>
  *   <li>Preenchimento de informações em falta em fluxos.</li>
+ *   <li>Gravação e leitura dos processos modelados num ficheiro binário ({@link ProcessSnapshot}).</li>
  * </ul>
  *
  * <p><b>Estrutura Interna:</b></p>
  * <ul>
  *   <li>{@code primaryData}: Lista de processos primários.</li>
- *   <li>{@code secondaryData}: Lista de processos secundários.</li>
- *   <li>{@code classifier}: Instância de {@link FlowClassifier} para classificar fluxos.</li>
+ *   <li>{@code secondaryRepository}: {@link SecondaryDataRepository} com os processos secundários, próprio
+ *   desta instância ou partilhado com outras instâncias.</li>
+ *   <li>{@code primaryIndex}: Índice dos processos primários pelo nome em minúsculas, mantido a par da lista
+ *   para que cada pesquisa por nome seja feita em tempo constante.</li>
+ *   <li>{@code classifier}: Instância de {@link FlowClassifier} para dividir as linhas em campos e classificar fluxos.</li>
  *   <li>{@code isSecondary}: Indica se o próximo conjunto de dados a ser modelado é secundário.</li>
+ *   <li>{@code batchSize}: Número de linhas classificadas em cada lote antes de serem integradas nos processos.</li>
  * </ul>
  *
+ * <p>Não existe limite para o número de linhas modeladas. As linhas são lidas em lotes de {@code batchSize}:
+ * cada lote é classificado por completo e só depois integrado nos processos existentes, pelo que uma linha
+ * inválida descarta apenas o seu lote. Chamadas sucessivas a {@code modeling} juntam os novos fluxos aos
+ * processos já modelados.</p>
+ *
+ * <p>Os dados secundários modelados são publicados no {@link SecondaryDataRepository} no fim de cada chamada.
+ * Um repositório já carregado pode ser partilhado por várias instâncias através de
+ * {@link #ProcessManager(SecondaryDataRepository)}; cada chamada de modelagem dos dados primários usa uma
+ * única versão do repositório, e os fluxos e processos secundários são copiados para os dados primários,
+ * pelo que os dados partilhados nunca são alterados.</p>
+ *
  * <p>Essa classe implementa a interface {@link ProcessModeling}, que define os métodos para
  * a gestão e modelagem de processos.</p>
  *
@@ -37,21 +65,65 @@ import java.util.List;
  * @see Process
  */
 public class ProcessManager implements ProcessModeling {
-    static List<Process> secondaryData;
+    /**
+     * Número de linhas por lote, por omissão.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final SecondaryDataRepository secondaryRepository;
+    private final boolean ownsRepository;
+    private SecondaryDataRepository.Snapshot secondarySnapshot;
     private boolean isSecondary = true;
     List<Process> primaryData;
+    private final Map<String, Process> primaryIndex;
     FlowClassifier classifier;
+    private int batchSize;
 
     public ProcessManager() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Construtor que define o número de linhas de cada lote de modelagem.
+     *
+     * @param batchSize Número de linhas por lote.
+     * @throws IllegalArgumentException Se {@code batchSize} não for positivo.
+     */
+    public ProcessManager(int batchSize) {
+        this(new SecondaryDataRepository(), true, batchSize);
+    }
+
+    /**
+     * Construtor que usa um repositório de dados secundários partilhado.
+     *
+     * <p>Como os dados secundários já estão carregados, a próxima chamada de modelagem é de dados primários.
+     * {@link #clearProcesses()} não limpa o repositório partilhado.</p>
+     *
+     * @param secondaryRepository O repositório de dados secundários.
+     * @throws IllegalArgumentException Se o repositório for {@code null}.
+     */
+    public ProcessManager(SecondaryDataRepository secondaryRepository) {
+        this(secondaryRepository, false, DEFAULT_BATCH_SIZE);
+    }
+
+    private ProcessManager(SecondaryDataRepository secondaryRepository, boolean ownsRepository, int batchSize) {
+        if (secondaryRepository == null) {
+            throw new IllegalArgumentException("Secondary data repository cannot be null");
+        }
+
+        setBatchSize(batchSize);
+        this.secondaryRepository = secondaryRepository;
+        this.ownsRepository = ownsRepository;
+        this.isSecondary = ownsRepository;
         this.primaryData = new ArrayList<>();
-        this.secondaryData = new ArrayList<>();
+        this.primaryIndex = new HashMap<>();
         this.classifier = new FlowClassifier();
     }
 
     /**
      * Realiza a modelagem dos processos com base nos dados fornecidos.
      *
-     * <p>Se os dados forem secundários, eles serão adicionados a {@code secondaryData}. Caso contrário,
+     * <p>Se os dados forem secundários, eles serão publicados no {@link SecondaryDataRepository}. Caso contrário,
      * serão adicionados a {@code primaryData}. Também define o estado de
      * {@code isSecondary} após processar os dados secundários.</p>
      *
@@ -60,21 +132,137 @@ public class ProcessManager implements ProcessModeling {
      */
     @Override
     public boolean modeling(List<String> data) {
-        if (data == null || data.isEmpty() || data.size() > 50) {
+        if (data == null || data.isEmpty()) {
             return false;
         }
 
+        return modelRows(data.iterator());
+    }
+
+    /**
+     * Realiza a modelagem dos processos a partir de um {@link Stream} de linhas.
+     *
+     * <p>As linhas são consumidas uma a uma, sem serem copiadas para uma lista, o que permite
+     * ligar diretamente {@link org.estg.ipp.pt.Import.Import#streamCSV(String)} à modelagem.
+     * Aplicam-se as mesmas regras de {@link #modeling(List)}: um {@link Stream} vazio resulta em {@code false}.</p>
+     *
+     * @param data Stream de strings que representam os dados dos processos.
+     * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
+     */
+    @Override
+    public boolean modeling(Stream<String> data) {
+        if (data == null) {
+            return false;
+        }
+
+        return modelRows(data.iterator());
+    }
+
+    /**
+     * Realiza a modelagem dos processos a partir de lotes de linhas já classificadas, por exemplo por
+     * {@link FlowClassifier#classifyRow(String, FlowBatch)} noutra thread.
+     *
+     * <p>Cada lote é integrado como um lote de {@link #modeling(List)}: um lote inválido termina a modelagem
+     * sem ser integrado. Os valores em falta dos dados primários são preenchidos aqui, a partir dos dados
+     * secundários. Um {@link Stream} sem lotes resulta em {@code false}.</p>
+     *
+     * @param batches Stream de lotes classificados, pela ordem das linhas.
+     * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
+     */
+    @Override
+    public boolean modelingBatches(Stream<FlowBatch> batches) {
+        if (batches == null) {
+            return false;
+        }
+
+        return modelBatches(batches.iterator());
+    }
+
+    /**
+     * Modela as linhas fornecidas por um {@link Iterator}, classificadas em lotes de {@code batchSize}.
+     *
+     * @param data Iterador sobre as linhas de dados dos processos.
+     * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
+     */
+    private boolean modelRows(Iterator<String> data) {
+        return modelBatches(new RowBatches(data));
+    }
+
+    /**
+     * Modela os lotes fornecidos por um {@link Iterator} no conjunto de dados atual
+     * (secundário ou primário).
+     *
+     * @param batches Iterador sobre os lotes classificados.
+     * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
+     */
+    private boolean modelBatches(Iterator<FlowBatch> batches) {
         try {
-            List<Process> targetData = isSecondary ? secondaryData : primaryData;
-            boolean isSuccess = model(data, targetData);
-            if (isSuccess && isSecondary) {
-                isSecondary = false;
+            if (!batches.hasNext()) {
+                return false;
             }
-            return isSuccess;
+
+            secondarySnapshot = secondaryRepository.snapshot();
+            if (isSecondary) {
+                return modelSecondary(batches);
+            }
+
+            return model(batches, primaryData, primaryIndex);
         } catch (Exception e) {
             return false;
+        } finally {
+            secondarySnapshot = null;
+        }
+    }
+
+    /**
+     * Modela dados secundários sobre a versão atual do repositório e publica o resultado como uma nova versão,
+     * mesmo que algum lote seja descartado.
+     *
+     * <p>Os fluxos novos são modelados em processos à parte. Na nova versão, cada processo da versão atual que
+     * recebeu fluxos é substituído por uma cópia que partilha os fluxos imutáveis já existentes e acrescenta os
+     * novos; os restantes processos da versão atual são reutilizados sem cópia.</p>
+     *
+     * @param batches Iterador sobre os lotes classificados.
+     * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
+     */
+    private boolean modelSecondary(Iterator<FlowBatch> batches) {
+        List<Process> changed = new ArrayList<>();
+        Map<String, Process> changedIndex = new HashMap<>();
+        try {
+            boolean isSuccess = model(batches, changed, changedIndex);
+            if (isSuccess) {
+                isSecondary = false;
+            }
+            return isSuccess;
+        } finally {
+            if (!changed.isEmpty()) {
+                secondaryRepository.load(nextSecondaryVersion(secondarySnapshot.getProcesses(), changed, changedIndex));
+            }
         }
+    }
 
+    /**
+     * Junta os fluxos modelados com os processos da versão atual: os fluxos de cada processo modelado são
+     * acrescentados ao processo da versão atual com o mesmo nome, e os processos novos são acrescentados no fim.
+     *
+     * @param current      Os processos da versão atual.
+     * @param changed      Os processos com os fluxos modelados, pela ordem em que foram criados.
+     * @param changedIndex Índice dos processos modelados pelo nome; é esvaziado.
+     * @return Os processos da nova versão.
+     */
+    private static List<ImmutableProcess> nextSecondaryVersion(List<ImmutableProcess> current, List<Process> changed,
+                                                               Map<String, Process> changedIndex) {
+        List<ImmutableProcess> next = new ArrayList<>(current.size() + changed.size());
+        for (ImmutableProcess process : current) {
+            Process added = changedIndex.remove(indexKey(process.getProcessName()));
+            next.add(added != null ? process.append(added) : process);
+        }
+        for (Process process : changed) {
+            if (changedIndex.remove(indexKey(process.getProcessName())) != null) {
+                next.add(ImmutableProcess.of(process));
+            }
+        }
+        return next;
     }
 
     public boolean modeling(Object... objects) throws IllegalArgumentException {
@@ -96,76 +284,178 @@ public class ProcessManager implements ProcessModeling {
     }
 
     /**
-     * Devolve a lista de processos secundários.
+     * Devolve a lista de processos secundários da versão atual do repositório.
      *
-     * @return Lista de {@link Process} secundários.
+     * @return Lista imutável de {@link ImmutableProcess} secundários.
      */
     @Override
-    public List<Process> getSecondaryProcesses() {
-        return secondaryData;
+    public List<ImmutableProcess> getSecondaryProcesses() {
+        return secondaryRepository.getProcesses();
+    }
+
+    /**
+     * Devolve o repositório de dados secundários usado por esta instância.
+     *
+     * @return O repositório de dados secundários.
+     */
+    public SecondaryDataRepository getSecondaryRepository() {
+        return secondaryRepository;
     }
 
     /**
      * Devolve a lista de processos primários.
      *
-     * @return Lista de {@link Process} primários.
+     * <p>A lista só pode ser alterada através da modelagem, de {@link #loadSnapshot(String)} e de
+     * {@link #clearProcesses()}, para que o índice dos processos pelo nome se mantenha atualizado.</p>
+     *
+     * @return Lista não modificável de {@link Process} primários.
      */
     @Override
     public List<Process> getPrimaryProcesses() {
-        return primaryData;
+        return Collections.unmodifiableList(primaryData);
+    }
+
+    /**
+     * Grava os processos secundários e primários modelados num ficheiro binário.
+     *
+     * @param path O caminho do ficheiro.
+     * @return {@code true} se o ficheiro for gravado; {@code false} caso contrário.
+     * @see ProcessSnapshot
+     */
+    public boolean saveSnapshot(String path) {
+        if (!isValidSnapshotPath(path)) {
+            return false;
+        }
+
+        try {
+            ProcessSnapshot.write(Path.of(path), secondaryRepository.getProcesses(), primaryData);
+            return true;
+        } catch (IOException | InvalidPathException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Lê os processos de um ficheiro binário gravado por {@link #saveSnapshot(String)}, substituindo
+     * os processos primários.
+     *
+     * <p>Se o repositório de dados secundários for próprio desta instância, os processos secundários do
+     * ficheiro são publicados como uma nova versão; um repositório partilhado não é alterado. Depois da
+     * leitura, a próxima modelagem é de dados primários.</p>
+     *
+     * @param path O caminho do ficheiro.
+     * @return {@code true} se o ficheiro for lido; {@code false} caso contrário.
+     */
+    public boolean loadSnapshot(String path) {
+        if (!isValidSnapshotPath(path)) {
+            return false;
+        }
+
+        ProcessSnapshot snapshot;
+        try {
+            snapshot = ProcessSnapshot.read(Path.of(path));
+        } catch (IOException | InvalidPathException e) {
+            return false;
+        }
+
+        if (ownsRepository) {
+            secondaryRepository.load(snapshot.getSecondaryProcesses());
+        }
+        primaryData.clear();
+        primaryData.addAll(snapshot.getPrimaryProcesses());
+        rebuildIndex(primaryData, primaryIndex);
+        isSecondary = false;
+        return true;
+    }
+
+    /**
+     * Valida o caminho de um ficheiro de processos, tal como
+     * {@link org.estg.ipp.pt.Import.Import#ImportCSV(String)} valida o caminho de um ficheiro CSV.
+     *
+     * @param path O caminho do ficheiro.
+     * @return {@code true} se o caminho for válido; {@code false} caso contrário.
+     */
+    private static boolean isValidSnapshotPath(String path) {
+        // Validação: Caminho não pode ser nulo ou vazio
+        if (path == null || path.isEmpty()) {
+            System.err.println("Path cannot be null or empty.");
+            return false;
+        }
+        return true;
     }
 
     /**
      * Limpa todas as listas de processos primários e secundários e
      * limpa o estado de {@code isSecondary}.
+     *
+     * <p>Se o repositório de dados secundários for partilhado, apenas os processos primários são limpos
+     * e a próxima modelagem continua a ser de dados primários.</p>
      */
     @Override
     public void clearProcesses() {
         primaryData.clear();
-        secondaryData.clear();
-        isSecondary = true;
+        primaryIndex.clear();
+        if (ownsRepository) {
+            secondaryRepository.clear();
+        }
+        isSecondary = ownsRepository;
     }
 
     /**
-     * Divide uma string de dados do processo em componentes separados com base em vírgulas
+     * Normaliza o nome de um processo para ser usado como chave dos índices, tal como
+     * {@link org.estg.ipp.pt.Calculo.Calculo} agrupa os resultados por nome em minúsculas.
      *
-     * @param data String de dados a ser dividida.
-     * @return Array de strings divididas.
+     * @param processName Nome do processo.
+     * @return O nome do processo em minúsculas.
      */
-    private String[] splitData(String data) {
-        String[] split = data.split(",");
+    private static String indexKey(String processName) {
+        return processName.toLowerCase();
+    }
 
-        return split;
+    /**
+     * Reconstrói o índice depois de a lista de processos ser substituída. Se dois processos tiverem o mesmo
+     * nome sem distinção entre maiúsculas e minúsculas, o índice guarda o primeiro.
+     *
+     * @param processes Lista de processos.
+     * @param index     Índice dos processos pelo nome.
+     */
+    private static void rebuildIndex(List<Process> processes, Map<String, Process> index) {
+        index.clear();
+        for (Process process : processes) {
+            index.putIfAbsent(indexKey(process.getProcessName()), process);
+        }
     }
 
     /**
-     * Modela os dados numa lista de processos.
+     * Modela os lotes numa lista de processos.
      *
-     * <p>Para cada string de dados de processos, classifica o processo correspondente
-     * e adiciona-o à lista de processos.</p>
+     * <p>Se um lote for válido e, no caso dos dados primários, os seus fluxos puderem ser completados com os
+     * dados secundários, o lote é integrado na lista de processos. No fim, os processos primários alterados
+     * recebem as emissões em falta.</p>
      *
-     * @param Data      Lista de strings que representa os dados.
+     * @param batches   Iterador sobre os lotes classificados.
      * @param processes Lista de processos onde os dados serão adicionados.
+     * @param index     Índice dos processos da lista pelo nome.
      * @return {@code true} se a modelagem for bem-sucedida; {@code false} caso contrário.
      */
-    private boolean model(List<String> Data, List<Process> processes) {
-        boolean existEnergy = false;
-        for (String data : Data) {
-            boolean result = classifyProcess(data, processes);
+    private boolean model(Iterator<FlowBatch> batches, List<Process> processes, Map<String, Process> index) {
+        Set<Process> modeled = new LinkedHashSet<>();
 
-            if (!result) {
+        while (batches.hasNext()) {
+            FlowBatch batch = batches.next();
+            if (!batch.isValid() || (!isSecondary && !addMissingInfo(batch))) {
                 return false;
             }
+
+            mergeBatch(batch, processes, index, modeled);
         }
+
         if (!isSecondary) {
-            for (Process process : processes) {
+            for (Process process : modeled) {
                 addMissingEmissions(process);
-                if(process.getProcessName().equalsIgnoreCase("energy")){
-                    existEnergy = true;
-                }
             }
-            if(!existEnergy) {
-                addMissingEnergies(secondaryData, processes);
+            if(!index.containsKey("energy")) {
+                addMissingEnergies(processes, index);
             }
         }
 
@@ -173,32 +463,22 @@ public class ProcessManager implements ProcessModeling {
     }
 
     /**
-     * Classifica um único processo com base nos dados fornecidos.
+     * Integra um lote de fluxos já classificados nos processos correspondentes.
      *
      * <p>Se o processo já existir, adiciona o fluxo correspondente. Caso contrário,
      * cria um novo processo e adiciona-o à lista.</p>
      *
-     * @param data      String que representa os dados do processo.
-     * @param processes Lista de processos onde o novo processo será adicionado.
-     * @return {@code true} se a classificação for bem-sucedida; {@code false} caso contrário.
+     * @param batch     O lote.
+     * @param processes Lista de processos onde os fluxos serão adicionados.
+     * @param index     Índice dos processos da lista pelo nome.
+     * @param modeled   Conjunto dos processos alterados durante a modelagem.
      */
-    private boolean classifyProcess(String data, List<Process> processes) {
-        try {
-            String[] dataSplit = splitData(data);
-            String processName = dataSplit[0];
-
-            Flow flow = classifier.classifyFlow(dataSplit);
-
-            Process process = getOrCreateProcess(processName, processes);
-            addFlowToExistingProcess(process, flow);
-
-            if (!isSecondary) {
-                addMissingInfo(flow, process);
-            }
-
-            return true;
-        } catch (Exception e) {
-            return false;
+    private void mergeBatch(FlowBatch batch, List<Process> processes, Map<String, Process> index,
+                            Set<Process> modeled) {
+        for (int i = 0; i < batch.size(); i++) {
+            Process process = getOrCreateProcess(batch.getProcessName(i), processes, index);
+            addFlowToExistingProcess(process, batch.getFlow(i));
+            modeled.add(process);
         }
     }
 
@@ -206,37 +486,36 @@ public class ProcessManager implements ProcessModeling {
      * Obtém um processo existente na lista ou cria um caso ele não exista.
      *
      * <p>Se o processo com o nome especificado já estiver presente na lista, ele é devolvido.
-     * Caso contrário, um novo processo é criado, adicionado à lista e devolvido.</p>
+     * Caso contrário, um novo processo é criado, adicionado à lista e ao índice e devolvido.</p>
      *
      * @param processName Nome do processo a ser procurado ou criado.
-     * @param processes   Lista onde o processo será buscado ou adicionado.
+     * @param processes   Lista onde o processo será adicionado.
+     * @param index       Índice dos processos da lista pelo nome.
      * @return O processo existente ou o novo processo criado.
      */
-    private Process getOrCreateProcess(String processName, List<Process> processes) {
-        Process existingProcess = getExistingProcess(processName, processes);
+    private Process getOrCreateProcess(String processName, List<Process> processes, Map<String, Process> index) {
+        Process existingProcess = getExistingProcess(processName, index);
         if (existingProcess != null) {
             return existingProcess;
         }
 
         Process newProcess = new Process(processName, new ArrayList<>(), new ArrayList<>());
         processes.add(newProcess);
+        index.put(indexKey(processName), newProcess);
         return newProcess;
     }
 
     /**
-     * Verifica se um processo com o nome especificado já existe na lista.
+     * Verifica se um processo com o nome especificado já existe no índice.
+     *
+     * <p>A comparação ignora maiúsculas e minúsculas.</p>
      *
      * @param processName Nome do processo a ser procurado.
-     * @param processes   Lista de processos onde a busca será realizada.
+     * @param index       Índice dos processos pelo nome.
      * @return O processo existente, se encontrado; caso contrário, {@code null}.
      */
-    private Process getExistingProcess(String processName, List<Process> processes) {
-        for (Process process : processes) {
-            if (process.getProcessName().equals(processName)) {
-                return process;
-            }
-        }
-        return null;
+    private Process getExistingProcess(String processName, Map<String, Process> index) {
+        return index.get(indexKey(processName));
     }
 
     /**
@@ -257,30 +536,53 @@ public class ProcessManager implements ProcessModeling {
     }
 
     /**
-     * Obtém a lista de fluxos secundários associados ao processo e ao tipo de fluxo especificado.
-     *
-     * <p>Se o fluxo for uma entrada, devolve os fluxos de entrada do processo secundário correspondente.
-     * Caso contrário, devolve os fluxos de saída.</p>
+     * Obtém o processo secundário com o nome especificado.
      *
      * @param processName Nome do processo a ser procurado.
-     * @param flow        Fluxo usado para determinar se entradas ou saídas devem ser devolvidas.
-     * @return Lista de fluxos secundários correspondentes.
-     */
-    private List<Flow> getSecondaryFlows(String processName, Flow flow) {
-        Process secondaryProcess = new Process();
-        List<Flow> list;
-        for (Process process : secondaryData) {
-            if (process.getProcessName().equals(processName)) {
-                secondaryProcess = process;
-            }
+     * @return O processo secundário correspondente, ou {@code null} se o processo não existir.
+     */
+    private ImmutableProcess getSecondaryProcess(String processName) {
+        return secondarySnapshot.getProcess(processName);
+    }
+
+    /**
+     * Copia os fluxos de um processo para outro, criando novos objetos {@link Flow}.
+     *
+     * @param source O processo de origem.
+     * @param target O processo de destino.
+     */
+    private static void copyFlows(ImmutableProcess source, Process target) {
+        for (FlowInterface flow : source.getInputs()) {
+            target.addInput(copyFlow(flow));
         }
+        for (FlowInterface flow : source.getOutputs()) {
+            target.addOutput(copyFlow(flow));
+        }
+    }
 
-        if (flow.getType().equals(Type.INPUT)) {
-            list = secondaryProcess.getInputs();
-        } else {
-            list = secondaryProcess.getOutputs();
+    /**
+     * Cria uma cópia alterável de um fluxo.
+     *
+     * @param flow O fluxo a ser copiado.
+     * @return A cópia do fluxo.
+     */
+    private static Flow copyFlow(FlowInterface flow) {
+        return new Flow(flow.getCategory(), flow.getName(), flow.getType(), flow.getValue(), flow.getUnit(), flow.getLossRate());
+    }
+
+    /**
+     * Preenche as informações em falta dos fluxos de um lote com base nos dados secundários.
+     *
+     * @param batch O lote.
+     * @return {@code false} se algum fluxo não puder ser completado; {@code true} caso contrário.
+     */
+    private boolean addMissingInfo(FlowBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (!addMissingInfo(batch.getFlow(i), batch.getProcessName(i))) {
+                return false;
+            }
         }
-        return list;
+        return true;
     }
 
     /**
@@ -289,23 +591,26 @@ public class ProcessManager implements ProcessModeling {
      * <p>Se o fluxo tiver valores em falta (ex.: valor, unidade), eles serão copiados
      * dos fluxos correspondentes dos processos secundários.</p>
      *
-     * @param flow    Fluxo a ser atualizado.
-     * @param process Processo ao qual o fluxo pertence.
+     * @param flow        Fluxo a ser atualizado.
+     * @param processName Nome do processo ao qual o fluxo pertence.
+     * @return {@code false} se o fluxo tiver valores em falta e não existir um processo secundário
+     * com o mesmo nome; {@code true} caso contrário.
      */
-    private void addMissingInfo(Flow flow, Process process) {
-        List<Flow> secondaryFlowData = getSecondaryFlows(process.getProcessName(), flow);
-
+    private boolean addMissingInfo(Flow flow, String processName) {
         if (flow.getValue() == 0.0) {
-            for (Flow secFlow : secondaryFlowData) {
-                if (secFlow.getName().equals(flow.getName())) {
-                    flow.setValue(secFlow.getValue());
-                    flow.setUnit(secFlow.getUnit());
-                    flow.setLossRate(secFlow.getLossRate());
+            ImmutableProcess secondaryProcess = getSecondaryProcess(processName);
+            if (secondaryProcess == null) {
+                return false;
+            }
 
-                    break;
-                }
+            ImmutableFlow secFlow = secondaryProcess.getFlow(flow.getType(), flow.getName());
+            if (secFlow != null) {
+                flow.setValue(secFlow.getValue());
+                flow.setUnit(secFlow.getUnit());
+                flow.setLossRate(secFlow.getLossRate());
             }
         }
+        return true;
     }
 
     /**
@@ -330,14 +635,13 @@ public class ProcessManager implements ProcessModeling {
      * <p>Se o processo primário não contiver um processo de energia este será adicionado.</p>
      *
      * @param primaryProcesses Processos primários a ser atualizados.
-     * @param secondaryProcesses Processo secundário a ser utilizado.
+     * @param primaryIndex     Índice dos processos primários pelo nome.
      */
-    private void addMissingEnergies(List<Process> secondaryProcesses, List<Process> primaryProcesses) {
-        for (Process secondaryProcess : secondaryProcesses) {
-            if(secondaryProcess.getProcessName().equalsIgnoreCase("energy")) {
-                primaryProcesses.add(secondaryProcess);
-                return;
-            }
+    private void addMissingEnergies(List<Process> primaryProcesses, Map<String, Process> primaryIndex) {
+        ImmutableProcess secondaryProcess = getSecondaryProcess("energy");
+        if (secondaryProcess != null) {
+            Process energyProcess = getOrCreateProcess(secondaryProcess.getProcessName(), primaryProcesses, primaryIndex);
+            copyFlows(secondaryProcess, energyProcess);
         }
     }
 
@@ -352,13 +656,7 @@ public class ProcessManager implements ProcessModeling {
      * @return {@code true} se uma emissão correspondente existir; {@code false} caso contrário.
      */
     private boolean hasEmission(Process process, Flow input) {
-        for (Flow output : process.getOutputs()) {
-            if (output.getCategory() == FlowCategory.EMISSION && output.getName().equals(input.getName())) {
-                return true;
-            }
-        }
-
-        return false;
+        return process.getFlow(Type.OUTPUT, input.getName(), FlowCategory.EMISSION) != null;
     }
 
     /**
@@ -371,18 +669,15 @@ public class ProcessManager implements ProcessModeling {
      * @param input   Fluxo de entrada para o qual as emissões serão buscadas.
      */
     private void addEmissionFromSecondary(Process process, Flow input) {
-        for (Process secondaryProcess : secondaryData) {
-            if (secondaryProcess.getProcessName().equals(process.getProcessName())) {
-                for (Flow secondaryFlow : secondaryProcess.getOutputs()) {
-                    if (secondaryFlow.getName().equals(input.getName()) && secondaryFlow.getCategory() == FlowCategory.EMISSION) {
-                        process.addOutput(secondaryFlow);
-
-                        break;
-                    }
-                }
-            }
+        ImmutableProcess secondaryProcess = getSecondaryProcess(process.getProcessName());
+        if (secondaryProcess == null) {
+            return;
         }
 
+        ImmutableFlow secondaryFlow = secondaryProcess.getFlow(Type.OUTPUT, input.getName(), FlowCategory.EMISSION);
+        if (secondaryFlow != null) {
+            process.addOutput(copyFlow(secondaryFlow));
+        }
     }
 
     /**
@@ -402,4 +697,61 @@ public class ProcessManager implements ProcessModeling {
     public void setSecondary(boolean secondary) {
         isSecondary = secondary;
     }
+
+    /**
+     * Devolve o número de linhas de cada lote de modelagem.
+     *
+     * @return O número de linhas por lote.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Define o número de linhas de cada lote de modelagem.
+     *
+     * @param batchSize Número de linhas por lote.
+     * @throws IllegalArgumentException Se {@code batchSize} não for positivo.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Lê linhas em lotes de {@code batchSize}, classificando-as com o {@code classifier} desta instância.
+     *
+     * <p>O mesmo lote é reutilizado por cada chamada a {@link #next()}. Depois de um lote inválido não são
+     * lidas mais linhas.</p>
+     */
+    private final class RowBatches implements Iterator<FlowBatch> {
+        private final Iterator<String> rows;
+        private final FlowBatch batch = new FlowBatch(batchSize);
+
+        private RowBatches(Iterator<String> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return batch.isValid() && rows.hasNext();
+        }
+
+        @Override
+        public FlowBatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            batch.clear();
+            while (batch.size() < batchSize && rows.hasNext()) {
+                if (!classifier.classifyRow(rows.next(), batch)) {
+                    break;
+                }
+            }
+            return batch;
+        }
+    }
 }
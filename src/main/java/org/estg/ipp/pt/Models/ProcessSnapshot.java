@@ -0,0 +1,213 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Interfaces.Models.FlowInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe {@code ProcessSnapshot} guarda os processos modelados (primários e secundários) num ficheiro
+ * binário compacto, que pode ser lido sem voltar a importar e classificar os ficheiros CSV.
+ *
+ * <p><b>Formato do ficheiro:</b></p>
+ * <ul>
+ *   <li>Cabeçalho: o número mágico {@code PCFS} e a versão do formato.</li>
+ *   <li>Tabela de nomes: cada nome de processo ou fluxo é guardado uma única vez, em UTF-8, e referido
+ *   pelo seu índice.</li>
+ *   <li>Processos secundários e primários: nome, número de entradas e de saídas e os respetivos fluxos.</li>
+ *   <li>Fluxos: ordinais da categoria, do tipo e da unidade, índice do nome, valor e taxa de perda.</li>
+ * </ul>
+ *
+ * <p>A leitura mapeia o ficheiro em memória e cria os processos diretamente a partir dos bytes mapeados;
+ * cada nome é criado uma única vez e partilhado por todos os processos e fluxos do ficheiro com o mesmo nome.</p>
+ *
+ * @see ProcessManager#saveSnapshot(String)
+ * @see ProcessManager#loadSnapshot(String)
+ */
+public final class ProcessSnapshot {
+    private static final int MAGIC = 0x50434653;
+    private static final short FORMAT_VERSION = 1;
+
+    private static final FlowCategory[] CATEGORIES = FlowCategory.values();
+    private static final Type[] TYPES = Type.values();
+    private static final UnitType[] UNITS = UnitType.values();
+
+    private final List<Process> secondaryProcesses;
+    private final List<Process> primaryProcesses;
+
+    private ProcessSnapshot(List<Process> secondaryProcesses, List<Process> primaryProcesses) {
+        this.secondaryProcesses = secondaryProcesses;
+        this.primaryProcesses = primaryProcesses;
+    }
+
+    /**
+     * Devolve os processos secundários lidos do ficheiro.
+     *
+     * @return Lista de processos secundários.
+     */
+    public List<Process> getSecondaryProcesses() {
+        return secondaryProcesses;
+    }
+
+    /**
+     * Devolve os processos primários lidos do ficheiro.
+     *
+     * @return Lista de processos primários.
+     */
+    public List<Process> getPrimaryProcesses() {
+        return primaryProcesses;
+    }
+
+    /**
+     * Escreve os processos secundários e primários num ficheiro binário.
+     *
+     * @param path      O caminho do ficheiro.
+     * @param secondary Os processos secundários.
+     * @param primary   Os processos primários.
+     * @throws IOException Se o ficheiro não puder ser escrito.
+     */
+    public static void write(Path path, List<? extends ProcessInterface> secondary,
+                             List<? extends ProcessInterface> primary) throws IOException {
+        Map<String, Integer> names = new HashMap<>();
+        List<String> nameTable = new ArrayList<>();
+        addNames(secondary, names, nameTable);
+        addNames(primary, names, nameTable);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+
+            out.writeInt(nameTable.size());
+            for (String name : nameTable) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            writeProcesses(out, secondary, names);
+            writeProcesses(out, primary, names);
+        }
+    }
+
+    private static void addNames(List<? extends ProcessInterface> processes, Map<String, Integer> names,
+                                 List<String> nameTable) {
+        for (ProcessInterface process : processes) {
+            addName(process.getProcessName(), names, nameTable);
+            for (FlowInterface flow : process.getInputs()) {
+                addName(flow.getName(), names, nameTable);
+            }
+            for (FlowInterface flow : process.getOutputs()) {
+                addName(flow.getName(), names, nameTable);
+            }
+        }
+    }
+
+    private static void addName(String name, Map<String, Integer> names, List<String> nameTable) {
+        if (!names.containsKey(name)) {
+            names.put(name, nameTable.size());
+            nameTable.add(name);
+        }
+    }
+
+    private static void writeProcesses(DataOutputStream out, List<? extends ProcessInterface> processes,
+                                       Map<String, Integer> names) throws IOException {
+        out.writeInt(processes.size());
+        for (ProcessInterface process : processes) {
+            out.writeInt(names.get(process.getProcessName()));
+            out.writeInt(process.getInputs().size());
+            out.writeInt(process.getOutputs().size());
+            for (FlowInterface flow : process.getInputs()) {
+                writeFlow(out, flow, names);
+            }
+            for (FlowInterface flow : process.getOutputs()) {
+                writeFlow(out, flow, names);
+            }
+        }
+    }
+
+    private static void writeFlow(DataOutputStream out, FlowInterface flow, Map<String, Integer> names) throws IOException {
+        out.writeByte(flow.getCategory().ordinal());
+        out.writeByte(flow.getType().ordinal());
+        out.writeByte(flow.getUnit().ordinal());
+        out.writeInt(names.get(flow.getName()));
+        out.writeDouble(flow.getValue());
+        out.writeDouble(flow.getLossRate());
+    }
+
+    /**
+     * Lê um ficheiro binário escrito por {@link #write(Path, List, List)}.
+     *
+     * @param path O caminho do ficheiro.
+     * @return Os processos lidos; as listas de processos e de fluxos podem ser alteradas.
+     * @throws IOException Se o ficheiro não puder ser lido ou não tiver o formato esperado.
+     */
+    public static ProcessSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file is too large: " + path);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 6 || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                throw new IOException("Invalid snapshot file: " + path);
+            }
+
+            String[] names = readNames(buffer);
+            List<Process> secondary = readProcesses(buffer, names);
+            List<Process> primary = readProcesses(buffer, names);
+            return new ProcessSnapshot(secondary, primary);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupted snapshot file: " + path, e);
+        }
+    }
+
+    private static String[] readNames(MappedByteBuffer buffer) {
+        String[] names = new String[buffer.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    private static List<Process> readProcesses(MappedByteBuffer buffer, String[] names) {
+        int count = buffer.getInt();
+        List<Process> processes = new ArrayList<>(Math.min(count, buffer.remaining()));
+        for (int i = 0; i < count; i++) {
+            String processName = names[buffer.getInt()];
+            int inputCount = buffer.getInt();
+            int outputCount = buffer.getInt();
+            processes.add(new Process(processName, readFlows(buffer, names, inputCount), readFlows(buffer, names, outputCount)));
+        }
+        return processes;
+    }
+
+    private static List<Flow> readFlows(MappedByteBuffer buffer, String[] names, int count) {
+        List<Flow> flows = new ArrayList<>(Math.min(count, buffer.remaining()));
+        for (int i = 0; i < count; i++) {
+            FlowCategory category = CATEGORIES[buffer.get()];
+            Type type = TYPES[buffer.get()];
+            UnitType unit = UNITS[buffer.get()];
+            String name = names[buffer.getInt()];
+            flows.add(new Flow(category, name, type, buffer.getDouble(), unit, buffer.getDouble()));
+        }
+        return flows;
+    }
+}
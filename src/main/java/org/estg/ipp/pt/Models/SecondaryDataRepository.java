@@ -0,0 +1,154 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Import.Import;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * A classe {@code SecondaryDataRepository} guarda os processos secundários (fatores de emissão) de forma
+ * imutável e versionada, para que possam ser carregados uma única vez e partilhados por vários
+ * {@link ProcessManager}, incluindo em threads diferentes.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Carregar os processos a partir de uma lista já modelada ({@link #load(List)}) ou de um ficheiro
+ *   CSV de dados secundários ({@link #reload(String)}).</li>
+ *   <li>Obter uma {@link Snapshot} consistente dos processos, com pesquisa pelo nome em tempo constante.</li>
+ *   <li>Identificar cada carregamento por um número de versão crescente.</li>
+ * </ul>
+ *
+ * <p>Cada carregamento guarda os processos como {@link ImmutableProcess}, com fluxos {@link ImmutableFlow};
+ * os processos e os fluxos que já são imutáveis são reutilizados sem cópia. Os nomes dos processos e dos
+ * fluxos são guardados na {@link SymbolTable} global, para que sejam partilhados por todas as versões; os
+ * dados primários não passam por esta tabela, que nunca remove nomes. A publicação de uma nova versão é atómica; quem já obteve uma {@link Snapshot} continua a ver a versão
+ * anterior até pedir uma nova.</p>
+ *
+ * @see ProcessManager
+ */
+public final class SecondaryDataRepository {
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, List.of()));
+
+    /**
+     * Devolve a versão atual dos dados secundários.
+     *
+     * @return A {@link Snapshot} atual.
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Devolve o número da versão atual; cada carregamento incrementa a versão.
+     *
+     * @return A versão atual.
+     */
+    public long getVersion() {
+        return snapshot.get().getVersion();
+    }
+
+    /**
+     * Devolve os processos secundários da versão atual.
+     *
+     * @return Uma lista imutável de processos.
+     */
+    public List<ImmutableProcess> getProcesses() {
+        return snapshot.get().getProcesses();
+    }
+
+    /**
+     * Publica uma nova versão com cópias imutáveis dos processos fornecidos.
+     *
+     * <p>Os processos que já pertencem a uma versão deste ou de outro repositório não podem ser alterados e
+     * são reutilizados sem cópia, pelo que uma nova versão só ocupa memória com os processos alterados.</p>
+     *
+     * @param processes Os processos secundários.
+     * @return O número da nova versão.
+     */
+    public long load(List<? extends ProcessInterface> processes) {
+        List<ImmutableProcess> copies = new ArrayList<>(processes.size());
+        for (ProcessInterface process : processes) {
+            copies.add(ImmutableProcess.of(process));
+        }
+
+        return snapshot.updateAndGet(current -> new Snapshot(current.getVersion() + 1, copies)).getVersion();
+    }
+
+    /**
+     * Lê e modela um ficheiro CSV de dados secundários e publica-o como uma nova versão.
+     *
+     * <p>Se o ficheiro não puder ser lido ou modelado, a versão atual mantém-se.</p>
+     *
+     * @param path O caminho do ficheiro CSV de dados secundários.
+     * @return {@code true} se os dados forem carregados; {@code false} caso contrário.
+     */
+    public boolean reload(String path) {
+        ProcessManager processManager = new ProcessManager();
+        try (Stream<String> rows = new Import().streamCSV(path)) {
+            if (!processManager.modeling(rows)) {
+                return false;
+            }
+        }
+
+        load(processManager.getSecondaryProcesses());
+        return true;
+    }
+
+    /**
+     * Publica uma nova versão sem processos.
+     */
+    public void clear() {
+        load(List.of());
+    }
+
+    /**
+     * Versão imutável dos dados secundários.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<ImmutableProcess> processes;
+        private final Map<String, ImmutableProcess> index = new HashMap<>();
+
+        private Snapshot(long version, List<ImmutableProcess> processes) {
+            this.version = version;
+            this.processes = Collections.unmodifiableList(processes);
+            for (ImmutableProcess process : processes) {
+                index.putIfAbsent(process.getProcessName().toLowerCase(), process);
+            }
+        }
+
+        /**
+         * Devolve o número desta versão.
+         *
+         * @return A versão.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Devolve os processos desta versão.
+         *
+         * @return Uma lista imutável de processos.
+         */
+        public List<ImmutableProcess> getProcesses() {
+            return processes;
+        }
+
+        /**
+         * Procura um processo pelo nome, sem distinção entre maiúsculas e minúsculas.
+         *
+         * @param processName O nome do processo.
+         * @return O processo, ou {@code null} se não existir.
+         */
+        public ImmutableProcess getProcess(String processName) {
+            return index.get(processName.toLowerCase());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.estg.ipp.pt.Models;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A classe {@code SymbolTable} associa cada nome (de um fluxo ou de um processo) a um identificador
+ * inteiro único e guarda uma única instância de cada nome.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Obter o identificador de um nome, atribuindo um novo na primeira vez ({@link #intern(String)}).</li>
+ *   <li>Obter o nome a partir do identificador ({@link #getName(int)}), com uma leitura de array.</li>
+ *   <li>Obter a instância partilhada de um nome ({@link #canonical(String)}), para que fluxos com o mesmo
+ *   nome não guardem cópias diferentes da mesma string.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code ids}: Identificador de cada nome.</li>
+ *   <li>{@code names}: Nome de cada identificador; o array é substituído por um maior quando fica cheio.</li>
+ * </ul>
+ *
+ * <p>As pesquisas não usam locks e podem ser feitas por várias threads; só a atribuição de um novo
+ * identificador é sincronizada. Os nomes nunca são removidos, pelo que a tabela deve ser usada para
+ * nomes que se repetem (ex.: {@code ELECTRICITY}, {@code LEATHER}) e não para texto arbitrário.</p>
+ *
+ * @see SecondaryDataRepository
+ */
+public final class SymbolTable {
+    private static final SymbolTable GLOBAL = new SymbolTable();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    /**
+     * Devolve a tabela partilhada por toda a aplicação.
+     *
+     * @return A tabela global.
+     */
+    public static SymbolTable global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Devolve o identificador de um nome, atribuindo um novo se o nome ainda não existir.
+     *
+     * @param name O nome.
+     * @return O identificador do nome.
+     * @throws IllegalArgumentException Se o nome for {@code null}.
+     */
+    public int intern(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null");
+        }
+
+        Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    private synchronized int add(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        // O nome é guardado antes de o identificador ficar visível em ids
+        names[size] = name;
+        ids.put(name, size);
+        return size++;
+    }
+
+    /**
+     * Devolve o nome associado a um identificador.
+     *
+     * @param id O identificador.
+     * @return O nome.
+     * @throws IndexOutOfBoundsException Se o identificador não tiver sido atribuído.
+     */
+    public String getName(int id) {
+        String[] current = names;
+        String name = id >= 0 && id < current.length ? current[id] : null;
+        if (name == null) {
+            throw new IndexOutOfBoundsException("Unknown symbol id: " + id);
+        }
+        return name;
+    }
+
+    /**
+     * Devolve a instância partilhada de um nome.
+     *
+     * @param name O nome.
+     * @return Uma string igual a {@code name}, a mesma para todas as chamadas com nomes iguais.
+     */
+    public String canonical(String name) {
+        return getName(intern(Objects.requireNonNull(name, "Name cannot be null")));
+    }
+
+    /**
+     * Devolve o número de nomes guardados.
+     *
+     * @return O número de nomes.
+     */
+    public int size() {
+        return ids.size();
+    }
+}
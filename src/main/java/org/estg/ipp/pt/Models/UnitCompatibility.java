@@ -0,0 +1,123 @@
+package org.estg.ipp.pt.Models;
+
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.UnitType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A classe {@code UnitCompatibility} guarda as unidades aceites para cada categoria de fluxo, usadas na
+ * validação de cada {@link Flow}.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Verificar se uma unidade é aceite para uma categoria com duas leituras de arrays.</li>
+ *   <li>Aceitar novas unidades para uma categoria durante a execução ({@link #allow(FlowCategory, UnitType)})
+ *   e repor a tabela por omissão ({@link #reset()}).</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code bits}: Para cada categoria (pelo ordinal), uma máscara com um bit por ordinal de {@link UnitType};
+ *   por isso, {@link UnitType} não pode ter mais do que 64 constantes, o que é verificado ao carregar a classe.</li>
+ *   <li>{@code units}: Para cada categoria, as unidades aceites pela ordem em que foram acrescentadas,
+ *   usadas apenas nas mensagens de erro.</li>
+ * </ul>
+ *
+ * <p>A tabela é imutável e é substituída por inteiro quando uma unidade é acrescentada, pelo que as
+ * verificações não precisam de sincronização.</p>
+ *
+ * @see Flow#isUnitAllowed(FlowCategory, UnitType)
+ */
+public final class UnitCompatibility {
+    static {
+        if (UnitType.values().length > Long.SIZE) {
+            throw new IllegalStateException("UnitCompatibility supports at most " + Long.SIZE + " unit types");
+        }
+    }
+
+    private static volatile UnitCompatibility table = defaultTable();
+
+    private final long[] bits;
+    private final Map<FlowCategory, List<UnitType>> units;
+
+    private UnitCompatibility(long[] bits, Map<FlowCategory, List<UnitType>> units) {
+        this.bits = bits;
+        this.units = units;
+    }
+
+    private static UnitCompatibility defaultTable() {
+        UnitCompatibility table = new UnitCompatibility(new long[FlowCategory.values().length], new EnumMap<>(FlowCategory.class));
+        table = table.with(FlowCategory.TRANSPORT, UnitType.KM, UnitType.NONE);
+        table = table.with(FlowCategory.EMISSION, UnitType.KGCO2EQ, UnitType.KGCO2TONELADAKM, UnitType.GCO2EQKWH, UnitType.NONE);
+        table = table.with(FlowCategory.MATERIAL, UnitType.KG, UnitType.NONE);
+        table = table.with(FlowCategory.ENERGY, UnitType.KWH, UnitType.GCO2EQKWH, UnitType.NONE);
+        return table.with(FlowCategory.WASTE, UnitType.KG, UnitType.NONE);
+    }
+
+    /**
+     * Cria uma cópia da tabela com as unidades acrescentadas à categoria.
+     */
+    private UnitCompatibility with(FlowCategory category, UnitType... added) {
+        long[] newBits = Arrays.copyOf(bits, bits.length);
+        Map<FlowCategory, List<UnitType>> newUnits = new EnumMap<>(units);
+        List<UnitType> categoryUnits = new ArrayList<>(units.getOrDefault(category, List.of()));
+
+        for (UnitType unit : added) {
+            if ((newBits[category.ordinal()] & (1L << unit.ordinal())) == 0) {
+                newBits[category.ordinal()] |= 1L << unit.ordinal();
+                categoryUnits.add(unit);
+            }
+        }
+
+        newUnits.put(category, List.copyOf(categoryUnits));
+        return new UnitCompatibility(newBits, newUnits);
+    }
+
+    /**
+     * Verifica se uma unidade é aceite para uma categoria de fluxo.
+     *
+     * @param category Categoria do fluxo.
+     * @param unit     Unidade do fluxo.
+     * @return {@code true} se a unidade for aceite; {@code false} caso contrário.
+     */
+    public static boolean isAllowed(FlowCategory category, UnitType unit) {
+        return (table.bits[category.ordinal()] & (1L << unit.ordinal())) != 0;
+    }
+
+    /**
+     * Devolve as unidades aceites para uma categoria de fluxo.
+     *
+     * @param category Categoria do fluxo.
+     * @return Uma lista imutável com as unidades aceites.
+     */
+    public static List<UnitType> getAllowedUnits(FlowCategory category) {
+        return table.units.getOrDefault(category, List.of());
+    }
+
+    /**
+     * Passa a aceitar uma unidade para uma categoria de fluxo, para todos os fluxos criados a seguir.
+     *
+     * @param category Categoria do fluxo.
+     * @param unit     Unidade a aceitar.
+     * @throws IllegalArgumentException Se a categoria ou a unidade forem {@code null}.
+     */
+    public static synchronized void allow(FlowCategory category, UnitType unit) {
+        if (category == null || unit == null) {
+            throw new IllegalArgumentException("Flow category and unit cannot be null");
+        }
+        table = table.with(category, unit);
+    }
+
+    /**
+     * Repõe as unidades aceites por omissão, descartando as acrescentadas com
+     * {@link #allow(FlowCategory, UnitType)}.
+     */
+    public static synchronized void reset() {
+        table = defaultTable();
+    }
+}
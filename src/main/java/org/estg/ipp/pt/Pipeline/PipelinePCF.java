@@ -0,0 +1,280 @@
+package org.estg.ipp.pt.Pipeline;
+
+import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Import.Import;
+import org.estg.ipp.pt.Interfaces.Calculo.Resultado;
+import org.estg.ipp.pt.Interfaces.Import.ImportInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+import org.estg.ipp.pt.Interfaces.Models.ProcessModeling;
+import org.estg.ipp.pt.Models.FlowBatch;
+import org.estg.ipp.pt.Models.FlowClassifier;
+import org.estg.ipp.pt.Models.ProcessManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A classe {@code PipelinePCF} executa a importação, a modelagem e o cálculo do PCF em etapas que correm
+ * ao mesmo tempo, ligadas por filas limitadas, em vez de esperar que cada etapa termine por completo.
+ *
+ * <p><b>Funcionalidades:</b></p>
+ * <ul>
+ *   <li>Ler, dividir em campos e classificar as linhas dos ficheiros secundário e primário, cada um na sua
+ *   thread, enquanto a modelagem integra os lotes já classificados.</li>
+ *   <li>Limitar a memória usada: quando uma fila está cheia, a leitura espera pela modelagem.</li>
+ *   <li>Calcular o PCF assim que a modelagem termina, com o mesmo resultado da execução sequencial.</li>
+ *   <li>Usar threads virtuais quando a JVM as suporta (Java 21 ou superior) e threads normais caso contrário.</li>
+ * </ul>
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code importer}: {@link ImportInterface} usado para ler os ficheiros em streaming.</li>
+ *   <li>{@code processModeling}: {@link ProcessModeling} que modela os dados secundários e depois os primários.</li>
+ *   <li>{@code calculo}: {@link Resultado} onde o PCF é calculado e guardado.</li>
+ *   <li>{@code queueCapacity}: Número máximo de lotes em cada fila.</li>
+ *   <li>{@code batchSize}: Número de linhas de cada lote.</li>
+ * </ul>
+ *
+ * <p>Cada etapa de leitura usa o seu próprio {@link FlowClassifier} e coloca na fila lotes de
+ * {@link FlowBatch} já classificados; uma linha inválida termina a leitura com um lote inválido. A leitura
+ * do ficheiro primário começa logo e fica à espera na sua fila enquanto os dados secundários são modelados.</p>
+ *
+ * <p>Continua a correr na thread que chama {@link #run(String, String)}, pela ordem da execução sequencial:
+ * o preenchimento dos valores em falta dos fluxos primários, que depende dos dados secundários completos;
+ * a integração dos fluxos nos processos; o acréscimo das emissões e do processo de energia; e o cálculo do
+ * PCF, que só começa quando a modelagem termina.</p>
+ *
+ * @see RowQueue
+ */
+public final class PipelinePCF {
+    /**
+     * Número de lotes em cada fila, por omissão.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final ThreadFactory STAGE_THREADS;
+    private static final boolean VIRTUAL_THREADS;
+
+    static {
+        ThreadFactory virtualThreads = virtualThreadFactory();
+        VIRTUAL_THREADS = virtualThreads != null;
+        STAGE_THREADS = VIRTUAL_THREADS ? virtualThreads : runnable -> {
+            Thread thread = new Thread(runnable, "pcf-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final ImportInterface importer;
+    private final ProcessModeling processModeling;
+    private final Resultado calculo;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int batchSize = ProcessManager.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Construtor padrão da classe {@code PipelinePCF}, com um {@link Import}, um {@link ProcessManager}
+     * e um {@link Calculo} novos.
+     */
+    public PipelinePCF() {
+        this(new Import(), new ProcessManager(), new Calculo());
+    }
+
+    /**
+     * Construtor da classe {@code PipelinePCF}.
+     *
+     * @param importer        O importador dos ficheiros CSV.
+     * @param processModeling A modelagem dos processos, ainda sem dados secundários.
+     * @param calculo         O cálculo do PCF.
+     * @throws IllegalArgumentException Se algum parâmetro for {@code null}.
+     */
+    public PipelinePCF(ImportInterface importer, ProcessModeling processModeling, Resultado calculo) {
+        if (importer == null || processModeling == null || calculo == null) {
+            throw new IllegalArgumentException("Pipeline stages cannot be null");
+        }
+
+        this.importer = importer;
+        this.processModeling = processModeling;
+        this.calculo = calculo;
+    }
+
+    /**
+     * Devolve a fábrica de threads virtuais, se {@code Thread.ofVirtual()} existir e estiver ativo;
+     * caso contrário, as etapas usam threads daemon normais.
+     *
+     * @return A fábrica de threads virtuais ou {@code null}.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Indica se as etapas correm em threads virtuais.
+     *
+     * @return {@code true} se a JVM suportar threads virtuais; {@code false} caso contrário.
+     */
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Importa e modela os dados secundários e primários e calcula o PCF.
+     *
+     * <p>O resultado fica disponível em {@link #getCalculo()} e os processos em {@link #getProcessModeling()}.</p>
+     *
+     * @param secondaryPath O caminho do ficheiro com os dados secundários.
+     * @param primaryPath   O caminho do ficheiro com os dados primários.
+     * @return {@code true} se as duas modelagens forem bem-sucedidas e o PCF for calculado;
+     * {@code false} caso contrário.
+     * @throws IllegalArgumentException Se os processos modelados não permitirem calcular o PCF.
+     */
+    public boolean run(String secondaryPath, String primaryPath) {
+        RowQueue secondaryRows = new RowQueue(queueCapacity);
+        RowQueue primaryRows = new RowQueue(queueCapacity);
+        Thread secondaryReader = startReader(secondaryPath, secondaryRows);
+        Thread primaryReader = startReader(primaryPath, primaryRows);
+
+        boolean isSuccess = false;
+        try {
+            isSuccess = model(secondaryRows) && model(primaryRows);
+        } finally {
+            stop(secondaryReader, !isSuccess);
+            stop(primaryReader, !isSuccess);
+        }
+
+        if (isSuccess) {
+            List<ProcessInterface> processes = new ArrayList<>(processModeling.getPrimaryProcesses());
+            calculo.calculatePCFvalue(processes);
+        }
+        return isSuccess;
+    }
+
+    /**
+     * Inicia a etapa de leitura de um ficheiro.
+     */
+    private Thread startReader(String path, RowQueue rows) {
+        Thread reader = STAGE_THREADS.newThread(() -> read(path, rows));
+        reader.start();
+        return reader;
+    }
+
+    /**
+     * Lê e classifica as linhas de um ficheiro, colocando-as na fila em lotes de {@code batchSize}.
+     * Uma linha inválida termina a leitura com um lote inválido; um erro de leitura termina a fila com o erro.
+     */
+    private void read(String path, RowQueue rows) {
+        try {
+            try (Stream<String> data = importer.streamCSV(path)) {
+                FlowClassifier classifier = new FlowClassifier();
+                FlowBatch batch = new FlowBatch(batchSize);
+                Iterator<String> iterator = data.iterator();
+                while (iterator.hasNext() && classifier.classifyRow(iterator.next(), batch)) {
+                    if (batch.size() == batchSize) {
+                        rows.put(batch);
+                        batch = new FlowBatch(batchSize);
+                    }
+                }
+                if (!batch.isValid() || !batch.isEmpty()) {
+                    rows.put(batch);
+                }
+            } catch (RuntimeException e) {
+                rows.fail(e);
+                return;
+            }
+            rows.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean model(RowQueue rows) {
+        Spliterator<FlowBatch> spliterator = Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL);
+        return processModeling.modelingBatches(StreamSupport.stream(spliterator, false));
+    }
+
+    /**
+     * Espera pelo fim de uma etapa de leitura, interrompendo-a primeiro se os dados já não forem consumidos.
+     */
+    private static void stop(Thread reader, boolean interrupt) {
+        if (interrupt) {
+            reader.interrupt();
+        }
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Devolve a modelagem dos processos usada pela pipeline.
+     *
+     * @return A modelagem dos processos.
+     */
+    public ProcessModeling getProcessModeling() {
+        return processModeling;
+    }
+
+    /**
+     * Devolve o cálculo do PCF usado pela pipeline.
+     *
+     * @return O cálculo, com o resultado da última execução.
+     */
+    public Resultado getCalculo() {
+        return calculo;
+    }
+
+    /**
+     * Devolve o número máximo de lotes em cada fila.
+     *
+     * @return Número de lotes.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Define o número máximo de lotes em cada fila.
+     *
+     * @param queueCapacity Número de lotes.
+     * @throws IllegalArgumentException Se {@code queueCapacity} não for positivo.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Devolve o número de linhas de cada lote.
+     *
+     * @return Número de linhas por lote.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Define o número de linhas de cada lote.
+     *
+     * @param batchSize Número de linhas por lote.
+     * @throws IllegalArgumentException Se {@code batchSize} não for positivo.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,112 @@
+package org.estg.ipp.pt.Pipeline;
+
+import org.estg.ipp.pt.Models.FlowBatch;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A classe {@code RowQueue} liga duas etapas de {@link PipelinePCF}: a etapa de leitura coloca na fila os
+ * lotes de linhas já classificadas e a etapa de modelagem consome-os, um a um, através de um {@link Iterator}.
+ *
+ * <p><b>Estrutura Interna:</b></p>
+ * <ul>
+ *   <li>{@code batches}: Fila limitada de lotes; quando está cheia, {@link #put(FlowBatch)} bloqueia a etapa
+ *   de leitura até a modelagem consumir um lote.</li>
+ *   <li>{@code current}: Próximo lote a ser devolvido à etapa de modelagem.</li>
+ * </ul>
+ *
+ * <p>O fim dos dados é marcado com um lote próprio ({@link #close()}); um erro da etapa de leitura é passado
+ * à etapa de modelagem ({@link #fail(RuntimeException)}) e lançado por {@link #hasNext()}. Cada lado da fila
+ * deve ser usado por uma única thread.</p>
+ */
+final class RowQueue implements Iterator<FlowBatch> {
+    private static final FlowBatch END = new FlowBatch(0);
+
+    private final BlockingQueue<FlowBatch> batches;
+    private volatile RuntimeException failure;
+
+    private FlowBatch current;
+    private boolean finished;
+
+    /**
+     * Construtor da classe {@code RowQueue}.
+     *
+     * @param capacity Número máximo de lotes na fila.
+     */
+    RowQueue(int capacity) {
+        this.batches = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Coloca um lote na fila; o lote não deve ser alterado depois.
+     *
+     * @param batch O lote.
+     * @throws InterruptedException Se a thread for interrompida enquanto espera por espaço na fila.
+     */
+    void put(FlowBatch batch) throws InterruptedException {
+        batches.put(batch);
+    }
+
+    /**
+     * Coloca na fila a marca de fim dos dados.
+     *
+     * @throws InterruptedException Se a thread for interrompida enquanto espera por espaço na fila.
+     */
+    void close() throws InterruptedException {
+        batches.put(END);
+    }
+
+    /**
+     * Termina os dados com um erro, que é lançado à etapa de modelagem.
+     *
+     * @param error O erro da etapa de leitura.
+     * @throws InterruptedException Se a thread for interrompida enquanto espera por espaço na fila.
+     */
+    void fail(RuntimeException error) throws InterruptedException {
+        failure = error;
+        batches.put(END);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Bloqueia até existir um lote na fila.</p>
+     *
+     * @throws IllegalStateException Se a thread for interrompida enquanto espera.
+     */
+    @Override
+    public boolean hasNext() {
+        if (!finished && current == null) {
+            current = take();
+            if (current == END) {
+                finished = true;
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        }
+        return !finished;
+    }
+
+    private FlowBatch take() {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipeline interrupted", e);
+        }
+    }
+
+    @Override
+    public FlowBatch next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FlowBatch batch = current;
+        current = null;
+        return batch;
+    }
+}
@@ -1,17 +1,32 @@
 package org.estg.ipp.pt;
 
 import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Calculo.CalculoFlowInefficiency;
+import org.estg.ipp.pt.Calculo.CalculoIncremental;
+import org.estg.ipp.pt.Calculo.FlowColumns;
+import org.estg.ipp.pt.Calculo.Hotspots;
+import org.estg.ipp.pt.Calculo.ResultadoPCF;
 import org.estg.ipp.pt.Enums.FlowCategory;
 import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Export.FilterOptions;
+import org.estg.ipp.pt.Export.ProcessFilter;
+import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
 import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
 import org.estg.ipp.pt.Models.Flow;
 import org.estg.ipp.pt.Models.Process;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -418,4 +433,248 @@ class CalculoTest {
         });
     }
 
+    @Test
+    void testParallelCalculoMatchesSequential() {
+        List<ProcessInterface> processes = syntheticProcesses(5000, 42);
+
+        double sequential = new Calculo().calculatePCFvalue(processes);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Calculo parallelCalculo = new Calculo(pool);
+            double parallel = parallelCalculo.calculatePCFvalue(processes);
+
+            assertEquals(Double.doubleToLongBits(sequential), Double.doubleToLongBits(parallel));
+            assertEquals(5001, parallelCalculo.getResultadoPerProcess().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCalculoDoesNotAccumulate() throws Exception {
+        List<ProcessInterface> processes = syntheticProcesses(200, 7);
+
+        double first = calculo.calculatePCFvalue(processes);
+        double second = calculo.calculatePCFvalue(processes);
+        assertEquals(first, second);
+        assertEquals(first, calculo.getResultado());
+
+        ResultadoPCF expected = calculo.calculate(processes);
+        List<Future<ResultadoPCF>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> calculo.calculate(processes)));
+            }
+            for (Future<ResultadoPCF> result : results) {
+                assertEquals(expected.getResultado(), result.get().getResultado());
+                assertEquals(expected.getResultadoPerProcess(), result.get().getResultadoPerProcess());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThrows(UnsupportedOperationException.class, () -> expected.getResultadoPerProcess().put("cutting", 0.0));
+    }
+
+    @Test
+    void testCalculateBatch() {
+        List<ProcessInterface> base = syntheticProcesses(500, 11);
+        List<List<ProcessInterface>> variants = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            List<ProcessInterface> variant = new ArrayList<>(base);
+            variant.set(5 + i, syntheticProcesses(6, i).get(5));
+            variants.add(variant);
+        }
+
+        List<ResultadoPCF> results = calculo.calculateBatch(variants);
+
+        assertEquals(variants.size(), results.size());
+        for (int i = 0; i < variants.size(); i++) {
+            ResultadoPCF expected = new Calculo().calculate(variants.get(i));
+            assertEquals(expected.getResultado(), results.get(i).getResultado());
+            assertEquals(expected.getResultadoPerProcess(), results.get(i).getResultadoPerProcess());
+        }
+    }
+
+    @Test
+    void testIncrementalCalculo() {
+        List<ProcessInterface> processes = syntheticProcesses(300, 3);
+        CalculoIncremental incremental = calculo.calculateIncremental(processes);
+        assertEquals(calculo.calculate(processes).getResultado(), incremental.getResultado(), 1e-6);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            Process process = (Process) processes.get(random.nextInt(processes.size()));
+            List<Flow> flows = random.nextBoolean() ? process.getInputs() : process.getOutputs();
+            Flow flow = flows.get(random.nextInt(flows.size()));
+            if (random.nextBoolean()) {
+                incremental.setFlowValue(flow, random.nextDouble() * 10);
+            } else {
+                incremental.setFlowLossRate(flow, random.nextDouble() * 0.5);
+            }
+        }
+
+        ResultadoPCF expected = calculo.calculate(processes);
+        assertEquals(expected.getResultado(), incremental.getResultado(), Math.abs(expected.getResultado()) * 1e-12);
+        assertEquals(expected.getResultadoPerProcess().get("cutting"), incremental.getResultado("CUTTING"),
+                Math.abs(expected.getResultado()) * 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> incremental.setFlowValue(((Process) processes.get(1)).getInputs().get(0), -1));
+    }
+
+    @Test
+    void testColumnarCalculoMatchesObjects() {
+        List<ProcessInterface> processes = syntheticProcesses(2000, 13);
+        FlowColumns columns = calculo.toColumns(processes);
+
+        ResultadoPCF expected = calculo.calculate(processes);
+        ResultadoPCF sequential = calculo.calculate(columns);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ResultadoPCF parallel;
+        try {
+            parallel = new Calculo(pool).calculate(columns);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2000 * 5 + 1, columns.getFlowCount());
+        assertEquals(Double.doubleToLongBits(expected.getResultado()), Double.doubleToLongBits(sequential.getResultado()));
+        assertEquals(Double.doubleToLongBits(expected.getResultado()), Double.doubleToLongBits(parallel.getResultado()));
+        assertEquals(expected.getResultadoPerProcess(), sequential.getResultadoPerProcess());
+    }
+
+    @Test
+    void testFilteredCalculoMatchesExportFilter() {
+        List<ProcessInterface> processes = syntheticProcesses(1000, 23);
+        ResultadoPCF full = calculo.calculate(processes);
+        double median = full.getResultadoPerProcess().values().stream().sorted().toList().get(500);
+
+        List<FilterOpt> filters = List.of(new FilterOptions(0, Double.MAX_VALUE, "cutting"),
+                new FilterOptions(0, median, null), new FilterOptions(median, median, "cutting"),
+                new FilterOptions(0, Double.MAX_VALUE, "missing"));
+        for (FilterOpt filter : filters) {
+            ResultadoPCF filtered = calculo.calculate(processes, filter);
+            Map<String, Double> expected = ProcessFilter.compile(filter).apply(full.getResultadoPerProcess());
+
+            assertEquals(expected, filtered.getResultadoPerProcess());
+            assertEquals(expected.values().stream().mapToDouble(Double::doubleValue).sum(), filtered.getResultado(),
+                    Math.abs(full.getResultado()) * 1e-12);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> calculo.calculate(processes, new FilterOptions(-1, 5, null)));
+        assertThrows(IllegalArgumentException.class, () -> calculo.calculate(processes, null));
+    }
+
+    @Test
+    void testHotspotsMatchFullSort() {
+        List<ProcessInterface> processes = syntheticProcesses(2000, 31);
+        ResultadoPCF full = calculo.calculate(processes);
+
+        Hotspots hotspots = calculo.calculateHotspots(processes, 20);
+        assertEquals(Double.doubleToLongBits(full.getResultado()), Double.doubleToLongBits(hotspots.getResultado()));
+        assertEquals(full.getResultadoPerProcess().entrySet().stream()
+                        .sorted(Map.Entry.<String, Double>comparingByValue().reversed()).limit(20)
+                        .map(Map.Entry::getKey).toList(),
+                hotspots.getTopProcesses().stream().map(Hotspots.ProcessHotspot::getProcessName).toList());
+
+        List<Hotspots.FlowHotspot> allFlows = calculo.calculateHotspots(processes, Integer.MAX_VALUE).getTopFlows();
+        assertEquals(2000 * 5 + 1, allFlows.size());
+        assertEquals(allFlows.subList(0, 20).stream().map(Hotspots.FlowHotspot::getImpact).toList(),
+                hotspots.getTopFlows().stream().map(Hotspots.FlowHotspot::getImpact).toList());
+        for (Hotspots.FlowHotspot flow : hotspots.getTopFlows()) {
+            double inefficiency = calculo.calculateFlowInefficiency(flow.getFlow());
+            assertEquals(flow.getImpact(), inefficiency * flow.getEmissionFactor(), flow.getImpact() * 1e-12);
+        }
+
+        assertEquals(2001, calculo.calculateHotspots(processes, 5000).getTopProcesses().size());
+        assertThrows(IllegalArgumentException.class, () -> calculo.calculateHotspots(processes, 0));
+    }
+
+    @Test
+    void testBulkImpactsMatchPerFlow() {
+        assertBulkImpactsMatchPerFlow(new CalculoFlowInefficiency());
+    }
+
+    /**
+     * O cálculo escalar, usado quando o módulo {@code jdk.incubator.vector} não está disponível, tem de dar
+     * os mesmos resultados que o cálculo por fluxo e que o cálculo por omissão.
+     */
+    @Test
+    void testScalarFallbackMatchesPerFlow() {
+        CalculoFlowInefficiency scalar = new CalculoFlowInefficiency(false);
+        assertFalse(scalar.usesVectorKernel());
+        assertEquals(CalculoFlowInefficiency.isVectorized(), new CalculoFlowInefficiency().usesVectorKernel());
+        assertBulkImpactsMatchPerFlow(scalar);
+
+        double[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] lossRates = {0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+        double[] scalarInefficiencies = new double[values.length];
+        double[] scalarImpacts = new double[values.length];
+        double[] inefficiencies = new double[values.length];
+        double[] impacts = new double[values.length];
+        scalar.calculateImpacts(values, lossRates, lossRates, values, scalarInefficiencies, scalarImpacts, 0, values.length);
+        new CalculoFlowInefficiency().calculateImpacts(values, lossRates, lossRates, values, inefficiencies, impacts, 0, values.length);
+        assertArrayEquals(inefficiencies, scalarInefficiencies);
+        assertArrayEquals(impacts, scalarImpacts);
+    }
+
+    private static void assertBulkImpactsMatchPerFlow(CalculoFlowInefficiency calculoFlowInefficiency) {
+        Random random = new Random(17);
+        int size = 1003;
+        double[] values = new double[size];
+        double[] lossRates = new double[size];
+        double[] emissionValues = new double[size];
+        double[] emissionLossRates = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextDouble() * 1000;
+            lossRates[i] = random.nextDouble();
+            emissionValues[i] = random.nextDouble() * 10;
+            emissionLossRates[i] = random.nextDouble() * 0.1;
+        }
+
+        double[] inefficiencies = new double[size];
+        double[] impacts = new double[size];
+        calculoFlowInefficiency.calculateImpacts(values, lossRates, emissionValues, emissionLossRates,
+                inefficiencies, impacts, 1, size);
+
+        for (int i = 1; i < size; i++) {
+            Flow flow = new Flow(FlowCategory.MATERIAL, "material", Type.INPUT, values[i], UnitType.KG, lossRates[i]);
+            Flow emission = new Flow(FlowCategory.EMISSION, "material", Type.OUTPUT, emissionValues[i], UnitType.KGCO2EQ, emissionLossRates[i]);
+            assertEquals(Double.doubleToLongBits(calculoFlowInefficiency.calculateFlowInefficiency(flow)), Double.doubleToLongBits(inefficiencies[i]));
+            assertEquals(Double.doubleToLongBits(calculoFlowInefficiency.calculateImpact(flow, emission)), Double.doubleToLongBits(impacts[i]));
+        }
+        assertEquals(0.0, impacts[0]);
+    }
+
+    /**
+     * Cria uma lista de processos com os processos obrigatórios e {@code count} processos adicionais,
+     * cada um com entradas de energia e material e as respetivas emissões.
+     */
+    static List<ProcessInterface> syntheticProcesses(int count, long seed) {
+        Random random = new Random(seed);
+        List<ProcessInterface> processes = new ArrayList<>();
+        processes.add(new Process("energy",
+                new ArrayList<>(List.of(new Flow(FlowCategory.ENERGY, "energia", Type.INPUT, 14, UnitType.KWH, 0.1))),
+                new ArrayList<>(List.of(new Flow(FlowCategory.EMISSION, "energia", Type.OUTPUT, 0.6, UnitType.KGCO2EQ, 0)))));
+
+        List<String> names = new ArrayList<>(List.of("cutting", "stitching", "assembling", "package"));
+        for (int i = names.size(); i < count; i++) {
+            names.add("process" + i);
+        }
+
+        for (String name : names) {
+            List<Flow> inputs = new ArrayList<>();
+            List<Flow> outputs = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                String material = "material" + j;
+                inputs.add(new Flow(FlowCategory.MATERIAL, material, Type.INPUT,
+                        random.nextDouble() * 100, UnitType.KG, random.nextDouble() * 0.2));
+                outputs.add(new Flow(FlowCategory.EMISSION, material, Type.OUTPUT,
+                        random.nextDouble() * 1e-3, UnitType.KGCO2EQ, 0));
+            }
+            inputs.add(new Flow(FlowCategory.ENERGY, "energia", Type.INPUT, random.nextDouble() * 1e6, UnitType.KWH, 0.05));
+            processes.add(new Process(name, inputs, outputs));
+        }
+        return processes;
+    }
 }
@@ -1,11 +1,19 @@
 package org.estg.ipp.pt;
 
+import org.estg.ipp.pt.Enums.ClassificationStatus;
 import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.Type;
+import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Import.CsvTokenizer;
+import org.estg.ipp.pt.Models.ClassificationResult;
 import org.estg.ipp.pt.Models.Flow;
 import org.estg.ipp.pt.Models.FlowClassifier;
+import org.estg.ipp.pt.Models.UnitCompatibility;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
 import java.util.Arrays;
@@ -14,7 +22,11 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ClassifyTest {
 
@@ -28,6 +40,14 @@ public class ClassifyTest {
         flowClassifier = new FlowClassifier();
     }
 
+    /**
+     * Repõe as unidades aceites por omissão, que são partilhadas por toda a JVM
+     */
+    @AfterEach
+    void tearDown() {
+        UnitCompatibility.reset();
+    }
+
     /**
      * Test factory para testar casos de teste ECP válidos da funcionalidade classify
      *
@@ -173,5 +193,113 @@ public class ClassifyTest {
                         }
                 ));
     }
-}
 
+    /**
+     * Test factory que verifica que a classificação a partir de um {@link CsvTokenizer} produz o mesmo
+     * resultado que a classificação a partir de um array de strings
+     *
+     * @return stream de testes executados
+     */
+    @TestFactory
+    Stream<DynamicTest> dynamicTestsForClassifyTokenized() {
+        List<String> data = List.of(
+                "Cutting,Input,Material;Agriculture;Leather,100,kg,0.4",
+                "Cutting,Input,Energy;Electricity,10,kWh,0.12",
+                "Cutting,INPUT,Material;Leather",
+                "Cutting,Output,Material;Recycled; EVA,5,kg,0.2",
+                "Cutting,INPUT,Material, ,KG,1e-1",
+                "Energy,OUTPUT,Emission;biomass,0.105,GCO2EQKWH,0.1",
+                "Cutting,OUTPUT,Waste,-2,KG,1.0",
+                "Cutting,AHSQW,Energy,0,KM,1.0",
+                "Cutting,INPUT"
+        );
+
+        CsvTokenizer tokenizer = new CsvTokenizer(',');
+
+        return data.stream()
+                .map(line -> DynamicTest.dynamicTest("TOKENIZED_FLOW: " + line, () -> {
+                    Flow expected = flowClassifier.classifyFlow(line.split(","));
+                    Flow returned = flowClassifier.classifyFlow(tokenizer.tokenize(line));
+
+                    assertEquals(String.valueOf(expected), String.valueOf(returned), "Test failed for: " + line);
+                }));
+    }
+
+    /**
+     * Test factory que verifica o código de resultado da classificação para cada tipo de linha inválida,
+     * a partir de um {@link CsvTokenizer} e de um array de strings
+     *
+     * @return stream de testes executados
+     */
+    @TestFactory
+    Stream<DynamicTest> dynamicTestsForClassificationStatus() {
+        List<String> data = List.of(
+                "Cutting,input,material;leather,1.5,kg,0.1",
+                "Cutting",
+                "Cutting,Sideways,Material,1,KG,0",
+                "Cutting,Input,Plastic,1,KG,0",
+                "Cutting,Input,Material;;Leather,1,KG,0",
+                "Cutting,Input,Material,abc,KG,0",
+                "Cutting,Input,Material,-1,KG,0",
+                "Cutting,Input,Material,1,LBS,0",
+                "Cutting,Input,Material,1,KG,x",
+                "Cutting,Input,Material,1,KWH,0"
+        );
+
+        List<ClassificationStatus> outputs = List.of(ClassificationStatus.VALID, ClassificationStatus.MISSING_FIELDS,
+                ClassificationStatus.INVALID_TYPE, ClassificationStatus.INVALID_CATEGORY, ClassificationStatus.INVALID_NAME,
+                ClassificationStatus.INVALID_VALUE, ClassificationStatus.INVALID_VALUE, ClassificationStatus.INVALID_UNIT,
+                ClassificationStatus.INVALID_LOSS_RATE, ClassificationStatus.INCOMPATIBLE_UNIT);
+
+        CsvTokenizer tokenizer = new CsvTokenizer(',');
+
+        return IntStream.range(0, data.size())
+                .mapToObj(index -> DynamicTest.dynamicTest("STATUS_" + outputs.get(index) + ": " + data.get(index), () -> {
+                    String line = data.get(index);
+                    ClassificationResult tokenized = flowClassifier.classify(tokenizer.tokenize(line));
+                    ClassificationResult split = flowClassifier.classify(line.split(","));
+                    assertEquals(outputs.get(index), tokenized.getStatus(), "Test failed for: " + line);
+                    assertEquals(outputs.get(index), split.getStatus(), "Test failed for: " + line);
+                    assertEquals(outputs.get(index) == ClassificationStatus.VALID, tokenized.isValid());
+                    assertEquals(tokenized.isValid(), tokenized.getFlow() != null);
+                    assertEquals(split.isValid(), split.getFlow() != null);
+                }));
+    }
+
+    /**
+     * Testa que linhas com o mesmo nome de fluxo, em maiúsculas ou minúsculas, partilham a mesma string
+     */
+    @Test
+    void testClassifiedNamesAreShared() {
+        CsvTokenizer tokenizer = new CsvTokenizer(',');
+        Flow first = flowClassifier.classifyFlow(tokenizer.tokenize("Cutting,Input,Material;Leather,1,KG,0"));
+        Flow second = flowClassifier.classifyFlow(tokenizer.tokenize("Stitching,Input,Material;leather,2,KG,0"));
+
+        assertEquals("LEATHER", first.getName());
+        assertSame(first.getName(), second.getName(), "Expected the cached flow name to be reused");
+    }
+
+    /**
+     * Testa a tabela de unidades aceites para cada categoria e a adição de uma unidade durante a execução
+     */
+    @Test
+    void testUnitCompatibility() {
+        assertTrue(UnitCompatibility.isAllowed(FlowCategory.TRANSPORT, UnitType.KM));
+        assertFalse(UnitCompatibility.isAllowed(FlowCategory.TRANSPORT, UnitType.KG));
+        assertEquals(List.of(UnitType.KGCO2EQ, UnitType.KGCO2TONELADAKM, UnitType.GCO2EQKWH, UnitType.NONE),
+                UnitCompatibility.getAllowedUnits(FlowCategory.EMISSION));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new Flow(FlowCategory.WASTE, "SCRAP", Type.OUTPUT, 1, UnitType.KGCO2EQ, 0));
+        assertEquals("WASTE unit must be [KG, NONE]", e.getMessage());
+
+        UnitCompatibility.allow(FlowCategory.WASTE, UnitType.KGCO2EQ);
+        assertTrue(UnitCompatibility.isAllowed(FlowCategory.WASTE, UnitType.KGCO2EQ));
+        assertEquals(UnitType.KGCO2EQ, new Flow(FlowCategory.WASTE, "SCRAP", Type.OUTPUT, 1, UnitType.KGCO2EQ, 0).getUnit());
+        assertEquals(List.of(UnitType.KG, UnitType.NONE, UnitType.KGCO2EQ), UnitCompatibility.getAllowedUnits(FlowCategory.WASTE));
+
+        UnitCompatibility.reset();
+        assertFalse(UnitCompatibility.isAllowed(FlowCategory.WASTE, UnitType.KGCO2EQ));
+        assertEquals(List.of(UnitType.KG, UnitType.NONE), UnitCompatibility.getAllowedUnits(FlowCategory.WASTE));
+    }
+}
@@ -1,14 +1,40 @@
 package org.estg.ipp.pt;
 
+import org.estg.ipp.pt.Enums.FlushPolicy;
+import org.estg.ipp.pt.Enums.SyncPolicy;
+import org.estg.ipp.pt.Export.AsyncExporter;
+import org.estg.ipp.pt.Export.ExportSession;
 import org.estg.ipp.pt.Export.FilterOptions;
+import org.estg.ipp.pt.Export.ResultStore;
+import org.estg.ipp.pt.Export.StoredResult;
 import org.estg.ipp.pt.Export.ResultExporter;
 import org.estg.ipp.pt.Interfaces.Export.Export;
 import org.estg.ipp.pt.Interfaces.Export.FilterOpt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.HashMap;
-
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -222,4 +248,234 @@ public class ExportTest {
             csvExporter.exportData(map, null, filter);
         }, "Expected exportData to throw IllegalArgumentException for invalid type of inputs");
     }
+
+    @Test
+    void testExportSessionMatchesResultExporter() throws IOException {
+        FilterOpt filter = new FilterOptions(0, 4.0, null);
+        HashMap<String, Double> map = new HashMap<>();
+        map.put("Assembly", 5.0);
+        map.put("Transport", 3.4);
+        map.put("Processing", 3.2);
+
+        Path directory = Files.createTempDirectory("export");
+        Path file = directory.resolve("Export").resolve("PFC.csv");
+        try {
+            try (ExportSession session = new ExportSession(file.toString(), FlushPolicy.BUFFER_FULL, SyncPolicy.ON_CLOSE, 16)) {
+                for (int i = 0; i < 3; i++) {
+                    assertTrue(csvExporter.exportData(map, 11.6 + i, filter));
+                    assertTrue(session.exportData(map, 11.6 + i, filter));
+                }
+                assertTrue(csvExporter.exportData(map, 1.0, new FilterOptions(0, 1.0, null)));
+                assertTrue(session.exportData(map, 1.0, new FilterOptions(0, 1.0, null)));
+            }
+
+            assertEquals(Files.readString(Path.of("./Export/PFC.csv")), Files.readString(file),
+                    "Expected the session to write the same lines as ResultExporter");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void testExportSessionPolicies() throws IOException {
+        FilterOpt filter = new FilterOptions(0, 10.0, null);
+        HashMap<String, Double> map = new HashMap<>();
+        map.put("Assembly", 5.0);
+
+        Path file = Files.createTempFile("PFC", ".csv");
+        try {
+            ExportSession buffered = new ExportSession(file.toString());
+            assertTrue(buffered.exportData(map, 5.0, filter));
+            assertEquals(0, Files.size(file), "Expected the record to stay in the buffer");
+            buffered.flush();
+            assertEquals("ResultResult, Result per Process\n5.0,Assembly: 5.0; \n", Files.readString(file));
+            buffered.close();
+            buffered.close();
+            assertThrows(IllegalStateException.class, () -> buffered.exportData(map, 5.0, filter));
+
+            try (ExportSession immediate = new ExportSession(file.toString(), FlushPolicy.EVERY_EXPORT, SyncPolicy.EVERY_FLUSH,
+                    ExportSession.DEFAULT_BUFFER_SIZE)) {
+                assertTrue(immediate.exportData(map, 6.0, filter));
+                assertTrue(Files.readString(file).endsWith("\n5.0,Assembly: 5.0; \n6.0,Assembly: 5.0; \n"),
+                        "Expected the record to be appended without a new header");
+                assertThrows(IllegalArgumentException.class, () -> immediate.exportData(map, -1.0, filter));
+
+                immediate.clear();
+                assertEquals(0, Files.size(file));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testAsyncExporterWritesAllResults() throws IOException {
+        FilterOpt filter = new FilterOptions(0, 100.0, null);
+        Path directory = Files.createTempDirectory("export");
+        Path asyncFile = directory.resolve("async.csv");
+        Path sessionFile = directory.resolve("session.csv");
+        try {
+            List<CompletableFuture<Void>> written = new ArrayList<>();
+            try (AsyncExporter exporter = new AsyncExporter(asyncFile.toString());
+                 ExportSession session = new ExportSession(sessionFile.toString())) {
+                for (int i = 0; i < 2000; i++) {
+                    HashMap<String, Double> map = new HashMap<>();
+                    map.put("Cutting", i % 100.0);
+                    map.put("Stitching", (i * 7) % 100.0);
+                    written.add(exporter.submit(map, (double) i, filter));
+                    assertTrue(session.exportData(map, (double) i, filter));
+                }
+                CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).join();
+                assertEquals(0, exporter.getPendingCount());
+                assertThrows(IllegalArgumentException.class, () -> exporter.submit(new HashMap<>(), -1.0, filter));
+            }
+
+            assertEquals(Files.readString(sessionFile), Files.readString(asyncFile),
+                    "Expected the results in submission order, with the same lines as ExportSession");
+        } finally {
+            Files.deleteIfExists(asyncFile);
+            Files.deleteIfExists(sessionFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void testAsyncExporterRejectsAfterClose() throws IOException {
+        Path file = Files.createTempFile("PFC", ".csv");
+        try {
+            AsyncExporter exporter = new AsyncExporter(file.toString());
+            HashMap<String, Double> map = new HashMap<>();
+            map.put("Assembly", 5.0);
+            CompletableFuture<Void> accepted = exporter.submit(map, 5.0, new FilterOptions(0, 10.0, null));
+            exporter.close();
+
+            assertTrue(accepted.isDone() && !accepted.isCompletedExceptionally(), "Expected close to wait for accepted results");
+            assertEquals("ResultResult, Result per Process\n5.0,Assembly: 5.0; \n", Files.readString(file));
+            assertTrue(exporter.submit(map, 5.0, new FilterOptions(0, 10.0, null)).isCompletedExceptionally());
+            assertFalse(exporter.exportData(map, 5.0, new FilterOptions(0, 10.0, null)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testAsyncExporterStopsAfterWriteFailure() throws IOException {
+        Path file = Files.createTempFile("PFC", ".csv");
+        try {
+            ExportSession session = new ExportSession(file.toString());
+            AsyncExporter exporter = new AsyncExporter(session, 16, 16);
+            HashMap<String, Double> map = new HashMap<>();
+            map.put("Assembly", 5.0);
+            FilterOpt filter = new FilterOptions(0, 10.0, null);
+
+            session.close();
+            CompletionException failure = assertThrows(CompletionException.class, () -> exporter.submit(map, 5.0, filter).join());
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+            CompletableFuture<Void> next = exporter.submit(map, 5.0, filter);
+            assertTrue(next.isCompletedExceptionally(), "Expected the exporter to stay failed");
+            assertSame(failure.getCause(), assertThrows(CompletionException.class, next::join).getCause());
+            assertFalse(exporter.exportData(map, 5.0, filter));
+
+            exporter.close();
+            assertEquals("", Files.readString(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testResultStoreQueries() throws IOException {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        AtomicLong now = new AtomicLong(start.toEpochMilli());
+        Path file = Files.createTempFile("results", ".bin");
+        try {
+            try (ResultStore store = new ResultStore(file.toString(), steppingClock(now))) {
+                for (int i = 0; i < 30; i++) {
+                    HashMap<String, Double> map = new HashMap<>();
+                    map.put("cutting", (double) i);
+                    map.put("stitching", 100.0 - i);
+                    assertEquals(i + 1, store.append(map, 100.0));
+                    now.addAndGet(Duration.ofDays(1).toMillis());
+                }
+
+                List<StoredResult> cutting = store.query(new FilterOptions(10, 20, "cutting"),
+                        start.plus(Duration.ofDays(5)), start.plus(Duration.ofDays(15)));
+                assertEquals(List.of(11L, 12L, 13L, 14L, 15L), cutting.stream().map(StoredResult::getRunId).toList());
+                assertEquals(Map.of("cutting", 10.0), cutting.get(0).getResultPerProcess());
+
+                List<StoredResult> low = store.query(new FilterOptions(0, 5, null));
+                assertEquals(6, low.size(), "Expected the results with any process between 0 and 5");
+                assertTrue(store.query(new FilterOptions(0, 5, "Cutting")).isEmpty(), "Expected process names to match exactly");
+                assertThrows(IllegalArgumentException.class, () -> store.query(new FilterOptions(-1, 5, null)));
+            }
+
+            try (ResultStore reopened = new ResultStore(file.toString())) {
+                assertEquals(30, reopened.size());
+                assertEquals(start.plus(Duration.ofDays(3)), reopened.get(4).getTimestamp());
+                assertEquals(Map.of("cutting", 3.0, "stitching", 97.0), reopened.get(4).getResultPerProcess());
+                assertEquals(5, reopened.query(new FilterOptions(10, 20, "cutting"),
+                        start.plus(Duration.ofDays(5)), start.plus(Duration.ofDays(15))).size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testResultStoreDeleteCompactAndRecover() throws IOException {
+        Path file = Files.createTempFile("results", ".bin");
+        FilterOpt all = new FilterOptions(0, Double.MAX_VALUE, null);
+        try {
+            try (ResultStore store = new ResultStore(file.toString())) {
+                for (int i = 0; i < 50; i++) {
+                    HashMap<String, Double> map = new HashMap<>();
+                    map.put("cutting", (double) i);
+                    assertTrue(store.exportData(map, (double) i, all));
+                }
+                for (long runId = 11; runId <= 50; runId++) {
+                    assertTrue(store.delete(runId));
+                }
+                assertFalse(store.delete(50));
+
+                long before = store.getLogSize();
+                List<StoredResult> expected = store.query(all);
+                store.compactAsync().join();
+                assertTrue(store.getLogSize() < before, "Expected compaction to shrink the file");
+                assertEquals(10, store.size());
+                assertEquals(expected.toString(), store.query(all).toString());
+                assertEquals(51, store.append(Map.of("cutting", 1.0), 1.0), "Expected deleted ids not to be reused");
+            }
+
+            Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+            try (ResultStore reopened = new ResultStore(file.toString())) {
+                assertEquals(11, reopened.size(), "Expected the incomplete record to be discarded");
+                assertNull(reopened.get(50));
+                assertEquals(52, reopened.append(null, 2.0));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Clock steppingClock(AtomicLong now) {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+    }
 }
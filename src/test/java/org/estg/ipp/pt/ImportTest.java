@@ -1,11 +1,23 @@
 package org.estg.ipp.pt;
 
+import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Enums.FlowCategory;
+import org.estg.ipp.pt.Enums.UnitType;
 import org.estg.ipp.pt.Import.Import;
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
+import org.estg.ipp.pt.Interfaces.Models.ProcessInterface;
+import org.estg.ipp.pt.Models.Flow;
+import org.estg.ipp.pt.Models.Process;
+import org.estg.ipp.pt.Models.ProcessManager;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 public class ImportTest {
     private final Import csvImporter = new Import();
@@ -94,4 +106,217 @@ public class ImportTest {
         boolean result = csvImporter.ImportCSV("");
         assertFalse(result, "Expected empty list for an empty string as the path");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStream_01() {
+        assertTrue(csvImporter.ImportCSV("./Import/secondaryData.csv"));
+
+        try (Stream<String> rows = new Import().streamCSV("./Import/secondaryData.csv")) {
+            List<String> streamed = rows.toList();
+            assertEquals(csvImporter.getCsvLines(), streamed, "Expected the stream to yield the same lines as ImportCSV");
+        }
+    }
+
+    @Test
+    void testStream_02() {
+        try (Stream<String> rows = csvImporter.streamCSV("./Import/secondaryData.cvs")) {
+            assertEquals(0, rows.count(), "Expected an empty stream for an invalid path");
+        }
+    }
+
+    @Test
+    void testGenerator_01() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42);
+        generator.setProcessCount(20);
+        generator.setFlowsPerProcess(8);
+
+        SyntheticDataGenerator sameSeed = new SyntheticDataGenerator(42);
+        sameSeed.setProcessCount(20);
+        sameSeed.setFlowsPerProcess(8);
+
+        assertEquals(generator.primaryRows().toList(), sameSeed.primaryRows().toList(), "Expected the same primary rows for the same seed");
+        assertEquals(generator.secondaryRows().toList(), sameSeed.secondaryRows().toList(), "Expected the same secondary rows for the same seed");
+        assertNotEquals(generator.primaryRows().toList(), new SyntheticDataGenerator(43).primaryRows().toList(),
+                "Expected different rows for a different seed");
+        assertEquals(20 * 8, generator.primaryRows().count(), "Expected one primary row per flow");
+    }
+
+    @Test
+    void testGenerator_02() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(7);
+        generator.setProcessCount(50);
+        generator.setFlowsPerProcess(10);
+        generator.setMissingRatio(0.5);
+        assertTrue(generator.primaryRows().anyMatch(row -> row.contains(";F") && row.split(",")[3].isEmpty()), "Expected rows with missing values");
+
+        Path directory = Files.createTempDirectory("generator");
+        Path primary = directory.resolve("primaryData.csv");
+        Path secondary = directory.resolve("secondaryData.csv");
+        try {
+            assertTrue(generator.writePrimary(primary.toString()));
+            assertTrue(generator.writeSecondary(secondary.toString()));
+
+            Import primaryImport = new Import();
+            Import secondaryImport = new Import();
+            assertTrue(primaryImport.ImportCSV(primary.toString()), "Expected the generated primary data to be importable");
+            assertTrue(secondaryImport.ImportCSV(secondary.toString()), "Expected the generated secondary data to be importable");
+            assertEquals(generator.primaryRows().toList(), primaryImport.getCsvLines());
+
+            ProcessManager processManager = new ProcessManager();
+            assertTrue(processManager.modeling(secondaryImport.getCsvLines()), "Expected the generated secondary data to be modeled");
+            assertTrue(processManager.modeling(primaryImport.getCsvLines()), "Expected the generated primary data to be modeled");
+
+            for (Process process : processManager.getPrimaryProcesses()) {
+                for (Flow input : process.getInputs()) {
+                    assertTrue(input.getValue() > 0, "Expected missing values to be filled from the secondary data");
+                }
+            }
+
+            List<ProcessInterface> processes = new ArrayList<>(processManager.getPrimaryProcesses());
+            assertEquals(51, processes.size(), "Expected the generated processes and the energy process");
+            assertTrue(new Calculo().calculatePCFvalue(processes) > 0, "Expected a positive PCF for the generated data");
+        } finally {
+            Files.deleteIfExists(primary);
+            Files.deleteIfExists(secondary);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void testGenerator_03() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(1);
+        for (FlowCategory category : FlowCategory.values()) {
+            if (category != FlowCategory.MATERIAL) {
+                generator.setCategoryWeight(category, 0);
+            }
+        }
+        generator.setUnitWeight(UnitType.KG, 0);
+        generator.setMissingRatio(0);
+
+        assertTrue(generator.primaryRows().allMatch(row -> row.contains(",Input,Material;") && row.contains(",NONE,")),
+                "Expected only materials, with the only remaining compatible unit");
+        assertThrows(IllegalArgumentException.class, () -> generator.setCategoryWeight(FlowCategory.MATERIAL, 0));
+        assertThrows(IllegalArgumentException.class, () -> generator.setProcessCount(3));
+        assertThrows(IllegalArgumentException.class, () -> generator.setMissingRatio(1.5));
+    }
+
+    @Test
+    void testImportShards_01() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(11);
+        generator.setProcessCount(40);
+        generator.setFlowsPerProcess(5);
+        List<String> rows = generator.primaryRows().toList();
+
+        Path directory = Files.createTempDirectory("shards");
+        List<Path> shards = writeShards(directory, "primaryData-", rows, 5);
+        try {
+            Import directoryImport = new Import();
+            assertTrue(directoryImport.ImportShards(directory.toString(), 3), "Expected all shards to be imported");
+            assertEquals(rows, directoryImport.getCsvLines(), "Expected the rows in shard order");
+
+            Import globImport = new Import();
+            assertTrue(globImport.ImportShards(directory.resolve("primaryData-*.csv").toString()));
+            assertEquals(rows, globImport.getCsvLines());
+            assertTrue(globImport.getShardErrors().isEmpty());
+        } finally {
+            deleteAll(directory, shards);
+        }
+    }
+
+    @Test
+    void testImportShards_02() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(3);
+        generator.setProcessCount(8);
+        List<String> rows = new ArrayList<>(generator.primaryRows().toList());
+        rows.set(rows.size() - 1, "Cutting,Input,Material;Leather");
+
+        Path directory = Files.createTempDirectory("shards");
+        List<Path> shards = writeShards(directory, "primaryData-", rows, 4);
+        try {
+            Import shardImport = new Import();
+            assertFalse(shardImport.ImportShards(directory.toString(), 2), "Expected the invalid shard to fail the import");
+            assertEquals(List.of(shards.get(3).toString()), new ArrayList<>(shardImport.getShardErrors().keySet()));
+            assertTrue(shardImport.getCsvLines().isEmpty(), "Expected no rows to be added when a shard fails");
+
+            Path secondary = directory.resolve("secondaryData-0001.csv");
+            Files.write(secondary, List.of(SyntheticDataGenerator.HEADER));
+            shards.add(secondary);
+            assertFalse(shardImport.ImportShards(directory.toString(), 2), "Expected mixed data to be rejected");
+            assertTrue(shardImport.getShardErrors().containsKey(secondary.toString()));
+
+            assertFalse(shardImport.ImportShards(directory.resolve("missing-*.csv").toString()));
+            assertFalse(shardImport.ImportShards(directory.toString(), 0));
+        } finally {
+            deleteAll(directory, shards);
+        }
+    }
+
+    @Test
+    void testImportShardsChecksFileNamesOnly() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(5);
+        generator.setProcessCount(8);
+        List<String> rows = generator.primaryRows().toList();
+
+        Path directory = Files.createTempDirectory("secondaryShards");
+        List<Path> shards = writeShards(directory, "primaryData-", rows, 2);
+        try {
+            Import shardImport = new Import();
+            assertTrue(shardImport.ImportShards(directory.toString(), 2), "Expected the folder name not to mark shards as secondary");
+            assertEquals(rows, shardImport.getCsvLines());
+
+            Path secondary = directory.resolve("secondaryData-0001.csv");
+            Files.write(secondary, List.of(SyntheticDataGenerator.HEADER));
+            shards.add(secondary);
+            assertFalse(shardImport.ImportShards(directory.toString(), 2), "Expected mixed data to be rejected");
+            assertEquals(rows, shardImport.getCsvLines(), "Expected a failed import not to add rows");
+        } finally {
+            deleteAll(directory, shards);
+        }
+    }
+
+    @Test
+    void testFieldCountIgnoresQuotes() throws IOException {
+        assertTrue(importLine("Cutting,Input,\"Material;Leather\",100,kg,0.1"));
+        assertTrue(importLine("Cutting,Input,Material;Leather,100,kg,0.1,\"\""),
+                "Expected a trailing quoted empty field not to be counted");
+        assertTrue(importLine("Cutting,Input,Material;Leather,100,kg,0.1,,"),
+                "Expected trailing empty fields not to be counted");
+        assertTrue(importLine("Cutting,\"Input,Material;Leather\",100,kg,0.1"),
+                "Expected a comma between quotes to separate fields");
+        assertFalse(importLine("Cutting,Input,Material;Leather,100,kg,\"\""),
+                "Expected a quoted empty last field not to be counted");
+        assertFalse(importLine("Cutting,Input,Material;Leather,100,kg,0.1,\"x\""));
+    }
+
+    private static boolean importLine(String line) throws IOException {
+        Path file = Files.createTempFile("primaryData", ".csv");
+        try {
+            Files.write(file, List.of(SyntheticDataGenerator.HEADER, line));
+            return new Import().ImportCSV(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<Path> writeShards(Path directory, String prefix, List<String> rows, int count) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        int size = (rows.size() + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            List<String> lines = new ArrayList<>();
+            lines.add(SyntheticDataGenerator.HEADER);
+            lines.addAll(rows.subList(Math.min(i * size, rows.size()), Math.min((i + 1) * size, rows.size())));
+
+            Path shard = directory.resolve(String.format("%s%04d.csv", prefix, i + 1));
+            Files.write(shard, lines);
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    private static void deleteAll(Path directory, List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+}
@@ -2,21 +2,39 @@ package org.estg.ipp.pt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import org.estg.ipp.pt.Calculo.Calculo;
+import org.estg.ipp.pt.Calculo.ResultadoPCF;
 import org.estg.ipp.pt.Enums.FlowCategory;
 import org.estg.ipp.pt.Enums.Type;
 import org.estg.ipp.pt.Enums.UnitType;
+import org.estg.ipp.pt.Import.Import;
+import org.estg.ipp.pt.Import.SyntheticDataGenerator;
 import org.estg.ipp.pt.Models.Flow;
+import org.estg.ipp.pt.Models.ImmutableFlow;
+import org.estg.ipp.pt.Models.ImmutableProcess;
 import org.estg.ipp.pt.Models.Process;
 import org.estg.ipp.pt.Models.ProcessManager;
+import org.estg.ipp.pt.Models.SecondaryDataRepository;
+import org.estg.ipp.pt.Models.SymbolTable;
+import org.estg.ipp.pt.Pipeline.PipelinePCF;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.function.Executable;
 
@@ -49,11 +67,11 @@ public class ModelingTest {
         List<String> testNames = List.of("BVA_SD_MODELING_01", "BVA_SD_MODELING_02", "BVA_SD_MODELING_03", "BVA_SD_MODELING_04",
                 "ECP_SD_MODELING_01", "ECP_SD_MODELING_02", "ECP_SD_MODELING_03", "ECP_SD_MODELING_04");
 
-        List<Boolean> testResult = List.of(true, true, false, false, true, false, true, false);
+        List<Boolean> testResult = List.of(true, true, true, false, true, false, true, false);
 
-        List<Integer> secondaryProcessesLength = List.of(1, 1, 0, 0, 2, 0, 0, 0);
+        List<Integer> secondaryProcessesLength = List.of(1, 1, 1, 0, 2, 0, 0, 0);
 
-        List<Integer> flowCount = List.of(1, MAX_SIZE, 0, 0, 2, 0, 0, 0);
+        List<Integer> flowCount = List.of(1, MAX_SIZE, MAX_SIZE + 1, 0, 2, 0, 0, 0);
 
 
         ProcessManager processManager = new ProcessManager();
@@ -76,7 +94,7 @@ public class ModelingTest {
                         Assertions.assertEquals(secondaryProcessesLength.get(index), processManager.getSecondaryProcesses().size(), "Test failed for (" + testNames.get(index) + "): " + data.get(index));
                     }
                     int count = 0;
-                    for (Process process : processManager.getSecondaryProcesses()) {
+                    for (ImmutableProcess process : processManager.getSecondaryProcesses()) {
                         count += process.getOutputs().size() + process.getInputs().size();
                     }
 
@@ -162,11 +180,11 @@ public class ModelingTest {
         List<String> testNames = List.of("BVA_PD_MODELING_01", "BVA_PD_MODELING_02", "BVA_PD_MODELING_03", "BVA_PD_MODELING_04",
                 "ECP_PD_MODELING_01", "ECP_PD_MODELING_02", "ECP_PD_MODELING_03", "ECP_PD_MODELING_04", "ECP_PD_MODELING_05", "ECP_PD_MODELING_06");
 
-        List<Boolean> testResult = List.of(true, false, false, false, true, false, true, false, true, true);
+        List<Boolean> testResult = List.of(true, true, true, false, true, false, true, false, true, true);
 
-        List<Integer> primaryProcessesLength = List.of(2,2, 0, 0, 2, 0, 0, 0, 2, 2);
+        List<Integer> primaryProcessesLength = List.of(2,2, 2, 0, 2, 0, 0, 0, 2, 2);
 
-        List<Integer> flowCount = List.of(3, MAX_SIZE, 0, 0, 3, 0, 0, 0, 3, 3);
+        List<Integer> flowCount = List.of(3, MAX_SIZE + 1, MAX_SIZE + 2, 0, 3, 0, 0, 0, 3, 3);
 
         ProcessManager processManager = new ProcessManager();
 
@@ -210,4 +228,300 @@ public class ModelingTest {
             }
         }));
     }
-}
\ No newline at end of file
+
+    /**
+     * Teste que verifica que um lote com uma linha inválida é descartado sem afetar os lotes anteriores
+     */
+    @Test
+    void testBatchModelingDiscardsInvalidBatch() {
+        ProcessManager processManager = new ProcessManager(2);
+
+        List<String> data = List.of("Cutting,INPUT,Material,10,KG,0.1", "Cutting,INPUT,Material,10,KG,0.1",
+                "Stitching,INPUT,Material,10,KG,0.1", "EXAMPLE,INPUT,Not Material,10,KG,0.1");
+
+        assertFalse(processManager.modeling(data));
+        assertEquals(1, processManager.getSecondaryProcesses().size());
+        assertEquals(2, processManager.getSecondaryProcesses().get(0).getInputs().size());
+
+        processManager.setSecondary(true);
+        assertTrue(processManager.modeling(List.of("Stitching,INPUT,Material,10,KG,0.1")));
+        assertEquals(2, processManager.getSecondaryProcesses().size());
+    }
+
+    /**
+     * Teste que verifica que o índice junta os processos cujo nome difere apenas em maiúsculas e minúsculas
+     * e que a lista de processos primários não pode ser alterada fora da modelagem
+     */
+    @Test
+    void testIndexedModelingMergesCaseInsensitive() {
+        ProcessManager processManager = new ProcessManager();
+        List<String> data = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            data.add("Process" + i + ",INPUT,Material,10,KG,0.1");
+            data.add("PROCESS" + i + ",INPUT,Material,10,KG,0.1");
+        }
+
+        assertTrue(processManager.modeling(data));
+        assertEquals(5000, processManager.getSecondaryProcesses().size());
+        assertEquals("Process0", processManager.getSecondaryProcesses().get(0).getProcessName());
+        assertEquals(2, processManager.getSecondaryProcesses().get(4999).getInputs().size());
+
+        assertTrue(processManager.modeling(List.of("Process1,INPUT,Material,10,KG,0.1")));
+        List<Process> primary = processManager.getPrimaryProcesses();
+        assertEquals(1, primary.size());
+        assertThrows(UnsupportedOperationException.class, () -> primary.set(0, new Process("Other", new ArrayList<>(), new ArrayList<>())));
+
+        assertTrue(processManager.modeling(List.of("PROCESS1,INPUT,Material,5,KG,0.1")));
+        assertEquals(1, processManager.getPrimaryProcesses().size());
+        assertEquals(2, processManager.getPrimaryProcesses().get(0).getInputs().size());
+    }
+
+    @Test
+    void testProcessFlowIndex() {
+        Flow leather = new Flow(FlowCategory.MATERIAL, "LEATHER", Type.INPUT, 10, UnitType.KG, 0.1);
+        Flow emission = new Flow(FlowCategory.EMISSION, "LEATHER", Type.OUTPUT, 2, UnitType.KGCO2EQ, 0);
+        List<Flow> outputs = new ArrayList<>();
+        Process process = new Process("cutting", new ArrayList<>(), outputs);
+
+        process.addInput(leather);
+        process.addOutput(emission);
+        process.addOutput(new Flow(FlowCategory.EMISSION, "LEATHER", Type.OUTPUT, 3, UnitType.KGCO2EQ, 0));
+
+        assertSame(leather, process.getFlow(Type.INPUT, "LEATHER"));
+        assertSame(emission, process.getFlow(Type.OUTPUT, "LEATHER", FlowCategory.EMISSION));
+        assertNull(process.getFlow(Type.OUTPUT, "LEATHER", FlowCategory.MATERIAL));
+        assertNull(process.getFlow(Type.INPUT, "RUBBER"));
+
+        outputs.add(new Flow(FlowCategory.EMISSION, "RUBBER", Type.OUTPUT, 1, UnitType.KGCO2EQ, 0));
+        assertNull(process.getFlow(Type.OUTPUT, "RUBBER"), "Expected the list passed to the constructor to be copied");
+        assertThrows(UnsupportedOperationException.class, () -> process.getInputs().set(0, emission));
+
+        leather.setName("RUBBER");
+        assertSame(leather, process.getFlow(Type.INPUT, "RUBBER"), "Expected a renamed flow to be found by its new name");
+        assertNull(process.getFlow(Type.INPUT, "LEATHER"));
+        emission.setCategory(FlowCategory.MATERIAL);
+        assertSame(emission, process.getFlow(Type.OUTPUT, "LEATHER", FlowCategory.MATERIAL));
+
+        process.setOutputs(new ArrayList<>());
+        assertNull(process.getFlow(Type.OUTPUT, "LEATHER"));
+
+        Process other = new Process("stitching", List.of(leather), new ArrayList<>());
+        assertSame(leather, other.getFlow(Type.INPUT, "RUBBER"));
+        leather.setName("THREAD");
+        assertSame(leather, process.getFlow(Type.INPUT, "THREAD"), "Expected every process with the flow to see the new name");
+        assertSame(leather, other.getFlow(Type.INPUT, "THREAD"));
+
+        other.setInputs(new ArrayList<>());
+        leather.setName("LEATHER");
+        assertSame(leather, process.getFlow(Type.INPUT, "LEATHER"));
+        assertNull(other.getFlow(Type.INPUT, "LEATHER"));
+    }
+
+    @Test
+    void testSharedSecondaryRepository() {
+        SecondaryDataRepository repository = new SecondaryDataRepository();
+        assertTrue(repository.reload("./Import/secondaryData.csv"));
+        long version = repository.getVersion();
+
+        ProcessManager first = new ProcessManager(repository);
+        ProcessManager second = new ProcessManager(repository);
+        assertFalse(first.isSecondary());
+        assertTrue(first.modeling(List.of("Cutting,INPUT,Material;Leather,0,KG,0.1")));
+        assertTrue(second.modeling(List.of("Stitching,INPUT,Material;Leather,10,KG,0.1")));
+
+        first.clearProcesses();
+        assertEquals(version, repository.getVersion());
+        assertEquals(repository.getProcesses(), second.getSecondaryProcesses());
+
+        ImmutableProcess secondary = repository.getProcesses().get(0);
+        assertThrows(UnsupportedOperationException.class, () -> secondary.getInputs().add(secondary.getInputs().get(0)));
+
+        assertFalse(repository.reload("./Import/missingSecondaryData.csv"));
+        assertEquals(version, repository.getVersion());
+    }
+
+    @Test
+    void testSecondaryVersionsReuseUnchangedProcesses() {
+        ProcessManager processManager = new ProcessManager();
+        assertTrue(processManager.modeling(List.of("Cutting,INPUT,Material,10,KG,0.1", "Stitching,INPUT,Material,10,KG,0.1")));
+        List<ImmutableProcess> first = processManager.getSecondaryProcesses();
+
+        processManager.setSecondary(true);
+        assertTrue(processManager.modeling(List.of("CUTTING,INPUT,Energy,5,KWH,0")));
+        List<ImmutableProcess> second = processManager.getSecondaryProcesses();
+
+        assertEquals(2, second.size());
+        assertSame(first.get(1), second.get(1), "Expected an unchanged process to be reused by the next version");
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(1, first.get(0).getInputs().size(), "Expected the previous version not to change");
+        assertEquals(2, second.get(0).getInputs().size());
+        assertSame(first.get(0).getInputs().get(0), second.get(0).getInputs().get(0));
+    }
+
+    @Test
+    void testImmutableFlowsShareInternedNames() {
+        ImmutableFlow first = new ImmutableFlow(FlowCategory.MATERIAL, new String("LEATHER"), Type.INPUT, 1, UnitType.KG, 0.1);
+        Flow mutable = new Flow(FlowCategory.EMISSION, new String("LEATHER"), Type.OUTPUT, 2, UnitType.KGCO2EQ, 0);
+        ImmutableFlow copy = ImmutableFlow.of(mutable);
+
+        assertEquals("LEATHER", copy.getName());
+        assertEquals(FlowCategory.EMISSION, copy.getCategory());
+        assertEquals(2, copy.getValue());
+        assertSame(first, ImmutableFlow.of(first));
+        assertEquals(first.getNameId(), copy.getNameId(), "Expected flows with the same name to share the name id");
+        assertEquals(SymbolTable.global().intern("LEATHER"), copy.getNameId());
+        assertThrows(IllegalArgumentException.class, () -> new ImmutableFlow(FlowCategory.MATERIAL, "", Type.INPUT, 1, UnitType.KG, 0));
+
+        mutable.setValue(3);
+        assertEquals(2, copy.getValue(), "Expected the copy not to follow the original flow");
+
+        SecondaryDataRepository repository = new SecondaryDataRepository();
+        repository.load(List.of(new ImmutableProcess("Cutting", List.of(first), List.of(mutable))));
+        ImmutableProcess secondary = repository.getProcesses().get(0);
+        assertSame(first, secondary.getInputs().get(0), "Expected immutable flows to be shared without copying");
+        assertSame(SymbolTable.global().canonical("LEATHER"), secondary.getOutputs().get(0).getName(),
+                "Expected secondary flow names to be interned by the repository");
+
+        repository.load(repository.getProcesses());
+        assertSame(secondary.getOutputs().get(0), repository.getProcesses().get(0).getOutputs().get(0));
+    }
+
+    @Test
+    void testSymbolTableConcurrentIntern() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(() -> IntStream.range(0, 1000).mapToObj(i -> symbols.intern("NAME" + i)).toList()));
+            }
+
+            List<Integer> expected = results.get(0).get();
+            for (Future<List<Integer>> result : results) {
+                assertEquals(expected, result.get(), "Expected every thread to see the same ids");
+            }
+            assertEquals(1000, symbols.size());
+            assertEquals(1000, expected.stream().distinct().count());
+            assertEquals("NAME999", symbols.getName(expected.get(999)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testProcessSnapshotRoundTrip() throws IOException {
+        ProcessManager processManager = new ProcessManager();
+        try (Stream<String> secondary = new Import().streamCSV("./Import/secondaryData.csv");
+             Stream<String> primary = new Import().streamCSV("./Import/primaryData.csv")) {
+            assertTrue(processManager.modeling(secondary));
+            assertTrue(processManager.modeling(primary));
+        }
+
+        Path snapshot = Files.createTempFile("processes", ".bin");
+        try {
+            assertTrue(processManager.saveSnapshot(snapshot.toString()));
+
+            ProcessManager loaded = new ProcessManager();
+            assertTrue(loaded.loadSnapshot(snapshot.toString()));
+            assertFalse(loaded.isSecondary());
+            assertEquals(processManager.getSecondaryProcesses().toString(), loaded.getSecondaryProcesses().toString());
+            assertEquals(processManager.getPrimaryProcesses().toString(), loaded.getPrimaryProcesses().toString());
+
+            Files.write(snapshot, new byte[]{1, 2, 3});
+            assertFalse(loaded.loadSnapshot(snapshot.toString()));
+            assertFalse(loaded.loadSnapshot(null));
+            assertFalse(loaded.loadSnapshot(""));
+            assertFalse(processManager.saveSnapshot(null));
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    /**
+     * Teste que verifica que a modelagem em lotes não está limitada às primeiras 50 linhas. Este teste não
+     * mede o débito, que é medido por {@code org.estg.ipp.pt.benchmark.ModelingBenchmark}
+     */
+    @Test
+    void testBatchModelingHasNoRowCap() {
+        int rows = 500;
+        int processes = 100;
+        ProcessManager processManager = new ProcessManager(64);
+
+        assertTrue(processManager.modeling(IntStream.range(0, rows)
+                .mapToObj(i -> "Process" + (i % processes) + ",INPUT,Material;M" + (i % 7) + "," + (i % 100 + 1) + ",KG,0.1")));
+        assertEquals(processes, processManager.getSecondaryProcesses().size());
+
+        int count = 0;
+        for (ImmutableProcess process : processManager.getSecondaryProcesses()) {
+            count += process.getInputs().size();
+        }
+        assertEquals(rows, count, "Expected every row, not only the first 50, to be modeled");
+    }
+
+    @Test
+    void testPipelineMatchesSequentialExecution() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(21);
+        generator.setProcessCount(60);
+        generator.setFlowsPerProcess(20);
+        generator.setMissingRatio(0.2);
+
+        Path directory = Files.createTempDirectory("pipeline");
+        Path primary = directory.resolve("primaryData.csv");
+        Path secondary = directory.resolve("secondaryData.csv");
+        try {
+            assertTrue(generator.writePrimary(primary.toString()));
+            assertTrue(generator.writeSecondary(secondary.toString()));
+
+            ProcessManager processManager = new ProcessManager();
+            Import importer = new Import();
+            try (Stream<String> rows = importer.streamCSV(secondary.toString())) {
+                assertTrue(processManager.modeling(rows));
+            }
+            try (Stream<String> rows = importer.streamCSV(primary.toString())) {
+                assertTrue(processManager.modeling(rows));
+            }
+            ResultadoPCF expected = new Calculo().calculate(new ArrayList<>(processManager.getPrimaryProcesses()));
+
+            PipelinePCF pipeline = new PipelinePCF();
+            pipeline.setBatchSize(7);
+            pipeline.setQueueCapacity(2);
+            assertTrue(pipeline.run(secondary.toString(), primary.toString()), "Expected the pipeline to succeed");
+            assertEquals(expected.getResultado(), pipeline.getCalculo().getResultado());
+            assertEquals(expected.getResultadoPerProcess(), pipeline.getCalculo().getResultadoPerProcess());
+            assertEquals(61, pipeline.getProcessModeling().getPrimaryProcesses().size());
+        } finally {
+            Files.deleteIfExists(primary);
+            Files.deleteIfExists(secondary);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void testPipelineStopsOnInvalidRows() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(5);
+        generator.setProcessCount(200);
+
+        Path directory = Files.createTempDirectory("pipeline");
+        Path primary = directory.resolve("primaryData.csv");
+        Path secondary = directory.resolve("secondaryData.csv");
+        try {
+            assertTrue(generator.writeSecondary(secondary.toString()));
+            List<String> lines = new ArrayList<>();
+            lines.add(SyntheticDataGenerator.HEADER);
+            generator.primaryRows().forEach(lines::add);
+            lines.add("Cutting,Input,Material;Leather");
+            Files.write(primary, lines);
+
+            PipelinePCF pipeline = new PipelinePCF();
+            pipeline.setBatchSize(3);
+            pipeline.setQueueCapacity(1);
+            assertFalse(pipeline.run(secondary.toString(), primary.toString()), "Expected the invalid row to stop the pipeline");
+            assertFalse(new PipelinePCF().run(directory.resolve("missing.csv").toString(), primary.toString()));
+            assertThrows(IllegalArgumentException.class, () -> pipeline.setQueueCapacity(0));
+        } finally {
+            Files.deleteIfExists(primary);
+            Files.deleteIfExists(secondary);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.estg.ipp.pt.Calculo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A classe {@code VectorImpactKernel} calcula a ineficiência e o impacto de vários fluxos de uma só vez,
+ * com instruções SIMD através da Java Vector API ({@code jdk.incubator.vector}).
+ *
+ * <p>As operações são as mesmas, e pela mesma ordem, do cálculo escalar de
+ * {@link CalculoFlowInefficiency}: {@code valor * (1 + taxaDePerda)} para cada fluxo, seguido do produto
+ * das duas ineficiências. Não são usadas operações fundidas (FMA), pelo que os resultados são iguais
+ * bit a bit aos do cálculo escalar.</p>
+ *
+ * <p>Esta classe é compilada à parte (source set {@code vector}), para que o resto do código não dependa
+ * do módulo de incubação, e só é carregada, por reflexão, se o módulo {@code jdk.incubator.vector} estiver
+ * disponível (ver {@link CalculoFlowInefficiency#isVectorized()}).</p>
+ */
+final class VectorImpactKernel implements ImpactKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorImpactKernel() {
+    }
+
+    @Override
+    public int calculateImpacts(double[] values, double[] lossRates, double[] emissionValues, double[] emissionLossRates,
+                                double[] inefficiencies, double[] impacts, int from, int to) {
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1);
+        int bound = from + SPECIES.loopBound(to - from);
+        int i = from;
+
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector inefficiency = DoubleVector.fromArray(SPECIES, values, i)
+                    .mul(one.add(DoubleVector.fromArray(SPECIES, lossRates, i)));
+            DoubleVector emissionInefficiency = DoubleVector.fromArray(SPECIES, emissionValues, i)
+                    .mul(one.add(DoubleVector.fromArray(SPECIES, emissionLossRates, i)));
+
+            inefficiency.intoArray(inefficiencies, i);
+            inefficiency.mul(emissionInefficiency).intoArray(impacts, i);
+        }
+        return i;
+    }
+}